@@ -16,6 +16,17 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        // Room exporta el esquema de cada versión; los tests de migración lo leen como asset
+        javaCompileOptions {
+            annotationProcessorOptions {
+                arguments += mapOf("room.schemaLocation" to "$projectDir/schemas")
+            }
+        }
+    }
+
+    sourceSets {
+        getByName("androidTest").assets.srcDir("$projectDir/schemas")
     }
 
     buildTypes {
@@ -53,6 +64,14 @@ dependencies {
     implementation(libs.lifecycle.viewmodel)
     implementation(libs.lifecycle.livedata)
     implementation(libs.lifecycle.common)
+    implementation(libs.lifecycle.viewmodel.ktx)
+
+    // Paging
+    implementation(libs.paging.runtime)
+    implementation(libs.paging.guava)
+
+    // WorkManager
+    implementation(libs.work.runtime)
 
     // Firebase - Declaramos el BOM (Bill of Materials) UNA SOLA VEZ
     implementation(platform(libs.firebase.bom))
@@ -83,4 +102,6 @@ dependencies {
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
+    androidTestImplementation(libs.room.testing)
+    androidTestImplementation(libs.work.testing)
 }
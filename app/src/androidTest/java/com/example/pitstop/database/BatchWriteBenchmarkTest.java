@@ -0,0 +1,119 @@
+package com.example.pitstop.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.pitstop.database.entity.User;
+import com.example.pitstop.database.entity.VehicleLog;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Benchmark de escrituras por segundo: una transacción por inserción contra los lotes de
+ * {@link BatchWriter}, sobre una base en disco con la configuración de la app (WAL y
+ * {@link DatabasePragmas#DEFAULT}). Las tasas se escriben en logcat (tag BatchWriteBenchmark);
+ * el test solo verifica que todo se escriba y que los lotes no sean más lentos.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BatchWriteBenchmarkTest {
+    private static final String TAG = "BatchWriteBenchmark";
+    private static final String NAME = "bench_batch.db";
+    private static final String UID = "uid";
+    private static final int WRITES = 2_000;
+
+    private Context context;
+    private AppDatabase database;
+    private ExecutorService writeExecutor;
+    private ScheduledExecutorService timer;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(NAME);
+        database = Room.databaseBuilder(context, AppDatabase.class, NAME)
+            .addCallback(AppDatabase.TRIGGERS_CALLBACK)
+            .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
+            .openHelperFactory(new PragmaOpenHelperFactory(DatabasePragmas.DEFAULT))
+            .build();
+        database.userDao().insertUser(new User(UID, "bench@example.com"));
+        writeExecutor = Executors.newSingleThreadExecutor();
+        timer = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        writeExecutor.shutdownNow();
+        timer.shutdownNow();
+        database.close();
+        context.deleteDatabase(NAME);
+    }
+
+    @Test
+    public void batchedWrites_outpaceSingleTransactions() throws Exception {
+        long singleNanos = timeSingleTransactions();
+        long batchedNanos = timeBatched();
+
+        double singleRate = perSecond(singleNanos);
+        double batchedRate = perSecond(batchedNanos);
+        Log.i(TAG, String.format(Locale.US, "una por transacción: %.0f escrituras/s", singleRate));
+        Log.i(TAG, String.format(Locale.US, "en lotes: %.0f escrituras/s (x%.1f)", batchedRate, batchedRate / singleRate));
+
+        assertEquals(2 * WRITES, countLogs());
+        assertTrue("los lotes fueron más lentos", batchedRate >= singleRate);
+    }
+
+    // Cada inserción del DAO es su propia transacción (un commit por fila)
+    private long timeSingleTransactions() {
+        long start = System.nanoTime();
+        for (int i = 0; i < WRITES; i++) {
+            database.vehicleLogDao().insertVehicleLog(new VehicleLog(UID, 1, i, i, null));
+        }
+        return System.nanoTime() - start;
+    }
+
+    // Las mismas inserciones encoladas; se mide hasta el commit del último lote
+    private long timeBatched() throws Exception {
+        BatchWriter writer = new BatchWriter(database, writeExecutor, Runnable::run, timer);
+        ListenableFuture<Void> last = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < WRITES; i++) {
+            VehicleLog log = new VehicleLog(UID, 2, i, i, null);
+            last = writer.submit(() -> {
+                database.vehicleLogDao().insertVehicleLog(log);
+                return null;
+            });
+        }
+        last.get(30, TimeUnit.SECONDS);
+        return System.nanoTime() - start;
+    }
+
+    private int countLogs() {
+        try (Cursor cursor = database.query("SELECT COUNT(*) FROM vehicle_logs", null)) {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        }
+    }
+
+    private static double perSecond(long nanos) {
+        return WRITES / (nanos / 1e9);
+    }
+}
@@ -0,0 +1,350 @@
+package com.example.pitstop.database;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.Room;
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteOpenHelper;
+import androidx.sqlite.db.SupportSQLiteStatement;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.pitstop.model.MaintenanceType;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Migra una base de la versión 4 con un historial grande hasta la versión actual.
+ * Verifica que el esquema final coincida con el exportado y con las entidades compiladas,
+ * que no se pierdan filas y que toda la cadena termine dentro de {@link #MIGRATION_BUDGET_MS}.
+ * Las versiones 3 y 4 se crean con SQL a mano: son anteriores a la exportación de esquemas.
+ * También verifica que una base de la versión 2 (recreada desde cero) conserve los triggers
+ * y que el esquema exportado sea el que genera el procesador de anotaciones.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MigrationTest {
+    private static final String TAG = "MigrationTest";
+    private static final String TEST_DB = "migration_test.db";
+    private static final String UID = "uid";
+    private static final int VEHICLES = 5;
+    private static final int MAINTENANCE_ROWS = 100_000;
+    private static final int LOG_ROWS = 10_000;
+    // Holgado para dispositivos lentos; los tiempos reales quedan en logcat
+    private static final long MIGRATION_BUDGET_MS = 30_000;
+
+    private static final int LATEST_VERSION = 11;
+    private static final String SCHEMA_ASSET = "com.example.pitstop.database.AppDatabase/" + LATEST_VERSION + ".json";
+
+    // Esquema de la versión 3 tal como lo generaba Room (sin `isCurrent`)
+    private static final String[] SCHEMA_V3 = {
+        "CREATE TABLE IF NOT EXISTS `users` (`uid` TEXT NOT NULL, `email` TEXT, PRIMARY KEY(`uid`))",
+        "CREATE TABLE IF NOT EXISTS `vehicles` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `userUid` TEXT, "
+            + "`name` TEXT, `brand` TEXT, `model` TEXT, `year` INTEGER NOT NULL, `color` TEXT, `licensePlate` TEXT, "
+            + "`currentKm` INTEGER NOT NULL, `createdAt` INTEGER NOT NULL, `isActive` INTEGER NOT NULL, "
+            + "FOREIGN KEY(`userUid`) REFERENCES `users`(`uid`) ON UPDATE NO ACTION ON DELETE CASCADE )",
+        "CREATE INDEX IF NOT EXISTS `index_vehicles_userUid` ON `vehicles` (`userUid`)",
+        "CREATE TABLE IF NOT EXISTS `maintenance` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `userUid` TEXT, "
+            + "`vehicleId` INTEGER NOT NULL, `type` TEXT, `description` TEXT, `periodicityKm` INTEGER NOT NULL, "
+            + "`executedKm` INTEGER NOT NULL, `date` INTEGER NOT NULL, `cost` REAL, `notes` TEXT, "
+            + "FOREIGN KEY(`userUid`) REFERENCES `users`(`uid`) ON UPDATE NO ACTION ON DELETE CASCADE )",
+        "CREATE INDEX IF NOT EXISTS `index_maintenance_userUid` ON `maintenance` (`userUid`)",
+        "CREATE INDEX IF NOT EXISTS `index_maintenance_vehicleId` ON `maintenance` (`vehicleId`)",
+        "CREATE TABLE IF NOT EXISTS `vehicle_logs` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `userUid` TEXT, "
+            + "`vehicleId` INTEGER NOT NULL, `currentKm` INTEGER NOT NULL, `date` INTEGER NOT NULL, "
+            + "`odometerPhotoUri` TEXT, "
+            + "FOREIGN KEY(`userUid`) REFERENCES `users`(`uid`) ON UPDATE NO ACTION ON DELETE CASCADE )",
+        "CREATE INDEX IF NOT EXISTS `index_vehicle_logs_userUid` ON `vehicle_logs` (`userUid`)",
+        "CREATE INDEX IF NOT EXISTS `index_vehicle_logs_vehicleId` ON `vehicle_logs` (`vehicleId`)"
+    };
+
+    // Esquema de la versión 4 tal como lo generaba Room
+    private static final String[] SCHEMA_V4 = {
+        "CREATE TABLE IF NOT EXISTS `users` (`uid` TEXT NOT NULL, `email` TEXT, PRIMARY KEY(`uid`))",
+        "CREATE TABLE IF NOT EXISTS `vehicles` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `userUid` TEXT, "
+            + "`name` TEXT, `brand` TEXT, `model` TEXT, `year` INTEGER NOT NULL, `color` TEXT, `licensePlate` TEXT, "
+            + "`currentKm` INTEGER NOT NULL, `createdAt` INTEGER NOT NULL, `isActive` INTEGER NOT NULL, "
+            + "`isCurrent` INTEGER NOT NULL, "
+            + "FOREIGN KEY(`userUid`) REFERENCES `users`(`uid`) ON UPDATE NO ACTION ON DELETE CASCADE )",
+        "CREATE INDEX IF NOT EXISTS `index_vehicles_userUid` ON `vehicles` (`userUid`)",
+        "CREATE TABLE IF NOT EXISTS `maintenance` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `userUid` TEXT, "
+            + "`vehicleId` INTEGER NOT NULL, `type` TEXT, `description` TEXT, `periodicityKm` INTEGER NOT NULL, "
+            + "`executedKm` INTEGER NOT NULL, `date` INTEGER NOT NULL, `cost` REAL, `notes` TEXT, "
+            + "FOREIGN KEY(`userUid`) REFERENCES `users`(`uid`) ON UPDATE NO ACTION ON DELETE CASCADE )",
+        "CREATE INDEX IF NOT EXISTS `index_maintenance_userUid` ON `maintenance` (`userUid`)",
+        "CREATE INDEX IF NOT EXISTS `index_maintenance_vehicleId` ON `maintenance` (`vehicleId`)",
+        "CREATE TABLE IF NOT EXISTS `vehicle_logs` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `userUid` TEXT, "
+            + "`vehicleId` INTEGER NOT NULL, `currentKm` INTEGER NOT NULL, `date` INTEGER NOT NULL, "
+            + "`odometerPhotoUri` TEXT, "
+            + "FOREIGN KEY(`userUid`) REFERENCES `users`(`uid`) ON UPDATE NO ACTION ON DELETE CASCADE )",
+        "CREATE INDEX IF NOT EXISTS `index_vehicle_logs_userUid` ON `vehicle_logs` (`userUid`)",
+        "CREATE INDEX IF NOT EXISTS `index_vehicle_logs_vehicleId` ON `vehicle_logs` (`vehicleId`)"
+    };
+
+    @Rule
+    public MigrationTestHelper helper = new MigrationTestHelper(
+        InstrumentationRegistry.getInstrumentation(), AppDatabase.class);
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(TEST_DB);
+    }
+
+    @After
+    public void tearDown() {
+        context.deleteDatabase(TEST_DB);
+    }
+
+    @Test
+    public void migrate4ToLatest_keepsDataWithinBudget() {
+        createVersion4();
+
+        long start = System.nanoTime();
+        SupportSQLiteDatabase db = helper.runMigrationsAndValidate(TEST_DB, LATEST_VERSION, true,
+            AppDatabase.MIGRATION_4_5, AppDatabase.MIGRATION_5_6, AppDatabase.MIGRATION_6_7, AppDatabase.MIGRATION_7_8,
+            AppDatabase.MIGRATION_8_9, AppDatabase.MIGRATION_9_10, AppDatabase.MIGRATION_10_11);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        Log.i(TAG, MAINTENANCE_ROWS + " mantenimientos migrados 4 -> 11 en " + elapsedMs + " ms");
+
+        assertEquals(MAINTENANCE_ROWS, count(db, "SELECT COUNT(*) FROM maintenance"));
+        assertEquals(MAINTENANCE_ROWS, count(db, "SELECT COUNT(*) FROM maintenance_due"));
+        assertEquals(LOG_ROWS, count(db, "SELECT COUNT(*) FROM vehicle_logs"));
+        // El backfill de typeCode respeta el texto original
+        assertEquals(0, count(db, "SELECT COUNT(*) FROM maintenance WHERE type = '"
+            + MaintenanceType.OIL_CHANGE.getDisplayName() + "' AND typeCode <> " + MaintenanceType.OIL_CHANGE.getCode()));
+        // Los triggers suspendidos durante el backfill siguen activos
+        db.execSQL("UPDATE maintenance SET description = 'revisionunica', executedKm = executedKm + 1 WHERE id = 1");
+        assertEquals(1, count(db, "SELECT COUNT(*) FROM maintenance_fts WHERE maintenance_fts MATCH 'revisionunica'"));
+        assertEquals(1, count(db, "SELECT COUNT(*) FROM maintenance m INNER JOIN maintenance_due d "
+            + "ON d.maintenanceId = m.id WHERE m.id = 1 AND d.nextServiceKm = m.executedKm + m.periodicityKm"));
+
+        assertTrue("Migración demasiado lenta: " + elapsedMs + " ms", elapsedMs <= MIGRATION_BUDGET_MS);
+
+        validateAgainstEntities(db);
+    }
+
+    @Test
+    public void migrate3ToLatest_addsIsCurrent() {
+        SupportSQLiteOpenHelper openHelper = openHandWritten(3, SCHEMA_V3);
+        SupportSQLiteDatabase v3 = openHelper.getWritableDatabase();
+        v3.execSQL("INSERT INTO users (uid, email) VALUES (?, 'v3@example.com')", new Object[]{UID});
+        for (int v = 1; v <= 2; v++) {
+            v3.execSQL("INSERT INTO vehicles (id, userUid, name, brand, model, year, color, licensePlate, "
+                    + "currentKm, createdAt, isActive) VALUES (?, ?, 'Auto', 'Marca', 'Modelo', 2020, "
+                    + "'Gris', 'ABC123', 1000, ?, 1)", new Object[]{v, UID, v});
+        }
+        v3.execSQL("INSERT INTO maintenance (userUid, vehicleId, type, description, periodicityKm, executedKm, "
+            + "date, cost, notes) VALUES (?, 1, 'Aceite', '', 10000, 0, 0, 0, '')", new Object[]{UID});
+        openHelper.close();
+
+        SupportSQLiteDatabase db = helper.runMigrationsAndValidate(TEST_DB, LATEST_VERSION, true,
+            AppDatabase.MIGRATION_3_4, AppDatabase.MIGRATION_4_5, AppDatabase.MIGRATION_5_6, AppDatabase.MIGRATION_6_7,
+            AppDatabase.MIGRATION_7_8, AppDatabase.MIGRATION_8_9, AppDatabase.MIGRATION_9_10,
+            AppDatabase.MIGRATION_10_11);
+
+        // Ningún vehículo queda seleccionado: la columna nueva arranca en 0
+        assertEquals(2, count(db, "SELECT COUNT(*) FROM vehicles"));
+        assertEquals(0, count(db, "SELECT COUNT(*) FROM vehicles WHERE isCurrent <> 0"));
+        assertEquals(1, count(db, "SELECT COUNT(*) FROM maintenance_due WHERE vehicleId = 1"));
+
+        validateAgainstEntities(db);
+    }
+
+    // El JSON exportado debe ser el que escribe el procesador de anotaciones: su identityHash es
+    // el que Room graba al crear la base con las entidades compiladas
+    @Test
+    public void exportedSchema_matchesCompiledDatabase() throws Exception {
+        String exportedHash = new JSONObject(readSchemaAsset())
+            .getJSONObject("database").getString("identityHash");
+
+        AppDatabase database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        try {
+            SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+            assertEquals(LATEST_VERSION, db.getVersion());
+            try (Cursor cursor = db.query("SELECT identity_hash FROM room_master_table WHERE id = 42")) {
+                assertTrue(cursor.moveToFirst());
+                assertEquals("Esquema exportado desactualizado: recompilar para regenerarlo",
+                    exportedHash, cursor.getString(0));
+            }
+        } finally {
+            database.close();
+        }
+    }
+
+    @Test
+    public void destructiveMigrationFrom2_recreatesTriggers() {
+        createVersion2();
+
+        AppDatabase database = Room.databaseBuilder(context, AppDatabase.class, TEST_DB)
+            .addCallback(AppDatabase.TRIGGERS_CALLBACK)
+            .fallbackToDestructiveMigrationFrom(1, 2)
+            .build();
+        try {
+            SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+            assertEquals(0, count(db, "SELECT COUNT(*) FROM users"));
+            assertEquals(6, count(db, "SELECT COUNT(*) FROM sqlite_master WHERE type = 'trigger' "
+                + "AND name LIKE 'maintenance_due_%'"));
+
+            // `maintenance_due` se mantiene sola en la base recreada
+            db.execSQL("INSERT INTO users (uid, email) VALUES (?, 'v2@example.com')", new Object[]{UID});
+            db.execSQL("INSERT INTO vehicles (id, userUid, name, brand, model, year, color, licensePlate, "
+                + "currentKm, createdAt, isActive, isCurrent) VALUES (1, ?, 'Auto', 'Marca', 'Modelo', 2020, "
+                + "'Gris', 'ABC123', 9500, 0, 1, 1)", new Object[]{UID});
+            db.execSQL("INSERT INTO maintenance (userUid, vehicleId, type, typeCode, description, periodicityKm, "
+                + "executedKm, date, cost, notes) VALUES (?, 1, 'Aceite', 0, '', 10000, 0, 0, 0, '')", new Object[]{UID});
+            assertEquals(500, count(db, "SELECT remainingKm FROM maintenance_due WHERE vehicleId = 1"));
+        } finally {
+            database.close();
+        }
+    }
+
+    // runMigrationsAndValidate compara contra el JSON exportado; esto compara además contra el código
+    // generado: sin room_master_table, Room valida el esquema con las entidades compiladas al abrir
+    private void validateAgainstEntities(SupportSQLiteDatabase db) {
+        db.execSQL("DROP TABLE room_master_table");
+        db.close();
+        AppDatabase database = Room.databaseBuilder(context, AppDatabase.class, TEST_DB)
+            .addCallback(AppDatabase.TRIGGERS_CALLBACK)
+            .build();
+        try {
+            // Lanza IllegalStateException si una tabla, índice o vista no coincide
+            database.getOpenHelper().getWritableDatabase();
+        } finally {
+            database.close();
+        }
+    }
+
+    private String readSchemaAsset() throws Exception {
+        try (InputStream in = InstrumentationRegistry.getInstrumentation().getContext().getAssets().open(SCHEMA_ASSET)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    // Abre (y crea) la base con SQL a mano en `version`, para versiones sin esquema exportado
+    private SupportSQLiteOpenHelper openHandWritten(int version, String[] schema) {
+        SupportSQLiteOpenHelper.Configuration configuration = SupportSQLiteOpenHelper.Configuration.builder(context)
+            .name(TEST_DB)
+            .callback(new SupportSQLiteOpenHelper.Callback(version) {
+                @Override
+                public void onCreate(@NonNull SupportSQLiteDatabase db) {
+                    for (String statement : schema) {
+                        db.execSQL(statement);
+                    }
+                }
+
+                @Override
+                public void onUpgrade(@NonNull SupportSQLiteDatabase db, int oldVersion, int newVersion) {
+                }
+            })
+            .build();
+        return new FrameworkSQLiteOpenHelperFactory().create(configuration);
+    }
+
+    // Base de la versión 2 (anterior a los esquemas conocidos): solo importa que Room la recree
+    private void createVersion2() {
+        SupportSQLiteOpenHelper.Configuration configuration = SupportSQLiteOpenHelper.Configuration.builder(context)
+            .name(TEST_DB)
+            .callback(new SupportSQLiteOpenHelper.Callback(2) {
+                @Override
+                public void onCreate(@NonNull SupportSQLiteDatabase db) {
+                    db.execSQL("CREATE TABLE IF NOT EXISTS `users` (`uid` TEXT NOT NULL, `email` TEXT, PRIMARY KEY(`uid`))");
+                    db.execSQL("INSERT INTO users (uid, email) VALUES ('old', 'old@example.com')");
+                }
+
+                @Override
+                public void onUpgrade(@NonNull SupportSQLiteDatabase db, int oldVersion, int newVersion) {
+                }
+            })
+            .build();
+        SupportSQLiteOpenHelper openHelper = new FrameworkSQLiteOpenHelperFactory().create(configuration);
+        openHelper.getWritableDatabase();
+        openHelper.close();
+    }
+
+    // Crea la base en la versión 4 y la llena en una sola transacción
+    private void createVersion4() {
+        SupportSQLiteOpenHelper openHelper = openHandWritten(4, SCHEMA_V4);
+        SupportSQLiteDatabase db = openHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            ContentValues user = new ContentValues();
+            user.put("uid", UID);
+            user.put("email", "migration@example.com");
+            db.insert("users", SQLiteDatabase.CONFLICT_REPLACE, user);
+
+            for (int v = 1; v <= VEHICLES; v++) {
+                db.execSQL("INSERT INTO vehicles (id, userUid, name, brand, model, year, color, licensePlate, "
+                        + "currentKm, createdAt, isActive, isCurrent) VALUES (?, ?, ?, 'Marca', 'Modelo', 2020, "
+                        + "'Gris', 'ABC123', ?, ?, 1, ?)",
+                    new Object[]{v, UID, "Vehículo " + v, LOG_ROWS * 10, v, v == 1 ? 1 : 0});
+            }
+
+            MaintenanceType[] types = MaintenanceType.values();
+            SupportSQLiteStatement insertMaintenance = db.compileStatement(
+                "INSERT INTO maintenance (userUid, vehicleId, type, description, periodicityKm, executedKm, "
+                    + "date, cost, notes) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            for (int i = 0; i < MAINTENANCE_ROWS; i++) {
+                insertMaintenance.clearBindings();
+                insertMaintenance.bindString(1, UID);
+                insertMaintenance.bindLong(2, i % VEHICLES + 1);
+                insertMaintenance.bindString(3, types[i % types.length].getDisplayName());
+                insertMaintenance.bindString(4, "Servicio " + i);
+                insertMaintenance.bindLong(5, 10_000);
+                insertMaintenance.bindLong(6, i);
+                insertMaintenance.bindLong(7, i);
+                insertMaintenance.bindDouble(8, i % 500);
+                insertMaintenance.bindString(9, "Notas del servicio " + i);
+                insertMaintenance.executeInsert();
+            }
+
+            SupportSQLiteStatement insertLog = db.compileStatement(
+                "INSERT INTO vehicle_logs (userUid, vehicleId, currentKm, date) VALUES (?, ?, ?, ?)");
+            for (int i = 0; i < LOG_ROWS; i++) {
+                insertLog.clearBindings();
+                insertLog.bindString(1, UID);
+                insertLog.bindLong(2, i % VEHICLES + 1);
+                insertLog.bindLong(3, i * 10L);
+                insertLog.bindLong(4, i);
+                insertLog.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        openHelper.close();
+    }
+
+    private long count(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        }
+    }
+}
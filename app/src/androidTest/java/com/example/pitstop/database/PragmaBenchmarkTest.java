@@ -0,0 +1,131 @@
+package com.example.pitstop.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.pitstop.database.entity.User;
+import com.example.pitstop.database.entity.VehicleLog;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Benchmark de latencia de lectura con escrituras concurrentes.
+ * Todas las corridas usan WAL; solo cambian los PRAGMA, desde los valores por defecto de SQLite
+ * hasta cachés más grandes. Los percentiles se escriben en logcat (tag PragmaBenchmark) para
+ * elegir valores con datos; el test solo verifica que cada corrida complete sus lecturas.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PragmaBenchmarkTest {
+    private static final String TAG = "PragmaBenchmark";
+    private static final String UID = "uid";
+    private static final int SEED_ROWS = 5_000;
+    private static final int READS = 500;
+    private static final DatabasePragmas[] CANDIDATES = {
+        DatabasePragmas.NONE,
+        new DatabasePragmas("NORMAL", "MEMORY", 0),
+        DatabasePragmas.DEFAULT,
+        new DatabasePragmas("NORMAL", "MEMORY", 32 * 1024)
+    };
+
+    @Test
+    public void readLatencyUnderConcurrentWrites() throws Exception {
+        for (DatabasePragmas pragmas : CANDIDATES) {
+            long[] latencies = run("bench_pragmas.db", pragmas);
+            Log.i(TAG, summary(latencies) + " (" + pragmas + ")");
+            assertEquals(READS, latencies.length);
+        }
+    }
+
+    @Test
+    public void readConnections_receivePragmas() {
+        assumeTrue(Build.VERSION.SDK_INT >= Build.VERSION_CODES.R);
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        String name = "bench_reader.db";
+        context.deleteDatabase(name);
+        AppDatabase database = open(context, name, DatabasePragmas.DEFAULT);
+        try {
+            // Un SELECT de solo lectura va a una conexión de lectura del pool, no a la principal
+            try (Cursor cursor = database.query("SELECT cache_size FROM pragma_cache_size", null)) {
+                assertTrue(cursor.moveToFirst());
+                assertEquals(-8 * 1024, cursor.getInt(0));
+            }
+        } finally {
+            database.close();
+            context.deleteDatabase(name);
+        }
+    }
+
+    private static AppDatabase open(Context context, String name, DatabasePragmas pragmas) {
+        return Room.databaseBuilder(context, AppDatabase.class, name)
+            .addCallback(AppDatabase.TRIGGERS_CALLBACK)
+            .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
+            .openHelperFactory(new PragmaOpenHelperFactory(pragmas))
+            .build();
+    }
+
+    // Devuelve la latencia (ns) de cada lectura mientras otro hilo inserta logs sin pausa
+    private long[] run(String name, DatabasePragmas pragmas) throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(name);
+        AppDatabase database = open(context, name, pragmas);
+        try {
+            database.userDao().insertUser(new User(UID, "bench@example.com"));
+            database.runInTransaction(() -> {
+                for (int i = 0; i < SEED_ROWS; i++) {
+                    database.vehicleLogDao().insertVehicleLog(new VehicleLog(UID, 1, i, i, null));
+                }
+            });
+
+            AtomicBoolean writing = new AtomicBoolean(true);
+            Thread writer = new Thread(() -> {
+                int km = SEED_ROWS;
+                while (writing.get()) {
+                    database.vehicleLogDao().insertVehicleLog(new VehicleLog(UID, 1, km, km, null));
+                    km++;
+                }
+            }, "bench-writer");
+            writer.start();
+
+            long[] latencies = new long[READS];
+            for (int i = 0; i < READS; i++) {
+                long start = System.nanoTime();
+                database.vehicleLogDao().getLatestVehicleLogByVehicleSync(UID, 1);
+                latencies[i] = System.nanoTime() - start;
+            }
+            writing.set(false);
+            writer.join();
+            return latencies;
+        } finally {
+            database.close();
+            context.deleteDatabase(name);
+        }
+    }
+
+    private static String summary(long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return String.format(Locale.US, "p50=%.2fms p95=%.2fms p99=%.2fms",
+            percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.95) / 1e6, percentile(sorted, 0.99) / 1e6);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
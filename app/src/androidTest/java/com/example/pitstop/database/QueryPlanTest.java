@@ -0,0 +1,166 @@
+package com.example.pitstop.database;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.pitstop.database.dao.MaintenanceDao;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.fail;
+
+/**
+ * Regresión de planes de consulta.
+ * Ejecuta `EXPLAIN QUERY PLAN` sobre las consultas de los DAOs y falla si alguna
+ * recorre la tabla completa (SCAN) o necesita un B-tree temporal para ordenar.
+ * Las páginas keyset de `MaintenanceDao` se leen de sus constantes; el resto replica
+ * los `@Query` con parámetros posicionales: al cambiar uno hay que actualizarlo aquí también.
+ */
+@RunWith(AndroidJUnit4.class)
+public class QueryPlanTest {
+    private static final String UID = "uid";
+    private static final String ID = "1";
+
+    private AppDatabase database;
+    private SupportSQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        db = database.getOpenHelper().getWritableDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void maintenanceQueries_useIndexes() {
+        assertIndexed("SELECT * FROM maintenance WHERE userUid = ? ORDER BY date DESC", UID);
+        assertIndexed("SELECT * FROM maintenance WHERE userUid = ? ORDER BY date DESC LIMIT ?", UID, "5");
+        assertIndexed("SELECT * FROM maintenance WHERE userUid = ? AND vehicleId = ? ORDER BY date DESC", UID, ID);
+        assertIndexed("SELECT * FROM maintenance WHERE userUid = ? AND vehicleId = ? ORDER BY date DESC LIMIT ?", UID, ID, "5");
+        assertIndexed("SELECT * FROM maintenance WHERE id = ? AND userUid = ?", ID, UID);
+        assertIndexed("SELECT * FROM maintenance WHERE userUid = ? AND typeCode = ? ORDER BY date DESC", UID, "1");
+        assertIndexed("SELECT * FROM maintenance WHERE userUid = ? AND vehicleId = ? AND typeCode = ? "
+            + "ORDER BY date DESC", UID, ID, "1");
+        assertIndexed("DELETE FROM maintenance WHERE id = ?", ID);
+        assertIndexed("DELETE FROM maintenance WHERE userUid = ?", UID);
+    }
+
+    // Sentencias tomadas del DAO: parámetros con nombre, uno por nombre distinto en orden de aparición
+    @Test
+    public void maintenancePages_useIndexes() {
+        assertIndexed(MaintenanceDao.PAGE_FIRST, UID, "30");
+        assertIndexed(MaintenanceDao.PAGE_FROM, UID, "0", ID, "30");
+        assertIndexed(MaintenanceDao.PAGE_AFTER, UID, "0", ID, "30");
+        assertIndexed(MaintenanceDao.PAGE_BEFORE, UID, "0", ID, "30");
+        assertIndexed(MaintenanceDao.VEHICLE_PAGE_FIRST, UID, ID, "30");
+        assertIndexed(MaintenanceDao.VEHICLE_PAGE_FROM, UID, ID, "0", ID, "30");
+        assertIndexed(MaintenanceDao.VEHICLE_PAGE_AFTER, UID, ID, "0", ID, "30");
+        assertIndexed(MaintenanceDao.VEHICLE_PAGE_BEFORE, UID, ID, "0", ID, "30");
+    }
+
+    @Test
+    public void searchMaintenance_usesFtsIndex() {
+        assertIndexed("SELECT m.*, matchinfo(maintenance_fts) AS matchInfo FROM maintenance_fts "
+            + "INNER JOIN maintenance m ON m.id = maintenance_fts.rowid "
+            + "WHERE maintenance_fts MATCH ? AND m.userUid = ?", "aceite*", UID);
+        assertIndexed("SELECT m.*, matchinfo(maintenance_fts) AS matchInfo FROM maintenance_fts "
+            + "INNER JOIN maintenance m ON m.id = maintenance_fts.rowid "
+            + "WHERE maintenance_fts MATCH ? AND m.userUid = ? AND m.vehicleId = ?", "aceite*", UID, ID);
+    }
+
+    @Test
+    public void upcomingMaintenance_usesDueTable() {
+        assertIndexed("SELECT m.* FROM maintenance_due d INNER JOIN maintenance m ON m.id = d.maintenanceId "
+            + "WHERE d.userUid = ? ORDER BY d.remainingKm ASC LIMIT ?", UID, "5");
+        assertIndexed("SELECT m.* FROM maintenance_due d INNER JOIN maintenance m ON m.id = d.maintenanceId "
+            + "WHERE d.userUid = ? AND d.vehicleId = ? ORDER BY d.remainingKm ASC LIMIT ?", UID, ID, "5");
+        assertIndexed("SELECT m.*, d.remainingKm AS remainingKm FROM maintenance_due d "
+            + "INNER JOIN maintenance m ON m.id = d.maintenanceId "
+            + "WHERE d.userUid = ? AND d.vehicleId = ? AND d.remainingKm > 0 AND d.remainingKm <= ? "
+            + "ORDER BY d.remainingKm ASC", UID, ID, "1000");
+    }
+
+    @Test
+    public void pendingReminders_useNextServiceIndex() {
+        assertIndexed("SELECT m.*, d.remainingKm AS remainingKm FROM maintenance_due d "
+            + "INNER JOIN maintenance m ON m.id = d.maintenanceId "
+            + "LEFT JOIN fired_reminders f ON f.maintenanceId = d.maintenanceId AND f.nextServiceKm = d.nextServiceKm "
+            + "WHERE d.userUid = ? AND d.vehicleId = ? AND d.nextServiceKm > ? AND d.nextServiceKm <= ? "
+            + "AND f.maintenanceId IS NULL ORDER BY d.nextServiceKm ASC", UID, ID, "1000", "2000");
+    }
+
+    @Test
+    public void vehicleQueries_useIndexes() {
+        assertIndexed("SELECT * FROM vehicles WHERE userUid = ? AND isActive = 1 ORDER BY createdAt DESC", UID);
+        assertIndexed("SELECT * FROM vehicles WHERE id = ? AND userUid = ?", ID, UID);
+        assertIndexed("SELECT * FROM vehicles WHERE userUid = ? AND isActive = 1 ORDER BY createdAt DESC LIMIT 1", UID);
+        assertIndexed("UPDATE vehicles SET isActive = 0 WHERE id = ?", ID);
+        assertIndexed("UPDATE vehicles SET currentKm = ? WHERE id = ?", "1000", ID);
+        assertIndexed("UPDATE vehicles SET currentKm = currentKm + ?, tripRemainderMeters = ? WHERE id = ?", "12", "300", ID);
+        assertIndexed("UPDATE vehicles SET tripRemainderMeters = ? WHERE id = ?", "300", ID);
+        assertIndexed("SELECT currentKm FROM vehicles WHERE id = ?", ID);
+        assertIndexed("SELECT tripRemainderMeters FROM vehicles WHERE id = ?", ID);
+        assertIndexed("DELETE FROM vehicles WHERE id = ?", ID);
+        assertIndexed("UPDATE vehicles SET isCurrent = 0 WHERE userUid = ?", UID);
+        assertIndexed("UPDATE vehicles SET isCurrent = 1 WHERE id = ? AND userUid = ?", ID, UID);
+        assertIndexed("SELECT * FROM vehicles WHERE userUid = ? AND isCurrent = 1 AND isActive = 1 LIMIT 1", UID);
+    }
+
+    @Test
+    public void vehicleLogQueries_useIndexes() {
+        assertIndexed("SELECT * FROM vehicle_logs WHERE userUid = ? ORDER BY date DESC", UID);
+        assertIndexed("SELECT * FROM vehicle_logs WHERE userUid = ? AND vehicleId = ? ORDER BY date DESC", UID, ID);
+        assertIndexed("SELECT * FROM vehicle_logs WHERE userUid = ? ORDER BY date DESC LIMIT 1", UID);
+        assertIndexed("SELECT * FROM vehicle_logs WHERE userUid = ? AND vehicleId = ? ORDER BY date DESC LIMIT 1", UID, ID);
+        assertIndexed("SELECT * FROM vehicle_logs WHERE id = ?", ID);
+        assertIndexed("DELETE FROM vehicle_logs WHERE id = ?", ID);
+        assertIndexed("DELETE FROM vehicle_logs WHERE userUid = ?", UID);
+    }
+
+    @Test
+    public void userQueries_useIndexes() {
+        assertIndexed("SELECT * FROM users WHERE uid = ?", UID);
+        assertIndexed("DELETE FROM users WHERE uid = ?", UID);
+    }
+
+    // Falla si el plan contiene un SCAN completo o un ordenamiento temporal
+    private void assertIndexed(String sql, Object... args) {
+        for (String detail : explain(sql, args)) {
+            if (isFullScan(detail) || detail.contains("TEMP B-TREE")) {
+                fail("Plan sin índice para: " + sql + "\n  -> " + detail);
+            }
+        }
+    }
+
+    // Las tablas FTS se reportan como SCAN ... VIRTUAL TABLE INDEX, pero resuelven el MATCH con su índice
+    private boolean isFullScan(String detail) {
+        return detail.startsWith("SCAN") && !detail.contains("VIRTUAL TABLE");
+    }
+
+    private List<String> explain(String sql, Object... args) {
+        List<String> details = new ArrayList<>();
+        try (Cursor cursor = db.query("EXPLAIN QUERY PLAN " + sql, args)) {
+            int detailColumn = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                details.add(cursor.getString(detailColumn));
+            }
+        }
+        return details;
+    }
+}
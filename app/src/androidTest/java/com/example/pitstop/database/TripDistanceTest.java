@@ -0,0 +1,80 @@
+package com.example.pitstop.database;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.pitstop.database.dao.VehicleLogDao;
+import com.example.pitstop.database.entity.User;
+import com.example.pitstop.database.entity.Vehicle;
+import com.example.pitstop.model.OdometerChange;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Suma de viajes al odómetro: los metros que no completan un km se arrastran entre viajes
+ * en lugar de perderse al redondear cada uno.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TripDistanceTest {
+    private static final String UID = "uid";
+    private static final int VEHICLE_ID = 1;
+
+    private AppDatabase database;
+    private VehicleLogDao dao;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class)
+            .addCallback(AppDatabase.TRIGGERS_CALLBACK)
+            .build();
+        dao = database.vehicleLogDao();
+        database.userDao().insertUser(new User(UID, "trip@example.com"));
+        Vehicle vehicle = new Vehicle(UID, "Auto", "Marca", "Modelo", 2020, "Gris", "ABC123", 1000);
+        vehicle.setId(VEHICLE_ID);
+        database.vehicleDao().insertVehicle(vehicle);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void shortTrips_addUpToWholeKm() {
+        for (int i = 0; i < 4; i++) {
+            OdometerChange change = dao.addTripDistance(UID, VEHICLE_ID, 400, i);
+            assertEquals(0, change.getAddedKm());
+        }
+        assertNull(dao.getLatestVehicleLogByVehicleSync(UID, VEHICLE_ID));
+
+        // 4 × 400 m + 400 m = 2 km justos
+        OdometerChange change = dao.addTripDistance(UID, VEHICLE_ID, 400, 4);
+        assertEquals(1000, change.getFromKm());
+        assertEquals(1002, change.getToKm());
+        assertEquals(1002, dao.getVehicleCurrentKm(VEHICLE_ID));
+        assertEquals(0, dao.getVehicleTripRemainderMeters(VEHICLE_ID));
+        assertEquals(1002, dao.getLatestVehicleLogByVehicleSync(UID, VEHICLE_ID).getCurrentKm());
+    }
+
+    @Test
+    public void longTrip_keepsFraction() {
+        OdometerChange change = dao.addTripDistance(UID, VEHICLE_ID, 12_750, 0);
+        assertEquals(12, change.getAddedKm());
+        assertEquals(750, dao.getVehicleTripRemainderMeters(VEHICLE_ID));
+
+        change = dao.addTripDistance(UID, VEHICLE_ID, 300, 1);
+        assertEquals(1, change.getAddedKm());
+        assertEquals(1013, dao.getVehicleCurrentKm(VEHICLE_ID));
+        assertEquals(50, dao.getVehicleTripRemainderMeters(VEHICLE_ID));
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.pitstop.service;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.work.Configuration;
+import androidx.work.Data;
+import androidx.work.ListenableWorker;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+import androidx.work.testing.SynchronousExecutor;
+import androidx.work.testing.TestDriver;
+import androidx.work.testing.TestWorkerBuilder;
+import androidx.work.testing.WorkManagerTestInitHelper;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Programación de evaluaciones de recordatorios sobre un WorkManager de prueba
+ * (ejecución síncrona; las esperas y restricciones se cumplen con {@link TestDriver}).
+ */
+@RunWith(AndroidJUnit4.class)
+public class ReminderSchedulerTest {
+    private static final String UID = "scheduler-test-uid";
+    // Sin vehículo en la base: la evaluación no avisa nada y termina bien
+    private static final int VEHICLE_ID = 4242;
+
+    private Context context;
+    private WorkManager workManager;
+    private TestDriver driver;
+    private PendingOdometerRange pending;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        Configuration config = new Configuration.Builder()
+            .setExecutor(new SynchronousExecutor())
+            .build();
+        WorkManagerTestInitHelper.initializeTestWorkManager(context, config);
+        workManager = WorkManager.getInstance(context);
+        driver = WorkManagerTestInitHelper.getTestDriver(context);
+        pending = new PendingOdometerRange(context);
+        PendingOdometerRange.Snapshot leftover = pending.peek(VEHICLE_ID);
+        if (leftover != null) {
+            pending.clearIfUnchanged(VEHICLE_ID, leftover);
+        }
+    }
+
+    @Test
+    public void burstWhileQueued_keepsOneItemWithLowestFromKm() throws Exception {
+        for (int km = 1000; km < 1100; km += 10) {
+            schedule(km);
+        }
+
+        // Cada lectura reemplaza a la anterior: un solo trabajo, no una cadena de esperas
+        List<WorkInfo> work = uniqueWork();
+        assertEquals(1, work.size());
+        assertEquals(WorkInfo.State.ENQUEUED, work.get(0).getState());
+        assertEquals(1000, pending.peek(VEHICLE_ID).fromKm);
+    }
+
+    @Test
+    public void pendingWork_runsOnceAndClearsStore() throws Exception {
+        schedule(1200);
+        schedule(1000);
+
+        runEnqueued();
+
+        List<WorkInfo> work = uniqueWork();
+        assertEquals(1, work.size());
+        assertEquals(WorkInfo.State.SUCCEEDED, work.get(0).getState());
+        assertNull(pending.peek(VEHICLE_ID));
+    }
+
+    @Test
+    public void readingAfterFinishedWork_enqueuesAgain() throws Exception {
+        schedule(1000);
+        runEnqueued();
+
+        schedule(1500);
+
+        assertNotNull(firstInState(WorkInfo.State.ENQUEUED));
+        assertEquals(1500, pending.peek(VEHICLE_ID).fromKm);
+    }
+
+    @Test
+    public void worker_withUnknownVehicle_succeedsAndClears() {
+        pending.merge(VEHICLE_ID, 1000);
+
+        assertEquals(ListenableWorker.Result.success(), vehicleWorker().doWork());
+        assertNull(pending.peek(VEHICLE_ID));
+    }
+
+    @Test
+    public void worker_readingDuringEvaluation_isKept() {
+        pending.merge(VEHICLE_ID, 1000);
+        PendingOdometerRange.Snapshot taken = pending.peek(VEHICLE_ID);
+        pending.merge(VEHICLE_ID, 1200);
+
+        // Llegó otra lectura después de tomar el rango: queda para el trabajo encadenado
+        assertFalse(pending.clearIfUnchanged(VEHICLE_ID, taken));
+        assertEquals(1000, pending.peek(VEHICLE_ID).fromKm);
+    }
+
+    @Test
+    public void worker_withNothingPending_succeeds() {
+        assertEquals(ListenableWorker.Result.success(), vehicleWorker().doWork());
+    }
+
+    private void schedule(int fromKm) {
+        ReminderScheduler.scheduleAfterOdometerReading(context, UID, VEHICLE_ID, fromKm, Runnable::run);
+    }
+
+    private void runEnqueued() throws Exception {
+        WorkInfo next = firstInState(WorkInfo.State.ENQUEUED);
+        assertNotNull(next);
+        driver.setAllConstraintsMet(next.getId());
+        driver.setInitialDelayMet(next.getId());
+    }
+
+    private MaintenanceReminderWorker vehicleWorker() {
+        Data input = new Data.Builder()
+            .putString(MaintenanceReminderWorker.KEY_USER_UID, UID)
+            .putInt(MaintenanceReminderWorker.KEY_VEHICLE_ID, VEHICLE_ID)
+            .build();
+        return TestWorkerBuilder
+            .from(context, MaintenanceReminderWorker.class, Executors.newSingleThreadExecutor())
+            .setInputData(input)
+            .build();
+    }
+
+    private List<WorkInfo> uniqueWork() throws Exception {
+        return workManager.getWorkInfosForUniqueWork(ReminderScheduler.odometerWorkName(VEHICLE_ID)).get();
+    }
+
+    private WorkInfo firstInState(WorkInfo.State state) throws Exception {
+        for (WorkInfo info : uniqueWork()) {
+            if (info.getState() == state) {
+                return info;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.pitstop.ui.adapters;
+
+import android.content.Context;
+import android.os.Debug;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.pitstop.R;
+import com.example.pitstop.database.entity.Maintenance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Soporte común de los tests de adapters: datos de prueba, un RecyclerView sin
+ * animaciones con layout forzado y el conteo de alocaciones del hilo actual.
+ */
+final class AdapterTestSupport {
+    static final int WIDTH = 1080;
+    static final int HEIGHT = 1920;
+    // Payload que entrega RecyclerView cuando solo cambió el km
+    static final List<Object> KM_PAYLOAD =
+        Collections.singletonList(MaintenanceRowDiffCallback.PAYLOAD_REMAINING_KM);
+
+    private AdapterTestSupport() {}
+
+    static List<Maintenance> maintenances(int count) {
+        List<Maintenance> maintenances = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Maintenance maintenance = new Maintenance("adapter-test-uid", 1, "Tipo " + i,
+                "Descripción " + i, 10000 * i, 0, 0L, null, null);
+            maintenance.setId(i);
+            maintenances.add(maintenance);
+        }
+        return maintenances;
+    }
+
+    // Debe llamarse en el hilo principal
+    static RecyclerView recyclerView(Context context) {
+        RecyclerView recyclerView = new RecyclerView(new ContextThemeWrapper(context, R.style.Theme_Pitstop));
+        recyclerView.setLayoutManager(new LinearLayoutManager(recyclerView.getContext()));
+        // Sin animaciones: los cambios se aplican en el mismo layout
+        recyclerView.setItemAnimator(null);
+        return recyclerView;
+    }
+
+    static void layout(RecyclerView recyclerView) {
+        recyclerView.measure(
+            View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    // Objetos alocados por el hilo actual mientras corre `work`
+    @SuppressWarnings("deprecation")
+    static int allocationsDuring(Runnable work) {
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        try {
+            work.run();
+        } finally {
+            Debug.stopAllocCounting();
+        }
+        return Debug.getThreadAllocCount();
+    }
+}
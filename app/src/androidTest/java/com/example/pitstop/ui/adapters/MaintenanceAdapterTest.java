@@ -0,0 +1,155 @@
+package com.example.pitstop.ui.adapters;
+
+import android.app.Instrumentation;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+import androidx.paging.PagingData;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.pitstop.database.entity.Maintenance;
+import com.example.pitstop.model.MaintenanceRowModel;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import kotlin.Unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Trabajo de la lista paginada ({@link MaintenanceAdapter}) ante un cambio de km:
+ * solo re-enlaces por payload, sin alocar en cada uno.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MaintenanceAdapterTest {
+    private static final int ROWS = 5;
+    private static final int BINDS = 1000;
+
+    private Instrumentation instrumentation;
+    private RecyclerView recyclerView;
+    private CountingAdapter adapter;
+    private TestLifecycleOwner owner;
+    private List<Maintenance> maintenances;
+    private volatile CountDownLatch pagesUpdated;
+
+    @Before
+    public void setUp() throws Exception {
+        instrumentation = InstrumentationRegistry.getInstrumentation();
+        maintenances = AdapterTestSupport.maintenances(ROWS);
+        instrumentation.runOnMainSync(() -> {
+            owner = new TestLifecycleOwner();
+            recyclerView = AdapterTestSupport.recyclerView(instrumentation.getTargetContext());
+            adapter = new CountingAdapter();
+            adapter.addOnPagesUpdatedListener(() -> {
+                pagesUpdated.countDown();
+                return Unit.INSTANCE;
+            });
+            recyclerView.setAdapter(adapter);
+        });
+        submitAndLayout(1000);
+    }
+
+    @After
+    public void tearDown() {
+        instrumentation.runOnMainSync(() -> owner.registry.setCurrentState(Lifecycle.State.DESTROYED));
+    }
+
+    @Test
+    public void kmChange_rebindsOnlyNextServiceInfo() throws Exception {
+        assertEquals(ROWS, adapter.created);
+        assertEquals(ROWS, adapter.fullBinds);
+        adapter.reset();
+
+        submitAndLayout(1500);
+
+        assertEquals(0, adapter.created);
+        assertEquals(0, adapter.fullBinds);
+        assertEquals(ROWS, adapter.payloadBinds);
+    }
+
+    @Test
+    public void warmedUpPayloadBinds_allocateNothing() {
+        int[] allocations = new int[1];
+        instrumentation.runOnMainSync(() -> {
+            MaintenanceAdapter.ViewHolder holder = adapter.onCreateViewHolder(recyclerView, 0);
+            for (int i = 0; i < ROWS; i++) {
+                adapter.onBindViewHolder(holder, i, AdapterTestSupport.KM_PAYLOAD);
+            }
+            allocations[0] = AdapterTestSupport.allocationsDuring(() -> {
+                for (int i = 0; i < BINDS; i++) {
+                    adapter.onBindViewHolder(holder, i % ROWS, AdapterTestSupport.KM_PAYLOAD);
+                }
+            });
+        });
+
+        assertEquals("alocaciones en binds por payload", 0, allocations[0]);
+    }
+
+    private void submitAndLayout(int currentKm) throws InterruptedException {
+        pagesUpdated = new CountDownLatch(1);
+        List<MaintenanceRowModel> rows = MaintenanceRowModel.fromList(maintenances, currentKm, -1);
+        instrumentation.runOnMainSync(() -> adapter.submitData(owner.getLifecycle(), PagingData.from(rows)));
+        assertTrue("la página no se presentó", pagesUpdated.await(5, TimeUnit.SECONDS));
+        instrumentation.runOnMainSync(() -> AdapterTestSupport.layout(recyclerView));
+    }
+
+    private static class TestLifecycleOwner implements LifecycleOwner {
+        final LifecycleRegistry registry = new LifecycleRegistry(this);
+
+        TestLifecycleOwner() {
+            registry.setCurrentState(Lifecycle.State.RESUMED);
+        }
+
+        @NonNull
+        @Override
+        public Lifecycle getLifecycle() {
+            return registry;
+        }
+    }
+
+    private static class CountingAdapter extends MaintenanceAdapter {
+        int created;
+        int fullBinds;
+        int payloadBinds;
+
+        CountingAdapter() {
+            super(null);
+        }
+
+        void reset() {
+            created = 0;
+            fullBinds = 0;
+            payloadBinds = 0;
+        }
+
+        @NonNull
+        @Override
+        public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            created++;
+            return super.onCreateViewHolder(parent, viewType);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+            if (payloads.isEmpty()) {
+                fullBinds++;
+            } else {
+                payloadBinds++;
+            }
+            super.onBindViewHolder(holder, position, payloads);
+        }
+    }
+}
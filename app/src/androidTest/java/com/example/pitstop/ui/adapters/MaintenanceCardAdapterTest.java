@@ -0,0 +1,143 @@
+package com.example.pitstop.ui.adapters;
+
+import android.app.Instrumentation;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.pitstop.database.entity.Maintenance;
+import com.example.pitstop.model.MaintenanceRowModel;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Trabajo de las tarjetas del dashboard ({@link MaintenanceCardAdapter}) ante un cambio de km:
+ * solo re-enlaces por payload, y ningún objeto alocado por bind una vez en régimen.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MaintenanceCardAdapterTest {
+    private static final int ROWS = 5;
+    private static final int BINDS = 1000;
+
+    private Instrumentation instrumentation;
+    private RecyclerView recyclerView;
+    private CountingAdapter adapter;
+    private List<Maintenance> maintenances;
+
+    @Before
+    public void setUp() throws Exception {
+        instrumentation = InstrumentationRegistry.getInstrumentation();
+        maintenances = AdapterTestSupport.maintenances(ROWS);
+        instrumentation.runOnMainSync(() -> {
+            recyclerView = AdapterTestSupport.recyclerView(instrumentation.getTargetContext());
+            adapter = new CountingAdapter();
+            recyclerView.setAdapter(adapter);
+        });
+        submitAndLayout(1000);
+    }
+
+    @Test
+    public void kmChange_rebindsOnlyRemainingKm() throws Exception {
+        assertEquals(ROWS, adapter.created);
+        assertEquals(ROWS, adapter.fullBinds);
+        adapter.reset();
+
+        submitAndLayout(1500);
+
+        assertEquals(0, adapter.created);
+        assertEquals(0, adapter.fullBinds);
+        assertEquals(ROWS, adapter.payloadBinds);
+    }
+
+    @Test
+    public void sameKm_doesNoWork() throws Exception {
+        adapter.reset();
+
+        submitAndLayout(1000);
+
+        assertEquals(0, adapter.created);
+        assertEquals(0, adapter.fullBinds);
+        assertEquals(0, adapter.payloadBinds);
+    }
+
+    @Test
+    public void warmedUpBinds_allocateNothing() {
+        int[] allocations = new int[2];
+        List<Object> noPayloads = Collections.emptyList();
+        instrumentation.runOnMainSync(() -> {
+            MaintenanceCardAdapter.ViewHolder holder = adapter.onCreateViewHolder(recyclerView, 0);
+            // Calentamiento: fondo mutable, caché de colores, textos
+            for (int i = 0; i < ROWS; i++) {
+                adapter.onBindViewHolder(holder, i, noPayloads);
+                adapter.onBindViewHolder(holder, i, AdapterTestSupport.KM_PAYLOAD);
+            }
+            allocations[0] = AdapterTestSupport.allocationsDuring(() -> {
+                for (int i = 0; i < BINDS; i++) {
+                    adapter.onBindViewHolder(holder, i % ROWS, noPayloads);
+                }
+            });
+            allocations[1] = AdapterTestSupport.allocationsDuring(() -> {
+                for (int i = 0; i < BINDS; i++) {
+                    adapter.onBindViewHolder(holder, i % ROWS, AdapterTestSupport.KM_PAYLOAD);
+                }
+            });
+        });
+
+        assertEquals("alocaciones en binds completos", 0, allocations[0]);
+        assertEquals("alocaciones en binds por payload", 0, allocations[1]);
+    }
+
+    private void submitAndLayout(int currentKm) throws InterruptedException {
+        CountDownLatch committed = new CountDownLatch(1);
+        List<MaintenanceRowModel> rows = MaintenanceRowModel.fromList(maintenances, currentKm, -1);
+        instrumentation.runOnMainSync(() -> adapter.submitList(rows, committed::countDown));
+        assertTrue("el diff no terminó", committed.await(5, TimeUnit.SECONDS));
+        instrumentation.runOnMainSync(() -> AdapterTestSupport.layout(recyclerView));
+    }
+
+    private static class CountingAdapter extends MaintenanceCardAdapter {
+        int created;
+        int fullBinds;
+        int payloadBinds;
+
+        CountingAdapter() {
+            super(null);
+        }
+
+        void reset() {
+            created = 0;
+            fullBinds = 0;
+            payloadBinds = 0;
+        }
+
+        @NonNull
+        @Override
+        public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            created++;
+            return super.onCreateViewHolder(parent, viewType);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+            if (payloads.isEmpty()) {
+                fullBinds++;
+            } else {
+                payloadBinds++;
+            }
+            super.onBindViewHolder(holder, position, payloads);
+        }
+    }
+}
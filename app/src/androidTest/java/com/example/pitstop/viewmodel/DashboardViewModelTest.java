@@ -0,0 +1,64 @@
+package com.example.pitstop.viewmodel;
+
+import android.app.Application;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.lifecycle.ViewModelStore;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Fugas de observadores del dashboard: tras varias navegaciones (crear el ViewModel,
+ * observar `currentKm`, destruir) ninguna fuente de km queda observada.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DashboardViewModelTest {
+    private static final String UID = "dashboard-test-uid";
+    private static final int NAVIGATIONS = 5;
+
+    @Test
+    public void repeatedNavigation_leavesNoObservedSources() {
+        Application application = (Application) InstrumentationRegistry.getInstrumentation()
+            .getTargetContext().getApplicationContext();
+        List<LiveData<Integer>> sources = new ArrayList<>();
+        boolean[] observedWhileBound = new boolean[NAVIGATIONS];
+        boolean[] observedAfterClear = new boolean[NAVIGATIONS];
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            for (int i = 0; i < NAVIGATIONS; i++) {
+                ViewModelStore store = new ViewModelStore();
+                DashboardViewModel viewModel = new ViewModelProvider(store,
+                    ViewModelProvider.AndroidViewModelFactory.getInstance(application))
+                    .get(DashboardViewModel.class);
+                LiveData<Integer> source = viewModel.bindCurrentKm(UID);
+                sources.add(source);
+
+                Observer<Integer> ui = km -> {};
+                viewModel.getCurrentKm().observeForever(ui);
+                observedWhileBound[i] = source.hasActiveObservers();
+
+                // Peor caso: la UI todavía observa cuando se limpia el ViewModel
+                store.clear();
+                observedAfterClear[i] = source.hasObservers();
+                viewModel.getCurrentKm().removeObserver(ui);
+            }
+        });
+
+        for (int i = 0; i < NAVIGATIONS; i++) {
+            assertTrue(observedWhileBound[i]);
+            assertFalse(observedAfterClear[i]);
+            assertFalse(sources.get(i).hasObservers());
+        }
+    }
+}
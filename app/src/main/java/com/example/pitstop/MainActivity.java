@@ -1,11 +1,14 @@
 package com.example.pitstop;
 
 // Imports necesarios para que funcione la Activity principal
+import android.Manifest;
+import android.content.pm.PackageManager;
 import android.os.Bundle;
 import android.view.View;
 
 import androidx.activity.EdgeToEdge;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
 import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
@@ -13,6 +16,7 @@ import androidx.navigation.NavController;
 import androidx.navigation.Navigation;
 import androidx.navigation.ui.NavigationUI;
 
+import com.example.pitstop.service.TripTrackingService;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
@@ -22,6 +26,7 @@ import com.google.firebase.auth.FirebaseUser;
  * - Configura navegación con el `BottomNavigationView`.
  * - Verifica la autenticación del usuario para redirigir a login o dashboard.
  * - Gestiona navegación desde notificaciones hacia el detalle de mantenimiento.
+ * - Retoma un viaje interrumpido por la muerte del proceso.
  */
 public class MainActivity extends AppCompatActivity {
     // Controlador de navegación para manejar los destinos del NavGraph
@@ -48,6 +53,18 @@ public class MainActivity extends AppCompatActivity {
         checkAuthentication();
         // Gestiona navegación si la app se abrió desde una notificación
         handleNotificationNavigation();
+        // Retoma un viaje pendiente sin esperar a que se abra la pestaña de sensores
+        resumePendingTrip();
+    }
+
+    // En Android 12+ el reinicio sticky del servicio no puede pasar a primer plano; con la
+    // Activity visible sí, así que el viaje se retoma desde aquí
+    private void resumePendingTrip() {
+        if (TripTrackingService.hasPendingTrip(this)
+            && ContextCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION)
+                == PackageManager.PERMISSION_GRANTED) {
+            ContextCompat.startForegroundService(this, TripTrackingService.bindIntent(this));
+        }
     }
 
     // Configura el `NavController` y lo conecta con la barra inferior
@@ -0,0 +1,66 @@
+package com.example.pitstop.concurrent;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Executors compartidos por toda la app (uno por proceso).
+ * - `diskWrite`: un solo hilo; SQLite serializa las escrituras, así que más hilos solo agregan espera por el lock.
+ * - `diskRead`: pool acotado para lecturas y trabajo corto en segundo plano (p. ej. formateo de filas).
+ * - `mainThread`: publica resultados en el hilo principal.
+ * - `timer`: un hilo solo para esperas cortas (p. ej. la ventana de {@code BatchWriter}); sus tareas
+ *   solo pasan el trabajo a otro executor, así una espera no depende de que el hilo principal esté libre.
+ * Ningún repositorio ni ViewModel debe crear sus propios hilos.
+ */
+public final class AppExecutors {
+    private static final int READ_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private static AppExecutors INSTANCE;
+
+    private final InstrumentedExecutor diskWrite;
+    private final InstrumentedExecutor diskRead;
+    private final Executor mainThread;
+    private final ScheduledExecutorService timer;
+
+    private AppExecutors() {
+        diskWrite = new InstrumentedExecutor("write", 1);
+        diskRead = new InstrumentedExecutor("read", READ_THREADS);
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        mainThread = mainHandler::post;
+        timer = new ScheduledThreadPoolExecutor(1, new InstrumentedExecutor.NamedThreadFactory("timer"));
+    }
+
+    public static synchronized AppExecutors getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new AppExecutors();
+        }
+        return INSTANCE;
+    }
+
+    public InstrumentedExecutor diskWrite() {
+        return diskWrite;
+    }
+
+    public InstrumentedExecutor diskRead() {
+        return diskRead;
+    }
+
+    public Executor mainThread() {
+        return mainThread;
+    }
+
+    public ScheduledExecutorService timer() {
+        return timer;
+    }
+
+    // Métricas de todos los pools
+    public List<InstrumentedExecutor.Stats> getStats() {
+        return Arrays.asList(diskWrite.getStats(), diskRead.getStats());
+    }
+}
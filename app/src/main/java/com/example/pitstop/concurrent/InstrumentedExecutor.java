@@ -0,0 +1,180 @@
+package com.example.pitstop.concurrent;
+
+import android.os.Process;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool de hilos con nombre fijo que mide profundidad de cola y latencias.
+ * Registra, por tarea, el tiempo en cola y el de ejecución; las tareas lentas se reportan en el log.
+ * Las métricas acumuladas se consultan con {@link #getStats()}.
+ */
+public class InstrumentedExecutor extends ThreadPoolExecutor {
+    private static final String TAG = "InstrumentedExecutor";
+    // Umbral para avisar de tareas lentas (en cola o en ejecución)
+    private static final long SLOW_TASK_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final String name;
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong totalRunNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong maxRunNanos = new AtomicLong();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    public InstrumentedExecutor(String name, int threads) {
+        super(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), new NamedThreadFactory(name));
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        submitted.incrementAndGet();
+        super.execute(new TimedTask(command, System.nanoTime()));
+        updateMax(maxQueueDepth, getQueue().size());
+    }
+
+    // Copia de las métricas actuales
+    public Stats getStats() {
+        long done = completed.get();
+        return new Stats(
+            name,
+            submitted.get(),
+            done,
+            failed.get(),
+            getQueue().size(),
+            maxQueueDepth.get(),
+            getActiveCount(),
+            done > 0 ? totalWaitNanos.get() / done : 0,
+            maxWaitNanos.get(),
+            done > 0 ? totalRunNanos.get() / done : 0,
+            maxRunNanos.get()
+        );
+    }
+
+    private void record(long waitNanos, long runNanos, boolean success) {
+        completed.incrementAndGet();
+        if (!success) failed.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        totalRunNanos.addAndGet(runNanos);
+        updateMax(maxWaitNanos, waitNanos);
+        updateMax(maxRunNanos, runNanos);
+        if (waitNanos > SLOW_TASK_NANOS || runNanos > SLOW_TASK_NANOS) {
+            Log.w(TAG, String.format(Locale.US, "%s: tarea lenta (cola %d ms, ejecución %d ms, pendientes %d)",
+                name, TimeUnit.NANOSECONDS.toMillis(waitNanos), TimeUnit.NANOSECONDS.toMillis(runNanos),
+                getQueue().size()));
+        }
+    }
+
+    private static void updateMax(AtomicLong max, long value) {
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // reintentar
+        }
+    }
+
+    private static void updateMax(AtomicInteger max, int value) {
+        int current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // reintentar
+        }
+    }
+
+    // Envuelve cada tarea para medir tiempo en cola y de ejecución
+    private final class TimedTask implements Runnable {
+        private final Runnable delegate;
+        private final long enqueuedAt;
+
+        TimedTask(Runnable delegate, long enqueuedAt) {
+            this.delegate = delegate;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                delegate.run();
+                success = true;
+            } finally {
+                record(start - enqueuedAt, System.nanoTime() - start, success);
+            }
+        }
+    }
+
+    // Hilos "pitstop-<nombre>-N" con prioridad de fondo
+    static final class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        NamedThreadFactory(String name) {
+            this.prefix = "pitstop-" + name + "-";
+        }
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            return new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                runnable.run();
+            }, prefix + count.incrementAndGet());
+        }
+    }
+
+    /**
+     * Métricas de un pool en un instante dado. Los tiempos están en nanosegundos.
+     */
+    public static final class Stats {
+        public final String name;
+        public final long submitted;
+        public final long completed;
+        public final long failed;
+        public final int queueDepth;
+        public final int maxQueueDepth;
+        public final int activeThreads;
+        public final long avgWaitNanos;
+        public final long maxWaitNanos;
+        public final long avgRunNanos;
+        public final long maxRunNanos;
+
+        Stats(String name, long submitted, long completed, long failed, int queueDepth, int maxQueueDepth,
+              int activeThreads, long avgWaitNanos, long maxWaitNanos, long avgRunNanos, long maxRunNanos) {
+            this.name = name;
+            this.submitted = submitted;
+            this.completed = completed;
+            this.failed = failed;
+            this.queueDepth = queueDepth;
+            this.maxQueueDepth = maxQueueDepth;
+            this.activeThreads = activeThreads;
+            this.avgWaitNanos = avgWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.avgRunNanos = avgRunNanos;
+            this.maxRunNanos = maxRunNanos;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                "%s: enviadas=%d completadas=%d fallidas=%d cola=%d (máx %d) activos=%d "
+                    + "espera prom=%.1fms máx=%.1fms ejecución prom=%.1fms máx=%.1fms",
+                name, submitted, completed, failed, queueDepth, maxQueueDepth, activeThreads,
+                avgWaitNanos / 1e6, maxWaitNanos / 1e6, avgRunNanos / 1e6, maxRunNanos / 1e6);
+        }
+    }
+}
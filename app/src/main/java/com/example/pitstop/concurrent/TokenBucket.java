@@ -0,0 +1,56 @@
+package com.example.pitstop.concurrent;
+
+import android.os.SystemClock;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Limitador token-bucket: permite ráfagas de hasta `capacity` operaciones y luego
+ * una cada `refillIntervalMs`. No bloquea; quien no obtiene token decide si reintenta.
+ */
+public final class TokenBucket {
+    private final int capacity;
+    private final long refillIntervalMs;
+    private final LongSupplier clock;
+
+    private int tokens;
+    private long lastRefillMs;
+
+    public TokenBucket(int capacity, long refillIntervalMs) {
+        this(capacity, refillIntervalMs, SystemClock::elapsedRealtime);
+    }
+
+    TokenBucket(int capacity, long refillIntervalMs, LongSupplier clock) {
+        this.capacity = capacity;
+        this.refillIntervalMs = refillIntervalMs;
+        this.clock = clock;
+        this.tokens = capacity;
+        this.lastRefillMs = clock.getAsLong();
+    }
+
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens == 0) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    // Milisegundos hasta que haya al menos un token (0 si ya hay)
+    public synchronized long millisUntilNextToken() {
+        refill();
+        return tokens > 0 ? 0 : refillIntervalMs - (clock.getAsLong() - lastRefillMs);
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        long refills = (now - lastRefillMs) / refillIntervalMs;
+        if (refills <= 0) {
+            return;
+        }
+        tokens = (int) Math.min(capacity, tokens + refills);
+        // Con el balde lleno no se acumula crédito para después
+        lastRefillMs = tokens == capacity ? now : lastRefillMs + refills * refillIntervalMs;
+    }
+}
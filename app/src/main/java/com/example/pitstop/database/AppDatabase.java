@@ -1,31 +1,50 @@
 package com.example.pitstop.database;
 
 import android.content.Context;
+import android.database.Cursor;
 
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.TypeConverters;
 import androidx.room.migration.Migration;
 import androidx.sqlite.db.SupportSQLiteDatabase;
 
+import com.example.pitstop.concurrent.AppExecutors;
 import com.example.pitstop.database.dao.MaintenanceDao;
+import com.example.pitstop.database.dao.ReminderDao;
+import com.example.pitstop.database.dao.TripDao;
 import com.example.pitstop.database.dao.UserDao;
 import com.example.pitstop.database.dao.VehicleDao;
 import com.example.pitstop.database.dao.VehicleLogDao;
+import com.example.pitstop.database.entity.FiredReminder;
 import com.example.pitstop.database.entity.Maintenance;
+import com.example.pitstop.database.entity.MaintenanceDue;
+import com.example.pitstop.database.entity.MaintenanceFts;
+import com.example.pitstop.database.entity.Trip;
 import com.example.pitstop.database.entity.User;
 import com.example.pitstop.database.entity.Vehicle;
 import com.example.pitstop.database.entity.VehicleLog;
+import com.example.pitstop.database.metrics.InstrumentedOpenHelperFactory;
+import com.example.pitstop.database.metrics.QueryMetrics;
+import com.example.pitstop.model.MaintenanceType;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Configuración principal de Room Database.
  * Define entidades, DAOs, versión y migraciones registradas.
+ * El esquema de cada versión se exporta a `app/schemas` (ver `room.schemaLocation`)
+ * y `MigrationTest` lo usa para validar la cadena de migraciones.
  */
 @Database(
-    entities = {User.class, Vehicle.class, Maintenance.class, VehicleLog.class},
-    version = 4,
-    exportSchema = false
+    entities = {User.class, Vehicle.class, Maintenance.class, VehicleLog.class, MaintenanceDue.class, MaintenanceFts.class,
+        FiredReminder.class, Trip.class},
+    version = 11,
+    exportSchema = true
 )
+@TypeConverters(MaintenanceTypeConverter.class)
 public abstract class AppDatabase extends RoomDatabase {
     private static AppDatabase INSTANCE;
     private static final String DATABASE_NAME = "pitstop_database";
@@ -38,21 +57,203 @@ public abstract class AppDatabase extends RoomDatabase {
         }
     };
 
+    // Migración de 4 a 5: reemplaza índices de una columna por índices compuestos
+    // (usuario/vehículo + columna de orden) para evitar ordenamientos en B-tree temporal
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("DROP INDEX IF EXISTS `index_maintenance_userUid`");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_maintenance_userUid_date` ON `maintenance` (`userUid`, `date`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_maintenance_userUid_vehicleId_date` ON `maintenance` (`userUid`, `vehicleId`, `date`)");
+
+            database.execSQL("DROP INDEX IF EXISTS `index_vehicle_logs_userUid`");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_vehicle_logs_userUid_date` ON `vehicle_logs` (`userUid`, `date`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_vehicle_logs_userUid_vehicleId_date` ON `vehicle_logs` (`userUid`, `vehicleId`, `date`)");
+
+            database.execSQL("DROP INDEX IF EXISTS `index_vehicles_userUid`");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_vehicles_userUid_isActive_createdAt` ON `vehicles` (`userUid`, `isActive`, `createdAt`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_vehicles_userUid_isCurrent_isActive` ON `vehicles` (`userUid`, `isCurrent`, `isActive`)");
+        }
+    };
+
+    // Migración de 5 a 6: tabla derivada `maintenance_due` mantenida por triggers
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `maintenance_due` (`maintenanceId` INTEGER NOT NULL, "
+                + "`userUid` TEXT, `vehicleId` INTEGER NOT NULL, `nextServiceKm` INTEGER NOT NULL, "
+                + "`currentKm` INTEGER NOT NULL, `remainingKm` INTEGER NOT NULL, PRIMARY KEY(`maintenanceId`))");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_maintenance_due_userUid_remainingKm` ON `maintenance_due` (`userUid`, `remainingKm`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_maintenance_due_userUid_vehicleId_remainingKm` ON `maintenance_due` (`userUid`, `vehicleId`, `remainingKm`)");
+            MaintenanceDueTriggers.backfill(database);
+            MaintenanceDueTriggers.create(database);
+        }
+    };
+
+    // Migración de 6 a 7: índice FTS4 sobre tipo/descripción/notas de `maintenance`.
+    // Los triggers replican los que Room genera para entidades FTS con `contentEntity`.
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `maintenance_fts` USING FTS4("
+                + "`type` TEXT, `description` TEXT, `notes` TEXT, tokenize=unicode61, content=`maintenance`, prefix=`2,3`)");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_maintenance_fts_BEFORE_UPDATE "
+                + "BEFORE UPDATE ON `maintenance` BEGIN DELETE FROM `maintenance_fts` WHERE `docid`=OLD.`rowid`; END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_maintenance_fts_BEFORE_DELETE "
+                + "BEFORE DELETE ON `maintenance` BEGIN DELETE FROM `maintenance_fts` WHERE `docid`=OLD.`rowid`; END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_maintenance_fts_AFTER_UPDATE "
+                + "AFTER UPDATE ON `maintenance` BEGIN INSERT INTO `maintenance_fts`(`docid`, `type`, `description`, `notes`) "
+                + "VALUES (NEW.`rowid`, NEW.`type`, NEW.`description`, NEW.`notes`); END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_maintenance_fts_AFTER_INSERT "
+                + "AFTER INSERT ON `maintenance` BEGIN INSERT INTO `maintenance_fts`(`docid`, `type`, `description`, `notes`) "
+                + "VALUES (NEW.`rowid`, NEW.`type`, NEW.`description`, NEW.`notes`); END");
+            // Indexa los mantenimientos existentes
+            database.execSQL("INSERT INTO maintenance_fts(maintenance_fts) VALUES('rebuild')");
+        }
+    };
+
+    // Migración de 7 a 8: código entero del tipo (`typeCode`) calculado a partir del texto existente
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE maintenance ADD COLUMN typeCode INTEGER NOT NULL DEFAULT 0");
+            StringBuilder backfill = new StringBuilder("UPDATE maintenance SET typeCode = CASE type");
+            for (MaintenanceType type : MaintenanceType.values()) {
+                backfill.append(" WHEN '").append(type.getDisplayName()).append("' THEN ").append(type.getCode());
+            }
+            backfill.append(" ELSE ").append(MaintenanceType.OTHER.getCode()).append(" END");
+            // `typeCode` no lo leen ni el índice FTS ni `maintenance_due`: sin triggers el UPDATE
+            // no reindexa cada fila (con historiales grandes era la mayor parte del costo)
+            withoutTriggers(database, "maintenance", () -> database.execSQL(backfill.toString()));
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_maintenance_userUid_typeCode_date` ON `maintenance` (`userUid`, `typeCode`, `date`)");
+        }
+    };
+
+    // Migración de 8 a 9: recordatorios ya avisados e índice de `maintenance_due` por próximo servicio.
+    // Los servicios que ya estaban dentro de la ventana de aviso (1000 km) se dan por avisados:
+    // la versión anterior los notificaba en cada actualización del odómetro
+    static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `fired_reminders` (`maintenanceId` INTEGER NOT NULL, "
+                + "`userUid` TEXT, `vehicleId` INTEGER NOT NULL, `nextServiceKm` INTEGER NOT NULL, "
+                + "`firedAt` INTEGER NOT NULL, PRIMARY KEY(`maintenanceId`), "
+                + "FOREIGN KEY(`maintenanceId`) REFERENCES `maintenance`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_maintenance_due_userUid_vehicleId_nextServiceKm` "
+                + "ON `maintenance_due` (`userUid`, `vehicleId`, `nextServiceKm`)");
+            database.execSQL("INSERT OR REPLACE INTO fired_reminders "
+                + "(maintenanceId, userUid, vehicleId, nextServiceKm, firedAt) "
+                + "SELECT maintenanceId, userUid, vehicleId, nextServiceKm, " + System.currentTimeMillis() + " "
+                + "FROM maintenance_due WHERE remainingKm > 0 AND remainingKm <= 1000");
+        }
+    };
+
+    // Migración de 9 a 10: tabla `trips` (una fila por viaje, recorrido comprimido en un BLOB)
+    static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `trips` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                + "`userUid` TEXT, `vehicleId` INTEGER NOT NULL, `startTime` INTEGER NOT NULL, "
+                + "`endTime` INTEGER NOT NULL, `distanceKm` REAL NOT NULL, `startKm` INTEGER NOT NULL, "
+                + "`endKm` INTEGER NOT NULL, `pointCount` INTEGER NOT NULL, `track` BLOB, "
+                + "FOREIGN KEY(`userUid`) REFERENCES `users`(`uid`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_trips_userUid_vehicleId_startTime` "
+                + "ON `trips` (`userUid`, `vehicleId`, `startTime`)");
+        }
+    };
+
+    // Migración de 10 a 11: metros de viajes que aún no suman un km al odómetro
+    static final Migration MIGRATION_10_11 = new Migration(10, 11) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE vehicles ADD COLUMN tripRemainderMeters INTEGER NOT NULL DEFAULT 0");
+        }
+    };
+
+    // Crea los triggers en instalaciones nuevas y en bases recreadas por
+    // `fallbackToDestructiveMigrationFrom` (las migraciones los crean por su cuenta)
+    static final RoomDatabase.Callback TRIGGERS_CALLBACK = new TriggersCallback();
+
+    static final class TriggersCallback extends RoomDatabase.Callback {
+        // Room avisa la migración destructiva después de borrar las tablas y antes de
+        // recrearlas: los triggers se crean al abrir, con las tablas ya presentes
+        private volatile boolean recreated;
+
+        @Override
+        public void onCreate(SupportSQLiteDatabase database) {
+            MaintenanceDueTriggers.create(database);
+        }
+
+        @Override
+        public void onDestructiveMigration(SupportSQLiteDatabase database) {
+            recreated = true;
+        }
+
+        @Override
+        public void onOpen(SupportSQLiteDatabase database) {
+            if (recreated) {
+                recreated = false;
+                MaintenanceDueTriggers.create(database);
+            }
+        }
+    }
+
+    // Ejecuta `work` con los triggers de `table` desactivados y los recrea con su definición original.
+    // Solo para backfills de columnas que ningún trigger usa.
+    static void withoutTriggers(SupportSQLiteDatabase database, String table, Runnable work) {
+        List<String> names = new ArrayList<>();
+        List<String> definitions = new ArrayList<>();
+        try (Cursor cursor = database.query(
+                "SELECT name, sql FROM sqlite_master WHERE type = 'trigger' AND tbl_name = ?",
+                new Object[]{table})) {
+            while (cursor.moveToNext()) {
+                names.add(cursor.getString(0));
+                definitions.add(cursor.getString(1));
+            }
+        }
+        for (String name : names) {
+            database.execSQL("DROP TRIGGER IF EXISTS `" + name + "`");
+        }
+        work.run();
+        for (String definition : definitions) {
+            database.execSQL(definition);
+        }
+    }
+
     public abstract UserDao userDao();
     public abstract VehicleDao vehicleDao();
     public abstract MaintenanceDao maintenanceDao();
     public abstract VehicleLogDao vehicleLogDao();
+    public abstract ReminderDao reminderDao();
+    public abstract TripDao tripDao();
 
     // Singleton para obtener instancia de la base de datos
     public static synchronized AppDatabase getInstance(Context context) {
+        return getInstance(context, DatabasePragmas.DEFAULT);
+    }
+
+    // Variante con PRAGMA configurables; solo tiene efecto si la instancia aún no existe
+    public static synchronized AppDatabase getInstance(Context context, DatabasePragmas pragmas) {
         if (INSTANCE == null) {
             INSTANCE = Room.databaseBuilder(
                 context.getApplicationContext(),
                 AppDatabase.class,
                 DATABASE_NAME
             )
-            .addMigrations(MIGRATION_3_4)
-            .fallbackToDestructiveMigration()
+            .addMigrations(MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7, MIGRATION_7_8, MIGRATION_8_9,
+                MIGRATION_9_10, MIGRATION_10_11)
+            .addCallback(TRIGGERS_CALLBACK)
+            // WAL: las lecturas no esperan al escritor; Room abre un pool de conexiones de lectura
+            .setJournalMode(JournalMode.WRITE_AHEAD_LOGGING)
+            // Métricas por sentencia: Room informa las llamadas y el helper mide latencia y filas
+            .openHelperFactory(new InstrumentedOpenHelperFactory(
+                new PragmaOpenHelperFactory(pragmas), QueryMetrics.getInstance()))
+            .setQueryCallback((sql, args) -> QueryMetrics.getInstance().recordCall(sql), Runnable::run)
+            // Consultas de LiveData/Paging en el pool de lectura compartido (instrumentado)
+            .setQueryExecutor(AppExecutors.getInstance().diskRead())
+            // Solo versiones anteriores a la 3 (sin esquema conocido) se recrean desde cero;
+            // cualquier salto sin migración desde la 3 en adelante falla en vez de borrar datos
+            .fallbackToDestructiveMigrationFrom(1, 2)
             .build();
         }
         return INSTANCE;
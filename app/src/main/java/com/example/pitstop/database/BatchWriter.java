@@ -0,0 +1,200 @@
+package com.example.pitstop.database;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.example.pitstop.concurrent.AppExecutors;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cola de escrituras que agrupa mutaciones en una sola transacción.
+ * Las operaciones se acumulan durante {@link #FLUSH_WINDOW_MS} o hasta {@link #MAX_BATCH_SIZE}
+ * y se aplican juntas con `runInTransaction` en el hilo de escritura: un solo commit (y fsync)
+ * por lote en lugar de uno por operación. La ventana la mide el `timer` de {@link AppExecutors},
+ * no el hilo principal: un frame lento no demora los commits.
+ * Si el lote falla, se reintenta cada operación en su propia transacción para aislar la que falló;
+ * así cada callback recibe su propio resultado.
+ * {@link #submit} devuelve un `ListenableFuture` que se completa recién cuando el lote hizo commit.
+ */
+public final class BatchWriter {
+    private static final String TAG = "BatchWriter";
+    static final long FLUSH_WINDOW_MS = 10;
+    static final int MAX_BATCH_SIZE = 256;
+
+    /**
+     * Resultado de una operación encolada; se invoca en el hilo principal tras el commit.
+     */
+    public interface Callback {
+        void onComplete(@Nullable Throwable error);
+    }
+
+    private static BatchWriter INSTANCE;
+
+    private final AppDatabase database;
+    private final Executor writeExecutor;
+    private final Executor callbackExecutor;
+    private final ScheduledExecutorService timer;
+    private final Runnable flushTask = this::flush;
+    private final Runnable scheduleFlushTask;
+    private final Object lock = new Object();
+    private List<Operation> pending = new ArrayList<>();
+    private boolean flushScheduled = false;
+
+    // Paquete: los benchmarks arman uno sobre su propia base
+    BatchWriter(AppDatabase database, Executor writeExecutor, Executor callbackExecutor,
+                ScheduledExecutorService timer) {
+        this.database = database;
+        this.writeExecutor = writeExecutor;
+        this.callbackExecutor = callbackExecutor;
+        this.timer = timer;
+        this.scheduleFlushTask = () -> writeExecutor.execute(flushTask);
+    }
+
+    public static synchronized BatchWriter getInstance(Context context) {
+        if (INSTANCE == null) {
+            AppExecutors executors = AppExecutors.getInstance();
+            INSTANCE = new BatchWriter(AppDatabase.getInstance(context), executors.diskWrite(),
+                executors.mainThread(), executors.timer());
+        }
+        return INSTANCE;
+    }
+
+    public void enqueue(Runnable write) {
+        enqueue(write, null);
+    }
+
+    // Encola una mutación; `write` corre en el hilo de escritura dentro de la transacción del lote
+    public void enqueue(Runnable write, @Nullable Callback callback) {
+        add(new Operation(() -> {
+            write.run();
+            return null;
+        }, callback, null));
+    }
+
+    // Encola una mutación con resultado (p. ej. el id insertado); el future se completa tras el commit
+    @SuppressWarnings("unchecked")
+    public <T> ListenableFuture<T> submit(Callable<T> write) {
+        SettableFuture<T> future = SettableFuture.create();
+        add(new Operation(write, null, (SettableFuture<Object>) (SettableFuture<?>) future));
+        return future;
+    }
+
+    private void add(Operation operation) {
+        boolean flushNow = false;
+        boolean scheduleFlush = false;
+        synchronized (lock) {
+            pending.add(operation);
+            if (pending.size() >= MAX_BATCH_SIZE) {
+                flushNow = true;
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                scheduleFlush = true;
+            }
+        }
+        if (flushNow) {
+            writeExecutor.execute(flushTask);
+        } else if (scheduleFlush) {
+            timer.schedule(scheduleFlushTask, FLUSH_WINDOW_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Aplica todo lo pendiente, en transacciones de hasta MAX_BATCH_SIZE operaciones
+    private void flush() {
+        List<Operation> batch;
+        synchronized (lock) {
+            flushScheduled = false;
+            if (pending.isEmpty()) return;
+            batch = pending;
+            pending = new ArrayList<>();
+        }
+        for (int start = 0; start < batch.size(); start += MAX_BATCH_SIZE) {
+            runBatch(batch.subList(start, Math.min(start + MAX_BATCH_SIZE, batch.size())));
+        }
+    }
+
+    private void runBatch(List<Operation> batch) {
+        try {
+            database.runInTransaction(() -> {
+                for (Operation operation : batch) {
+                    operation.run();
+                }
+            });
+            for (Operation operation : batch) {
+                complete(operation, null);
+            }
+        } catch (RuntimeException batchError) {
+            if (batch.size() == 1) {
+                complete(batch.get(0), batchError);
+                return;
+            }
+            // El lote se revirtió completo: reintentar una por una para que solo falle la culpable
+            Log.w(TAG, "Lote de " + batch.size() + " escrituras falló; reintentando individualmente", batchError);
+            for (Operation operation : batch) {
+                try {
+                    database.runInTransaction(operation::run);
+                    complete(operation, null);
+                } catch (RuntimeException e) {
+                    complete(operation, e);
+                }
+            }
+        }
+    }
+
+    private void complete(Operation operation, @Nullable Throwable error) {
+        if (operation.future != null) {
+            if (error != null) {
+                operation.future.setException(unwrap(error));
+            } else {
+                operation.future.set(operation.result);
+            }
+        } else if (operation.callback != null) {
+            callbackExecutor.execute(() -> operation.callback.onComplete(error));
+        } else if (error != null) {
+            Log.e(TAG, "Error en escritura encolada", error);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof WriteException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static final class Operation {
+        final Callable<?> write;
+        @Nullable final Callback callback;
+        @Nullable final SettableFuture<Object> future;
+        Object result;
+
+        Operation(Callable<?> write, @Nullable Callback callback, @Nullable SettableFuture<Object> future) {
+            this.write = write;
+            this.callback = callback;
+            this.future = future;
+        }
+
+        void run() {
+            try {
+                result = write.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new WriteException(e);
+            }
+        }
+    }
+
+    // Transporta excepciones chequeadas de un Callable a través de runInTransaction
+    private static final class WriteException extends RuntimeException {
+        WriteException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
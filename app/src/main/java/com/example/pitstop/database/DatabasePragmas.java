@@ -0,0 +1,51 @@
+package com.example.pitstop.database;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+
+/**
+ * Ajustes de SQLite que se aplican a cada conexión (ver {@link PragmaOpenHelperFactory}).
+ * Con WAL, `synchronous=NORMAL` solo hace fsync en los checkpoints: un corte de energía puede
+ * perder las últimas transacciones, pero nunca corrompe la base.
+ * No incluye `mmap_size`: su PRAGMA devuelve una fila y el framework no lo acepta como
+ * SQL por conexión, así que nunca llegaría a las conexiones de lectura.
+ */
+public final class DatabasePragmas {
+    // Valores usados por la app
+    public static final DatabasePragmas DEFAULT = new DatabasePragmas("NORMAL", "MEMORY", 8 * 1024);
+    // Sin cambios respecto de los valores por defecto de SQLite (útil como línea base en benchmarks)
+    public static final DatabasePragmas NONE = new DatabasePragmas(null, null, 0);
+
+    private final String synchronous;
+    private final String tempStore;
+    private final int cacheSizeKib;
+
+    /**
+     * @param synchronous   OFF | NORMAL | FULL, o null para no tocarlo
+     * @param tempStore     DEFAULT | FILE | MEMORY, o null para no tocarlo
+     * @param cacheSizeKib  tamaño del caché de páginas en KiB; 0 para no tocarlo
+     */
+    public DatabasePragmas(String synchronous, String tempStore, int cacheSizeKib) {
+        this.synchronous = synchronous;
+        this.tempStore = tempStore;
+        this.cacheSizeKib = cacheSizeKib;
+    }
+
+    // Sentencias PRAGMA a ejecutar en cada conexión; ninguna devuelve filas
+    String[] toStatements() {
+        return new String[] {
+            synchronous != null ? "PRAGMA synchronous = " + synchronous : null,
+            tempStore != null ? "PRAGMA temp_store = " + tempStore : null,
+            // Valor negativo = tamaño en KiB en lugar de cantidad de páginas
+            cacheSizeKib > 0 ? "PRAGMA cache_size = -" + cacheSizeKib : null
+        };
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "synchronous=%s temp_store=%s cache_size=%dKiB",
+            synchronous, tempStore, cacheSizeKib);
+    }
+}
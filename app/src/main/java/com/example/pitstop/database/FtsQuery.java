@@ -0,0 +1,57 @@
+package com.example.pitstop.database;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * Utilidades para consultas FTS4.
+ * - Convierte texto libre en una expresión MATCH de prefijos (`aceite filtro` -> `aceite* filtro*`).
+ * - Calcula relevancia a partir del `matchinfo` por defecto ("pcx"), ponderando por columna.
+ */
+public final class FtsQuery {
+
+    private FtsQuery() {}
+
+    // Separa en palabras (letras/dígitos) y descarta la sintaxis especial de FTS (comillas, -, *, :, paréntesis)
+    public static String toPrefixQuery(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder query = new StringBuilder();
+        for (String token : text.trim().split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty()) continue;
+            if (query.length() > 0) {
+                query.append(' ');
+            }
+            query.append(token).append('*');
+        }
+        return query.toString();
+    }
+
+    /**
+     * Relevancia de una fila: suma, por frase y columna, de aciertos en la fila sobre aciertos en
+     * toda la tabla, multiplicado por el peso de la columna. Columnas sin peso cuentan como 1.
+     */
+    public static double rank(byte[] matchInfo, double... columnWeights) {
+        if (matchInfo == null || matchInfo.length < 8) {
+            return 0;
+        }
+        IntBuffer ints = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder()).asIntBuffer();
+        int phrases = ints.get(0);
+        int columns = ints.get(1);
+        double score = 0;
+        for (int phrase = 0; phrase < phrases; phrase++) {
+            for (int column = 0; column < columns; column++) {
+                int offset = 2 + 3 * (phrase * columns + column);
+                int hitsInRow = ints.get(offset);
+                int hitsInAllRows = ints.get(offset + 1);
+                if (hitsInRow > 0 && hitsInAllRows > 0) {
+                    double weight = column < columnWeights.length ? columnWeights[column] : 1.0;
+                    score += weight * hitsInRow / hitsInAllRows;
+                }
+            }
+        }
+        return score;
+    }
+}
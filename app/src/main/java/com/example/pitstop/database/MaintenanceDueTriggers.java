@@ -0,0 +1,69 @@
+package com.example.pitstop.database;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Triggers que mantienen la tabla derivada `maintenance_due` al día.
+ * - `maintenance`: recalcula `nextServiceKm` al insertar/actualizar y borra la fila al eliminar.
+ * - `vehicles`: propaga el `currentKm` del vehículo a sus filas.
+ * - `vehicle_logs`: propaga el km del log más reciente del vehículo.
+ */
+final class MaintenanceDueTriggers {
+
+    // Km actual del vehículo dueño del mantenimiento (0 si aún no existe)
+    private static final String VEHICLE_KM =
+        "COALESCE((SELECT currentKm FROM vehicles WHERE id = NEW.vehicleId), 0)";
+
+    private static final String UPSERT_FROM_NEW =
+        "INSERT OR REPLACE INTO maintenance_due "
+            + "(maintenanceId, userUid, vehicleId, nextServiceKm, currentKm, remainingKm) "
+            + "SELECT NEW.id, NEW.userUid, NEW.vehicleId, NEW.executedKm + NEW.periodicityKm, km, "
+            + "NEW.executedKm + NEW.periodicityKm - km "
+            + "FROM (SELECT " + VEHICLE_KM + " AS km);";
+
+    private static final String[] TRIGGERS = {
+        "CREATE TRIGGER IF NOT EXISTS maintenance_due_maintenance_insert "
+            + "AFTER INSERT ON maintenance BEGIN " + UPSERT_FROM_NEW + " END",
+
+        "CREATE TRIGGER IF NOT EXISTS maintenance_due_maintenance_update "
+            + "AFTER UPDATE ON maintenance BEGIN " + UPSERT_FROM_NEW + " END",
+
+        "CREATE TRIGGER IF NOT EXISTS maintenance_due_maintenance_delete "
+            + "AFTER DELETE ON maintenance BEGIN "
+            + "DELETE FROM maintenance_due WHERE maintenanceId = OLD.id; END",
+
+        "CREATE TRIGGER IF NOT EXISTS maintenance_due_vehicle_insert "
+            + "AFTER INSERT ON vehicles BEGIN "
+            + "UPDATE maintenance_due SET currentKm = NEW.currentKm, remainingKm = nextServiceKm - NEW.currentKm "
+            + "WHERE userUid = NEW.userUid AND vehicleId = NEW.id; END",
+
+        "CREATE TRIGGER IF NOT EXISTS maintenance_due_vehicle_km_update "
+            + "AFTER UPDATE OF currentKm ON vehicles WHEN NEW.currentKm <> OLD.currentKm BEGIN "
+            + "UPDATE maintenance_due SET currentKm = NEW.currentKm, remainingKm = nextServiceKm - NEW.currentKm "
+            + "WHERE userUid = NEW.userUid AND vehicleId = NEW.id; END",
+
+        // Solo el log más reciente (por fecha) define el km actual del vehículo
+        "CREATE TRIGGER IF NOT EXISTS maintenance_due_vehicle_log_insert "
+            + "AFTER INSERT ON vehicle_logs WHEN NEW.date >= "
+            + "(SELECT MAX(date) FROM vehicle_logs WHERE userUid = NEW.userUid AND vehicleId = NEW.vehicleId) BEGIN "
+            + "UPDATE maintenance_due SET currentKm = NEW.currentKm, remainingKm = nextServiceKm - NEW.currentKm "
+            + "WHERE userUid = NEW.userUid AND vehicleId = NEW.vehicleId; END"
+    };
+
+    private MaintenanceDueTriggers() {}
+
+    static void create(SupportSQLiteDatabase database) {
+        for (String trigger : TRIGGERS) {
+            database.execSQL(trigger);
+        }
+    }
+
+    // Rellena la tabla a partir de los mantenimientos existentes (usado en migraciones)
+    static void backfill(SupportSQLiteDatabase database) {
+        database.execSQL("INSERT OR REPLACE INTO maintenance_due "
+            + "(maintenanceId, userUid, vehicleId, nextServiceKm, currentKm, remainingKm) "
+            + "SELECT m.id, m.userUid, m.vehicleId, m.executedKm + m.periodicityKm, COALESCE(v.currentKm, 0), "
+            + "m.executedKm + m.periodicityKm - COALESCE(v.currentKm, 0) "
+            + "FROM maintenance m LEFT JOIN vehicles v ON v.id = m.vehicleId");
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.pitstop.database;
+
+import androidx.room.TypeConverter;
+
+import com.example.pitstop.model.MaintenanceType;
+
+/**
+ * Convierte `MaintenanceType` a su código entero estable para guardarlo en Room.
+ */
+public final class MaintenanceTypeConverter {
+
+    private MaintenanceTypeConverter() {}
+
+    @TypeConverter
+    public static int toCode(MaintenanceType type) {
+        return type != null ? type.getCode() : MaintenanceType.OTHER.getCode();
+    }
+
+    @TypeConverter
+    public static MaintenanceType fromCode(int code) {
+        return MaintenanceType.fromCode(code);
+    }
+}
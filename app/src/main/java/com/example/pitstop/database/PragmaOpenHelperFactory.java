@@ -0,0 +1,88 @@
+package com.example.pitstop.database;
+
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteOpenHelper;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+
+/**
+ * Factory de `SupportSQLiteOpenHelper` que aplica {@link DatabasePragmas} en `onConfigure`,
+ * antes de que Room valide o migre la base. Delega todo lo demás en el callback de Room.
+ * Desde Android 11 los PRAGMA se registran como SQL por conexión: con WAL también los reciben
+ * las conexiones de lectura del pool, que son las que atienden las consultas de Room.
+ * En versiones anteriores solo se aplican a la conexión principal (la de escritura);
+ * las lecturas usan los valores por defecto de SQLite.
+ */
+public class PragmaOpenHelperFactory implements SupportSQLiteOpenHelper.Factory {
+    private final SupportSQLiteOpenHelper.Factory delegate = new FrameworkSQLiteOpenHelperFactory();
+    private final DatabasePragmas pragmas;
+
+    public PragmaOpenHelperFactory(DatabasePragmas pragmas) {
+        this.pragmas = pragmas;
+    }
+
+    @NonNull
+    @Override
+    public SupportSQLiteOpenHelper create(@NonNull SupportSQLiteOpenHelper.Configuration configuration) {
+        SupportSQLiteOpenHelper.Configuration tuned = SupportSQLiteOpenHelper.Configuration
+            .builder(configuration.context)
+            .name(configuration.name)
+            .callback(new PragmaCallback(configuration.callback, pragmas))
+            .noBackupDirectory(configuration.useNoBackupDirectory)
+            .allowDataLossOnRecovery(configuration.allowDataLossOnRecovery)
+            .build();
+        return delegate.create(tuned);
+    }
+
+    private static final class PragmaCallback extends SupportSQLiteOpenHelper.Callback {
+        private final SupportSQLiteOpenHelper.Callback delegate;
+        private final DatabasePragmas pragmas;
+
+        PragmaCallback(SupportSQLiteOpenHelper.Callback delegate, DatabasePragmas pragmas) {
+            super(delegate.version);
+            this.delegate = delegate;
+            this.pragmas = pragmas;
+        }
+
+        @Override
+        public void onConfigure(@NonNull SupportSQLiteDatabase db) {
+            delegate.onConfigure(db);
+            for (String pragma : pragmas.toStatements()) {
+                if (pragma == null) continue;
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+                    // Se ejecuta ya en las conexiones abiertas y en cada una que abra el pool
+                    db.execPerConnectionSQL(pragma, null);
+                } else {
+                    db.execSQL(pragma);
+                }
+            }
+        }
+
+        @Override
+        public void onCreate(@NonNull SupportSQLiteDatabase db) {
+            delegate.onCreate(db);
+        }
+
+        @Override
+        public void onUpgrade(@NonNull SupportSQLiteDatabase db, int oldVersion, int newVersion) {
+            delegate.onUpgrade(db, oldVersion, newVersion);
+        }
+
+        @Override
+        public void onDowngrade(@NonNull SupportSQLiteDatabase db, int oldVersion, int newVersion) {
+            delegate.onDowngrade(db, oldVersion, newVersion);
+        }
+
+        @Override
+        public void onOpen(@NonNull SupportSQLiteDatabase db) {
+            delegate.onOpen(db);
+        }
+
+        @Override
+        public void onCorruption(@NonNull SupportSQLiteDatabase db) {
+            delegate.onCorruption(db);
+        }
+    }
+}
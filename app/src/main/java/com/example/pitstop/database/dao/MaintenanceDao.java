@@ -9,11 +9,15 @@ import androidx.room.Query;
 import androidx.room.Update;
 
 import com.example.pitstop.database.entity.Maintenance;
+import com.example.pitstop.model.DueMaintenance;
+import com.example.pitstop.model.MaintenanceSearchResult;
+import com.example.pitstop.model.MaintenanceType;
 
 import java.util.List;
 
 /**
- * DAO de `Maintenance` con operaciones CRUD, búsqueda por tipo y próximos servicios.
+ * DAO de `Maintenance` con operaciones CRUD, búsqueda de texto completo y próximos servicios.
+ * Los próximos servicios se leen de `maintenance_due` (tabla derivada indexada por km restantes).
  */
 @Dao
 public interface MaintenanceDao {
@@ -32,26 +36,105 @@ public interface MaintenanceDao {
     @Query("SELECT * FROM maintenance WHERE userUid = :userUid ORDER BY date DESC")
     List<Maintenance> getAllMaintenanceByUserSync(String userUid);
 
+    @Query("SELECT * FROM maintenance WHERE userUid = :userUid ORDER BY date DESC LIMIT :limit")
+    List<Maintenance> getRecentMaintenanceSync(String userUid, int limit);
+
+    // Paginación keyset sobre (date, id): cada página continúa desde la última fila vista,
+    // sin OFFSET, usando el rango sobre el índice (userUid, date).
+    // Las sentencias son constantes para que `QueryPlanTest` verifique exactamente estas
+    String PAGE_FIRST = "SELECT * FROM maintenance WHERE userUid = :userUid ORDER BY date DESC, id DESC LIMIT :limit";
+    String PAGE_FROM = "SELECT * FROM maintenance WHERE userUid = :userUid AND date <= :date AND (date < :date OR id <= :id) "
+        + "ORDER BY date DESC, id DESC LIMIT :limit";
+    String PAGE_AFTER = "SELECT * FROM maintenance WHERE userUid = :userUid AND date <= :date AND (date < :date OR id < :id) "
+        + "ORDER BY date DESC, id DESC LIMIT :limit";
+    // Página anterior: se lee en orden ascendente y el PagingSource la invierte
+    String PAGE_BEFORE = "SELECT * FROM maintenance WHERE userUid = :userUid AND date >= :date AND (date > :date OR id > :id) "
+        + "ORDER BY date ASC, id ASC LIMIT :limit";
+
+    // Mismas páginas limitadas a un vehículo, sobre el índice (userUid, vehicleId, date)
+    String VEHICLE_PAGE_FIRST = "SELECT * FROM maintenance WHERE userUid = :userUid AND vehicleId = :vehicleId "
+        + "ORDER BY date DESC, id DESC LIMIT :limit";
+    String VEHICLE_PAGE_FROM = "SELECT * FROM maintenance WHERE userUid = :userUid AND vehicleId = :vehicleId "
+        + "AND date <= :date AND (date < :date OR id <= :id) ORDER BY date DESC, id DESC LIMIT :limit";
+    String VEHICLE_PAGE_AFTER = "SELECT * FROM maintenance WHERE userUid = :userUid AND vehicleId = :vehicleId "
+        + "AND date <= :date AND (date < :date OR id < :id) ORDER BY date DESC, id DESC LIMIT :limit";
+    String VEHICLE_PAGE_BEFORE = "SELECT * FROM maintenance WHERE userUid = :userUid AND vehicleId = :vehicleId "
+        + "AND date >= :date AND (date > :date OR id > :id) ORDER BY date ASC, id ASC LIMIT :limit";
+
+    @Query(PAGE_FIRST)
+    List<Maintenance> getMaintenanceFirstPageSync(String userUid, int limit);
+
+    @Query(PAGE_FROM)
+    List<Maintenance> getMaintenancePageFromSync(String userUid, long date, int id, int limit);
+
+    @Query(PAGE_AFTER)
+    List<Maintenance> getMaintenancePageAfterSync(String userUid, long date, int id, int limit);
+
+    @Query(PAGE_BEFORE)
+    List<Maintenance> getMaintenancePageBeforeSync(String userUid, long date, int id, int limit);
+
+    @Query(VEHICLE_PAGE_FIRST)
+    List<Maintenance> getVehicleMaintenanceFirstPageSync(String userUid, int vehicleId, int limit);
+
+    @Query(VEHICLE_PAGE_FROM)
+    List<Maintenance> getVehicleMaintenancePageFromSync(String userUid, int vehicleId, long date, int id, int limit);
+
+    @Query(VEHICLE_PAGE_AFTER)
+    List<Maintenance> getVehicleMaintenancePageAfterSync(String userUid, int vehicleId, long date, int id, int limit);
+
+    @Query(VEHICLE_PAGE_BEFORE)
+    List<Maintenance> getVehicleMaintenancePageBeforeSync(String userUid, int vehicleId, long date, int id, int limit);
+
     @Query("SELECT * FROM maintenance WHERE userUid = :userUid AND vehicleId = :vehicleId ORDER BY date DESC")
     LiveData<List<Maintenance>> getAllMaintenanceByUserAndVehicle(String userUid, int vehicleId);
 
     @Query("SELECT * FROM maintenance WHERE userUid = :userUid AND vehicleId = :vehicleId ORDER BY date DESC")
     List<Maintenance> getAllMaintenanceByUserAndVehicleSync(String userUid, int vehicleId);
 
+    @Query("SELECT * FROM maintenance WHERE userUid = :userUid AND vehicleId = :vehicleId " +
+           "ORDER BY date DESC LIMIT :limit")
+    List<Maintenance> getRecentMaintenanceByVehicleSync(String userUid, int vehicleId, int limit);
+
     @Query("SELECT * FROM maintenance WHERE id = :id AND userUid = :userUid")
     LiveData<Maintenance> getMaintenanceById(int id, String userUid);
 
     @Query("SELECT * FROM maintenance WHERE id = :id AND userUid = :userUid")
     Maintenance getMaintenanceByIdSync(int id, String userUid);
 
-    @Query("SELECT * FROM maintenance WHERE userUid = :userUid AND type LIKE '%' || :searchQuery || '%' ORDER BY date DESC")
-    LiveData<List<Maintenance>> searchMaintenanceByType(String userUid, String searchQuery);
-
-    @Query("SELECT * FROM maintenance WHERE userUid = :userUid AND type = :type ORDER BY date DESC")
-    LiveData<List<Maintenance>> getMaintenanceByType(String userUid, String type);
-
-    @Query("SELECT * FROM maintenance WHERE userUid = :userUid ORDER BY executedKm + periodicityKm ASC")
-    LiveData<List<Maintenance>> getUpcomingMaintenance(String userUid);
+    // Búsqueda FTS4 sobre tipo, descripción y notas; `matchQuery` usa la sintaxis MATCH (ver `FtsQuery`)
+    @Query("SELECT m.*, matchinfo(maintenance_fts) AS matchInfo FROM maintenance_fts " +
+           "INNER JOIN maintenance m ON m.id = maintenance_fts.rowid " +
+           "WHERE maintenance_fts MATCH :matchQuery AND m.userUid = :userUid")
+    LiveData<List<MaintenanceSearchResult>> searchMaintenance(String userUid, String matchQuery);
+
+    @Query("SELECT m.*, matchinfo(maintenance_fts) AS matchInfo FROM maintenance_fts " +
+           "INNER JOIN maintenance m ON m.id = maintenance_fts.rowid " +
+           "WHERE maintenance_fts MATCH :matchQuery AND m.userUid = :userUid AND m.vehicleId = :vehicleId")
+    LiveData<List<MaintenanceSearchResult>> searchVehicleMaintenance(String userUid, int vehicleId, String matchQuery);
+
+    @Query("SELECT * FROM maintenance WHERE userUid = :userUid AND typeCode = :type ORDER BY date DESC")
+    LiveData<List<Maintenance>> getMaintenanceByType(String userUid, MaintenanceType type);
+
+    @Query("SELECT * FROM maintenance WHERE userUid = :userUid AND vehicleId = :vehicleId AND typeCode = :type " +
+           "ORDER BY date DESC")
+    LiveData<List<Maintenance>> getVehicleMaintenanceByType(String userUid, int vehicleId, MaintenanceType type);
+
+    @Query("SELECT m.* FROM maintenance_due d INNER JOIN maintenance m ON m.id = d.maintenanceId " +
+           "WHERE d.userUid = :userUid ORDER BY d.remainingKm ASC LIMIT :limit")
+    List<Maintenance> getUpcomingMaintenanceSync(String userUid, int limit);
+
+    // Próximos servicios de un vehículo, sobre el índice (userUid, vehicleId, remainingKm) de `maintenance_due`
+    @Query("SELECT m.* FROM maintenance_due d INNER JOIN maintenance m ON m.id = d.maintenanceId " +
+           "WHERE d.userUid = :userUid AND d.vehicleId = :vehicleId ORDER BY d.remainingKm ASC LIMIT :limit")
+    List<Maintenance> getUpcomingMaintenanceByVehicleSync(String userUid, int vehicleId, int limit);
+
+    // Mantenimientos del vehículo cuyo próximo servicio cae dentro de los siguientes `withinKm` km
+    @Query("SELECT m.*, d.remainingKm AS remainingKm FROM maintenance_due d " +
+           "INNER JOIN maintenance m ON m.id = d.maintenanceId " +
+           "WHERE d.userUid = :userUid AND d.vehicleId = :vehicleId " +
+           "AND d.remainingKm > 0 AND d.remainingKm <= :withinKm " +
+           "ORDER BY d.remainingKm ASC")
+    List<DueMaintenance> getVehicleMaintenanceDueWithinSync(String userUid, int vehicleId, int withinKm);
 
     @Query("DELETE FROM maintenance WHERE id = :id")
     void deleteMaintenanceById(int id);
@@ -0,0 +1,51 @@
+package com.example.pitstop.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.example.pitstop.database.entity.FiredReminder;
+import com.example.pitstop.model.DueMaintenance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DAO de recordatorios de mantenimiento.
+ * Los candidatos salen de `maintenance_due` por rango de `nextServiceKm` sobre el índice
+ * (userUid, vehicleId, nextServiceKm), excluyendo los ya avisados en `fired_reminders`.
+ */
+@Dao
+public interface ReminderDao {
+    // Próximos servicios del vehículo con nextServiceKm en (fromNextKm, toNextKm] aún no avisados
+    @Query("SELECT m.*, d.remainingKm AS remainingKm FROM maintenance_due d " +
+           "INNER JOIN maintenance m ON m.id = d.maintenanceId " +
+           "LEFT JOIN fired_reminders f ON f.maintenanceId = d.maintenanceId AND f.nextServiceKm = d.nextServiceKm " +
+           "WHERE d.userUid = :userUid AND d.vehicleId = :vehicleId " +
+           "AND d.nextServiceKm > :fromNextKm AND d.nextServiceKm <= :toNextKm " +
+           "AND f.maintenanceId IS NULL " +
+           "ORDER BY d.nextServiceKm ASC")
+    List<DueMaintenance> getPendingRemindersSync(String userUid, int vehicleId, int fromNextKm, int toNextKm);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertFiredReminders(List<FiredReminder> reminders);
+
+    // Lee los pendientes del rango y los marca como avisados en la misma transacción,
+    // así dos evaluaciones concurrentes no notifican el mismo servicio
+    @Transaction
+    default List<DueMaintenance> claimPendingReminders(String userUid, int vehicleId, int fromNextKm, int toNextKm) {
+        List<DueMaintenance> pending = getPendingRemindersSync(userUid, vehicleId, fromNextKm, toNextKm);
+        if (!pending.isEmpty()) {
+            long now = System.currentTimeMillis();
+            List<FiredReminder> fired = new ArrayList<>(pending.size());
+            for (DueMaintenance due : pending) {
+                fired.add(new FiredReminder(due.getMaintenance().getId(), userUid, vehicleId,
+                    due.getMaintenance().getNextServiceKm(), now));
+            }
+            insertFiredReminders(fired);
+        }
+        return pending;
+    }
+}
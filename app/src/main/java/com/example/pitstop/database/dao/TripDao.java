@@ -0,0 +1,15 @@
+package com.example.pitstop.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+
+import com.example.pitstop.database.entity.Trip;
+
+/**
+ * DAO de `Trip`: un insert por viaje terminado.
+ */
+@Dao
+public interface TripDao {
+    @Insert
+    long insertTrip(Trip trip);
+}
@@ -17,6 +17,10 @@ public interface UserDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertUser(User user);
 
+    // No reemplaza: REPLACE borraría la fila y con ella (en cascada) todos sus datos
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertUserIfAbsent(User user);
+
     @Update
     void updateUser(User user);
 
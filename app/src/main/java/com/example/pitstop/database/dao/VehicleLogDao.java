@@ -6,9 +6,11 @@ import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 
 import com.example.pitstop.database.entity.VehicleLog;
+import com.example.pitstop.model.OdometerChange;
 
 import java.util.List;
 
@@ -20,6 +22,53 @@ public interface VehicleLogDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertVehicleLog(VehicleLog vehicleLog);
 
+    @Insert
+    long insertVehicleLogReturningId(VehicleLog vehicleLog);
+
+    @Query("UPDATE vehicles SET currentKm = :currentKm WHERE id = :vehicleId")
+    void setVehicleCurrentKm(int vehicleId, int currentKm);
+
+    // Registra una lectura del odómetro: inserta el log y actualiza el km del vehículo
+    // en la misma transacción. Devuelve el id del log insertado.
+    @Transaction
+    default long recordOdometerReading(VehicleLog vehicleLog) {
+        long id = insertVehicleLogReturningId(vehicleLog);
+        setVehicleCurrentKm(vehicleLog.getVehicleId(), vehicleLog.getCurrentKm());
+        return id;
+    }
+
+    @Query("SELECT currentKm FROM vehicles WHERE id = :vehicleId")
+    int getVehicleCurrentKm(int vehicleId);
+
+    @Query("SELECT tripRemainderMeters FROM vehicles WHERE id = :vehicleId")
+    int getVehicleTripRemainderMeters(int vehicleId);
+
+    @Query("UPDATE vehicles SET currentKm = currentKm + :deltaKm, tripRemainderMeters = :remainderMeters "
+        + "WHERE id = :vehicleId")
+    void addVehicleTripKm(int vehicleId, int deltaKm, int remainderMeters);
+
+    @Query("UPDATE vehicles SET tripRemainderMeters = :remainderMeters WHERE id = :vehicleId")
+    void setVehicleTripRemainderMeters(int vehicleId, int remainderMeters);
+
+    // Suma la distancia de un viaje al odómetro en una transacción. Los metros que no completan
+    // un km quedan en el vehículo y se suman al próximo viaje, así los viajes cortos no se pierden
+    // al redondear. Si se completó algún km, registra el log con el km resultante.
+    @Transaction
+    default OdometerChange addTripDistance(String userUid, int vehicleId, int distanceMeters, long date) {
+        int carriedMeters = getVehicleTripRemainderMeters(vehicleId) + distanceMeters;
+        int deltaKm = carriedMeters / 1000;
+        if (deltaKm == 0) {
+            // Sin km nuevos no se toca `currentKm` (ni se disparan los triggers de `maintenance_due`)
+            setVehicleTripRemainderMeters(vehicleId, carriedMeters);
+            int km = getVehicleCurrentKm(vehicleId);
+            return new OdometerChange(km, km);
+        }
+        addVehicleTripKm(vehicleId, deltaKm, carriedMeters % 1000);
+        int newKm = getVehicleCurrentKm(vehicleId);
+        insertVehicleLogReturningId(new VehicleLog(userUid, vehicleId, newKm, date, null));
+        return new OdometerChange(newKm - deltaKm, newKm);
+    }
+
     @Update
     void updateVehicleLog(VehicleLog vehicleLog);
 
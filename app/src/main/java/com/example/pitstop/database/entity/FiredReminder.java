@@ -0,0 +1,81 @@
+package com.example.pitstop.database.entity;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Ignore;
+import androidx.room.PrimaryKey;
+
+/**
+ * Recordatorio ya notificado para un mantenimiento.
+ * Guarda el `nextServiceKm` avisado: al completar el mantenimiento cambia el próximo servicio
+ * y el recordatorio vuelve a quedar pendiente. Se borra junto con el mantenimiento.
+ */
+@Entity(
+    tableName = "fired_reminders",
+    foreignKeys = @ForeignKey(
+        entity = Maintenance.class,
+        parentColumns = "id",
+        childColumns = "maintenanceId",
+        onDelete = ForeignKey.CASCADE
+    )
+)
+public class FiredReminder {
+    @PrimaryKey
+    private int maintenanceId;
+    private String userUid;
+    private int vehicleId;
+    private int nextServiceKm;
+    private long firedAt;
+
+    @Ignore
+    public FiredReminder() {}
+
+    public FiredReminder(int maintenanceId, String userUid, int vehicleId, int nextServiceKm, long firedAt) {
+        this.maintenanceId = maintenanceId;
+        this.userUid = userUid;
+        this.vehicleId = vehicleId;
+        this.nextServiceKm = nextServiceKm;
+        this.firedAt = firedAt;
+    }
+
+    // Getters y Setters
+    public int getMaintenanceId() {
+        return maintenanceId;
+    }
+
+    public void setMaintenanceId(int maintenanceId) {
+        this.maintenanceId = maintenanceId;
+    }
+
+    public String getUserUid() {
+        return userUid;
+    }
+
+    public void setUserUid(String userUid) {
+        this.userUid = userUid;
+    }
+
+    public int getVehicleId() {
+        return vehicleId;
+    }
+
+    public void setVehicleId(int vehicleId) {
+        this.vehicleId = vehicleId;
+    }
+
+    public int getNextServiceKm() {
+        return nextServiceKm;
+    }
+
+    public void setNextServiceKm(int nextServiceKm) {
+        this.nextServiceKm = nextServiceKm;
+    }
+
+    public long getFiredAt() {
+        return firedAt;
+    }
+
+    public void setFiredAt(long firedAt) {
+        this.firedAt = firedAt;
+    }
+}
@@ -1,14 +1,20 @@
 package com.example.pitstop.database.entity;
 
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.ForeignKey;
 import androidx.room.Ignore;
 import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
+import com.example.pitstop.model.MaintenanceType;
+
 /**
  * Entidad Room que representa un mantenimiento.
  * Almacena el tipo, descripción, periodicidad, km ejecutado, fecha, costo y notas.
+ * `type` es el texto visible; `typeCode` es el código estable del tipo (se deriva de `type`)
+ * y es el que se usa para filtrar y resolver colores.
  * Relación: pertenece a un `User` (por `userUid`) y referencia un `vehicleId`.
  */
 @Entity(
@@ -19,7 +25,12 @@ import androidx.room.PrimaryKey;
         childColumns = "userUid",
         onDelete = ForeignKey.CASCADE
     ),
-    indices = {@Index("userUid"), @Index("vehicleId")}
+    indices = {
+        @Index({"userUid", "date"}),
+        @Index({"userUid", "vehicleId", "date"}),
+        @Index("vehicleId"),
+        @Index({"userUid", "typeCode", "date"})
+    }
 )
 public class Maintenance {
     @PrimaryKey(autoGenerate = true)
@@ -27,6 +38,9 @@ public class Maintenance {
     private String userUid;
     private int vehicleId;
     private String type;
+    @NonNull
+    @ColumnInfo(defaultValue = "0")
+    private MaintenanceType typeCode = MaintenanceType.OTHER;
     private String description;
     private int periodicityKm;
     private int executedKm;
@@ -41,7 +55,7 @@ public class Maintenance {
                       int executedKm, long date, Double cost, String notes) {
         this.userUid = userUid;
         this.vehicleId = vehicleId;
-        this.type = type;
+        setType(type);
         this.description = description;
         this.periodicityKm = periodicityKm;
         this.executedKm = executedKm;
@@ -79,8 +93,19 @@ public class Maintenance {
         return type;
     }
 
+    // Mantiene `typeCode` sincronizado con el texto del tipo
     public void setType(String type) {
         this.type = type;
+        this.typeCode = MaintenanceType.fromString(type);
+    }
+
+    @NonNull
+    public MaintenanceType getTypeCode() {
+        return typeCode;
+    }
+
+    public void setTypeCode(@NonNull MaintenanceType typeCode) {
+        this.typeCode = typeCode;
     }
 
     public String getDescription() {
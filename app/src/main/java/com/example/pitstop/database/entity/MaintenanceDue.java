@@ -0,0 +1,93 @@
+package com.example.pitstop.database.entity;
+
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Tabla derivada con el próximo servicio de cada mantenimiento.
+ * Guarda `nextServiceKm`, el km actual del vehículo y los km restantes.
+ * La mantienen triggers de SQLite sobre `maintenance`, `vehicles` y `vehicle_logs`
+ * (ver `MaintenanceDueTriggers`); la app solo la lee.
+ * El índice por `nextServiceKm` permite buscar qué avisos se cruzaron entre dos lecturas del odómetro.
+ */
+@Entity(
+    tableName = "maintenance_due",
+    indices = {
+        @Index({"userUid", "remainingKm"}),
+        @Index({"userUid", "vehicleId", "remainingKm"}),
+        @Index({"userUid", "vehicleId", "nextServiceKm"})
+    }
+)
+public class MaintenanceDue {
+    @PrimaryKey
+    private int maintenanceId;
+    private String userUid;
+    private int vehicleId;
+    private int nextServiceKm;
+    private int currentKm;
+    private int remainingKm;
+
+    @Ignore
+    public MaintenanceDue() {}
+
+    public MaintenanceDue(int maintenanceId, String userUid, int vehicleId, int nextServiceKm,
+                          int currentKm, int remainingKm) {
+        this.maintenanceId = maintenanceId;
+        this.userUid = userUid;
+        this.vehicleId = vehicleId;
+        this.nextServiceKm = nextServiceKm;
+        this.currentKm = currentKm;
+        this.remainingKm = remainingKm;
+    }
+
+    // Getters y Setters
+    public int getMaintenanceId() {
+        return maintenanceId;
+    }
+
+    public void setMaintenanceId(int maintenanceId) {
+        this.maintenanceId = maintenanceId;
+    }
+
+    public String getUserUid() {
+        return userUid;
+    }
+
+    public void setUserUid(String userUid) {
+        this.userUid = userUid;
+    }
+
+    public int getVehicleId() {
+        return vehicleId;
+    }
+
+    public void setVehicleId(int vehicleId) {
+        this.vehicleId = vehicleId;
+    }
+
+    public int getNextServiceKm() {
+        return nextServiceKm;
+    }
+
+    public void setNextServiceKm(int nextServiceKm) {
+        this.nextServiceKm = nextServiceKm;
+    }
+
+    public int getCurrentKm() {
+        return currentKm;
+    }
+
+    public void setCurrentKm(int currentKm) {
+        this.currentKm = currentKm;
+    }
+
+    public int getRemainingKm() {
+        return remainingKm;
+    }
+
+    public void setRemainingKm(int remainingKm) {
+        this.remainingKm = remainingKm;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.pitstop.database.entity;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+import androidx.room.PrimaryKey;
+
+/**
+ * Índice de texto completo (FTS4) sobre tipo, descripción y notas de `maintenance`.
+ * Room lo mantiene sincronizado con la tabla de contenido mediante triggers; `rowid` es el `id`
+ * del mantenimiento. Tokenizer unicode61 para ignorar mayúsculas y tildes.
+ */
+@Fts4(contentEntity = Maintenance.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61, prefix = {2, 3})
+@Entity(tableName = "maintenance_fts")
+public class MaintenanceFts {
+    @PrimaryKey
+    @ColumnInfo(name = "rowid")
+    private int rowid;
+    private String type;
+    private String description;
+    private String notes;
+
+    // Getters y Setters
+    public int getRowid() {
+        return rowid;
+    }
+
+    public void setRowid(int rowid) {
+        this.rowid = rowid;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+}
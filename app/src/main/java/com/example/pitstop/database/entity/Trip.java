@@ -0,0 +1,135 @@
+package com.example.pitstop.database.entity;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Viaje registrado por GPS: una fila por viaje.
+ * El recorrido va simplificado y comprimido en `track` (ver `TrackCodec`), no una fila por fix.
+ * Relación: pertenece a un `User` y a un `Vehicle` por `vehicleId`.
+ */
+@Entity(
+    tableName = "trips",
+    foreignKeys = @ForeignKey(
+        entity = User.class,
+        parentColumns = "uid",
+        childColumns = "userUid",
+        onDelete = ForeignKey.CASCADE
+    ),
+    indices = {
+        @Index({"userUid", "vehicleId", "startTime"})
+    }
+)
+public class Trip {
+    @PrimaryKey(autoGenerate = true)
+    private int id;
+    private String userUid;
+    private int vehicleId;
+    private long startTime;
+    private long endTime;
+    private double distanceKm;
+    private int startKm;
+    private int endKm;
+    private int pointCount;
+    private byte[] track;
+
+    @Ignore
+    public Trip() {}
+
+    public Trip(String userUid, int vehicleId, long startTime, long endTime, double distanceKm,
+                int startKm, int endKm, int pointCount, byte[] track) {
+        this.userUid = userUid;
+        this.vehicleId = vehicleId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.distanceKm = distanceKm;
+        this.startKm = startKm;
+        this.endKm = endKm;
+        this.pointCount = pointCount;
+        this.track = track;
+    }
+
+    // Getters y Setters
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getUserUid() {
+        return userUid;
+    }
+
+    public void setUserUid(String userUid) {
+        this.userUid = userUid;
+    }
+
+    public int getVehicleId() {
+        return vehicleId;
+    }
+
+    public void setVehicleId(int vehicleId) {
+        this.vehicleId = vehicleId;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(long endTime) {
+        this.endTime = endTime;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    public int getStartKm() {
+        return startKm;
+    }
+
+    public void setStartKm(int startKm) {
+        this.startKm = startKm;
+    }
+
+    public int getEndKm() {
+        return endKm;
+    }
+
+    public void setEndKm(int endKm) {
+        this.endKm = endKm;
+    }
+
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    public void setPointCount(int pointCount) {
+        this.pointCount = pointCount;
+    }
+
+    public byte[] getTrack() {
+        return track;
+    }
+
+    public void setTrack(byte[] track) {
+        this.track = track;
+    }
+}
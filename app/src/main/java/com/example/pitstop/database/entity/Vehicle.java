@@ -1,5 +1,6 @@
 package com.example.pitstop.database.entity;
 
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.ForeignKey;
 import androidx.room.Ignore;
@@ -19,7 +20,10 @@ import androidx.room.PrimaryKey;
         childColumns = "userUid",
         onDelete = ForeignKey.CASCADE
     ),
-    indices = {@Index("userUid")}
+    indices = {
+        @Index({"userUid", "isActive", "createdAt"}),
+        @Index({"userUid", "isCurrent", "isActive"})
+    }
 )
 public class Vehicle {
     @PrimaryKey(autoGenerate = true)
@@ -32,6 +36,9 @@ public class Vehicle {
     private String color;
     private String licensePlate;
     private int currentKm;
+    // Metros de viajes GPS que todavía no completan un km del odómetro
+    @ColumnInfo(defaultValue = "0")
+    private int tripRemainderMeters;
     private long createdAt;
     private boolean isActive;
     private boolean isCurrent;
@@ -127,6 +134,14 @@ public class Vehicle {
         this.currentKm = currentKm;
     }
 
+    public int getTripRemainderMeters() {
+        return tripRemainderMeters;
+    }
+
+    public void setTripRemainderMeters(int tripRemainderMeters) {
+        this.tripRemainderMeters = tripRemainderMeters;
+    }
+
     public long getCreatedAt() {
         return createdAt;
     }
@@ -19,7 +19,11 @@ import androidx.room.PrimaryKey;
         childColumns = "userUid",
         onDelete = ForeignKey.CASCADE
     ),
-    indices = {@Index("userUid"), @Index("vehicleId")}
+    indices = {
+        @Index({"userUid", "date"}),
+        @Index({"userUid", "vehicleId", "date"}),
+        @Index("vehicleId")
+    }
 )
 public class VehicleLog {
     @PrimaryKey(autoGenerate = true)
@@ -0,0 +1,384 @@
+package com.example.pitstop.database.metrics;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.CursorWrapper;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteTransactionListener;
+import android.os.CancellationSignal;
+import android.util.Pair;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * `SupportSQLiteDatabase` que delega todo y mide consultas y sentencias.
+ * - Consultas: el tiempo va desde `query()` hasta que se cierra el cursor (incluye recorrerlo,
+ *   que es donde SQLite realmente trabaja); las filas son las del cursor.
+ * - Sentencias compiladas: el tiempo de cada `execute*`; las filas son las afectadas.
+ */
+final class InstrumentedDatabase implements SupportSQLiteDatabase {
+    private final SupportSQLiteDatabase delegate;
+    private final QueryMetrics metrics;
+
+    InstrumentedDatabase(SupportSQLiteDatabase delegate, QueryMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    boolean wraps(SupportSQLiteDatabase database) {
+        return delegate == database;
+    }
+
+    // Consultas medidas
+
+    @NonNull
+    @Override
+    public Cursor query(@NonNull String query) {
+        long start = System.nanoTime();
+        return new TimedCursor(delegate.query(query), query, start);
+    }
+
+    @NonNull
+    @Override
+    public Cursor query(@NonNull String query, @NonNull Object[] bindArgs) {
+        long start = System.nanoTime();
+        return new TimedCursor(delegate.query(query, bindArgs), query, start);
+    }
+
+    @NonNull
+    @Override
+    public Cursor query(@NonNull SupportSQLiteQuery query) {
+        long start = System.nanoTime();
+        return new TimedCursor(delegate.query(query), query.getSql(), start);
+    }
+
+    @NonNull
+    @Override
+    public Cursor query(@NonNull SupportSQLiteQuery query, @Nullable CancellationSignal cancellationSignal) {
+        long start = System.nanoTime();
+        return new TimedCursor(delegate.query(query, cancellationSignal), query.getSql(), start);
+    }
+
+    @NonNull
+    @Override
+    public SupportSQLiteStatement compileStatement(@NonNull String sql) {
+        return new TimedStatement(delegate.compileStatement(sql), sql);
+    }
+
+    @Override
+    public void execSQL(@NonNull String sql) throws SQLException {
+        long start = System.nanoTime();
+        delegate.execSQL(sql);
+        metrics.recordExecution(sql, System.nanoTime() - start, 0);
+    }
+
+    @Override
+    public void execSQL(@NonNull String sql, @NonNull Object[] bindArgs) throws SQLException {
+        long start = System.nanoTime();
+        delegate.execSQL(sql, bindArgs);
+        metrics.recordExecution(sql, System.nanoTime() - start, 0);
+    }
+
+    @Override
+    public long insert(@NonNull String table, int conflictAlgorithm, @NonNull ContentValues values) throws SQLException {
+        long start = System.nanoTime();
+        long id = delegate.insert(table, conflictAlgorithm, values);
+        metrics.recordExecution("INSERT INTO " + table, System.nanoTime() - start, id != -1 ? 1 : 0);
+        return id;
+    }
+
+    @Override
+    public int delete(@NonNull String table, @Nullable String whereClause, @Nullable Object[] whereArgs) {
+        long start = System.nanoTime();
+        int rows = delegate.delete(table, whereClause, whereArgs);
+        metrics.recordExecution("DELETE FROM " + table + (whereClause != null ? " WHERE " + whereClause : ""),
+            System.nanoTime() - start, rows);
+        return rows;
+    }
+
+    @Override
+    public int update(@NonNull String table, int conflictAlgorithm, @NonNull ContentValues values,
+                      @Nullable String whereClause, @Nullable Object[] whereArgs) {
+        long start = System.nanoTime();
+        int rows = delegate.update(table, conflictAlgorithm, values, whereClause, whereArgs);
+        metrics.recordExecution("UPDATE " + table + (whereClause != null ? " WHERE " + whereClause : ""),
+            System.nanoTime() - start, rows);
+        return rows;
+    }
+
+    // Delegación directa
+
+    @Override
+    public void beginTransaction() {
+        delegate.beginTransaction();
+    }
+
+    @Override
+    public void beginTransactionNonExclusive() {
+        delegate.beginTransactionNonExclusive();
+    }
+
+    @Override
+    public void beginTransactionWithListener(@NonNull SQLiteTransactionListener transactionListener) {
+        delegate.beginTransactionWithListener(transactionListener);
+    }
+
+    @Override
+    public void beginTransactionWithListenerNonExclusive(@NonNull SQLiteTransactionListener transactionListener) {
+        delegate.beginTransactionWithListenerNonExclusive(transactionListener);
+    }
+
+    @Override
+    public void endTransaction() {
+        delegate.endTransaction();
+    }
+
+    @Override
+    public void setTransactionSuccessful() {
+        delegate.setTransactionSuccessful();
+    }
+
+    @Override
+    public boolean inTransaction() {
+        return delegate.inTransaction();
+    }
+
+    @Override
+    public boolean isDbLockedByCurrentThread() {
+        return delegate.isDbLockedByCurrentThread();
+    }
+
+    @Override
+    public boolean yieldIfContendedSafely() {
+        return delegate.yieldIfContendedSafely();
+    }
+
+    @Override
+    public boolean yieldIfContendedSafely(long sleepAfterYieldDelayMillis) {
+        return delegate.yieldIfContendedSafely(sleepAfterYieldDelayMillis);
+    }
+
+    @Override
+    public boolean isExecPerConnectionSQLSupported() {
+        return delegate.isExecPerConnectionSQLSupported();
+    }
+
+    @Override
+    public void execPerConnectionSQL(@NonNull String sql, @Nullable Object[] bindArgs) {
+        delegate.execPerConnectionSQL(sql, bindArgs);
+    }
+
+    @Override
+    public int getVersion() {
+        return delegate.getVersion();
+    }
+
+    @Override
+    public void setVersion(int version) {
+        delegate.setVersion(version);
+    }
+
+    @Override
+    public long getMaximumSize() {
+        return delegate.getMaximumSize();
+    }
+
+    @Override
+    public long setMaximumSize(long numBytes) {
+        return delegate.setMaximumSize(numBytes);
+    }
+
+    @Override
+    public long getPageSize() {
+        return delegate.getPageSize();
+    }
+
+    @Override
+    public void setPageSize(long numBytes) {
+        delegate.setPageSize(numBytes);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return delegate.isReadOnly();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return delegate.isOpen();
+    }
+
+    @Override
+    public boolean needUpgrade(int newVersion) {
+        return delegate.needUpgrade(newVersion);
+    }
+
+    @Nullable
+    @Override
+    public String getPath() {
+        return delegate.getPath();
+    }
+
+    @Override
+    public void setLocale(@NonNull Locale locale) {
+        delegate.setLocale(locale);
+    }
+
+    @Override
+    public void setMaxSqlCacheSize(int cacheSize) {
+        delegate.setMaxSqlCacheSize(cacheSize);
+    }
+
+    @Override
+    public void setForeignKeyConstraintsEnabled(boolean enabled) {
+        delegate.setForeignKeyConstraintsEnabled(enabled);
+    }
+
+    @Override
+    public boolean enableWriteAheadLogging() {
+        return delegate.enableWriteAheadLogging();
+    }
+
+    @Override
+    public void disableWriteAheadLogging() {
+        delegate.disableWriteAheadLogging();
+    }
+
+    @Override
+    public boolean isWriteAheadLoggingEnabled() {
+        return delegate.isWriteAheadLoggingEnabled();
+    }
+
+    @Nullable
+    @Override
+    public List<Pair<String, String>> getAttachedDbs() {
+        return delegate.getAttachedDbs();
+    }
+
+    @Override
+    public boolean isDatabaseIntegrityOk() {
+        return delegate.isDatabaseIntegrityOk();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    // Registra la consulta al cerrarse el cursor
+    private final class TimedCursor extends CursorWrapper {
+        private final String sql;
+        private final long start;
+        private boolean recorded;
+
+        TimedCursor(Cursor cursor, String sql, long start) {
+            super(cursor);
+            this.sql = sql;
+            this.start = start;
+        }
+
+        @Override
+        public void close() {
+            if (!recorded) {
+                recorded = true;
+                int rows = isClosed() ? 0 : getCount();
+                metrics.recordExecution(sql, System.nanoTime() - start, rows);
+            }
+            super.close();
+        }
+    }
+
+    // Registra cada ejecución de una sentencia compilada (INSERT/UPDATE/DELETE de Room)
+    private final class TimedStatement implements SupportSQLiteStatement {
+        private final SupportSQLiteStatement delegate;
+        private final String sql;
+
+        TimedStatement(SupportSQLiteStatement delegate, String sql) {
+            this.delegate = delegate;
+            this.sql = sql;
+        }
+
+        @Override
+        public void execute() {
+            long start = System.nanoTime();
+            delegate.execute();
+            metrics.recordExecution(sql, System.nanoTime() - start, 0);
+        }
+
+        @Override
+        public int executeUpdateDelete() {
+            long start = System.nanoTime();
+            int rows = delegate.executeUpdateDelete();
+            metrics.recordExecution(sql, System.nanoTime() - start, rows);
+            return rows;
+        }
+
+        @Override
+        public long executeInsert() {
+            long start = System.nanoTime();
+            long id = delegate.executeInsert();
+            metrics.recordExecution(sql, System.nanoTime() - start, id != -1 ? 1 : 0);
+            return id;
+        }
+
+        @Override
+        public long simpleQueryForLong() {
+            long start = System.nanoTime();
+            long value = delegate.simpleQueryForLong();
+            metrics.recordExecution(sql, System.nanoTime() - start, 1);
+            return value;
+        }
+
+        @Nullable
+        @Override
+        public String simpleQueryForString() {
+            long start = System.nanoTime();
+            String value = delegate.simpleQueryForString();
+            metrics.recordExecution(sql, System.nanoTime() - start, 1);
+            return value;
+        }
+
+        @Override
+        public void bindNull(int index) {
+            delegate.bindNull(index);
+        }
+
+        @Override
+        public void bindLong(int index, long value) {
+            delegate.bindLong(index, value);
+        }
+
+        @Override
+        public void bindDouble(int index, double value) {
+            delegate.bindDouble(index, value);
+        }
+
+        @Override
+        public void bindString(int index, @NonNull String value) {
+            delegate.bindString(index, value);
+        }
+
+        @Override
+        public void bindBlob(int index, @NonNull byte[] value) {
+            delegate.bindBlob(index, value);
+        }
+
+        @Override
+        public void clearBindings() {
+            delegate.clearBindings();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.pitstop.database.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteOpenHelper;
+
+/**
+ * Envuelve otra factory para que cada base abierta pase por {@link InstrumentedDatabase},
+ * que mide latencia y filas de cada consulta y sentencia en {@link QueryMetrics}.
+ */
+public class InstrumentedOpenHelperFactory implements SupportSQLiteOpenHelper.Factory {
+    private final SupportSQLiteOpenHelper.Factory delegate;
+    private final QueryMetrics metrics;
+
+    public InstrumentedOpenHelperFactory(SupportSQLiteOpenHelper.Factory delegate, QueryMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @NonNull
+    @Override
+    public SupportSQLiteOpenHelper create(@NonNull SupportSQLiteOpenHelper.Configuration configuration) {
+        return new InstrumentedOpenHelper(delegate.create(configuration), metrics);
+    }
+
+    private static final class InstrumentedOpenHelper implements SupportSQLiteOpenHelper {
+        private final SupportSQLiteOpenHelper delegate;
+        private final QueryMetrics metrics;
+        private InstrumentedDatabase writable;
+        private InstrumentedDatabase readable;
+
+        InstrumentedOpenHelper(SupportSQLiteOpenHelper delegate, QueryMetrics metrics) {
+            this.delegate = delegate;
+            this.metrics = metrics;
+        }
+
+        @Nullable
+        @Override
+        public String getDatabaseName() {
+            return delegate.getDatabaseName();
+        }
+
+        @Override
+        public void setWriteAheadLoggingEnabled(boolean enabled) {
+            delegate.setWriteAheadLoggingEnabled(enabled);
+        }
+
+        // Reutiliza el envoltorio mientras el delegate devuelva la misma instancia
+        @NonNull
+        @Override
+        public synchronized SupportSQLiteDatabase getWritableDatabase() {
+            SupportSQLiteDatabase database = delegate.getWritableDatabase();
+            if (writable == null || !writable.wraps(database)) {
+                writable = new InstrumentedDatabase(database, metrics);
+            }
+            return writable;
+        }
+
+        @NonNull
+        @Override
+        public synchronized SupportSQLiteDatabase getReadableDatabase() {
+            SupportSQLiteDatabase database = delegate.getReadableDatabase();
+            if (readable == null || !readable.wraps(database)) {
+                readable = new InstrumentedDatabase(database, metrics);
+            }
+            return readable;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.pitstop.database.metrics;
+
+import androidx.annotation.NonNull;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro en memoria de métricas por sentencia SQL.
+ * - Llamadas: las reporta el `QueryCallback` de Room (incluye BEGIN/COMMIT de transacciones).
+ * - Latencia y filas: las mide {@link InstrumentedOpenHelperFactory} al cerrar cada cursor
+ *   o al ejecutar cada sentencia compilada.
+ * Las sentencias de Room usan `?` para los parámetros, así que el texto SQL ya agrupa por consulta.
+ * Los percentiles salen de las últimas {@link #SAMPLE_SIZE} muestras de cada sentencia.
+ */
+public final class QueryMetrics {
+    static final int SAMPLE_SIZE = 512;
+    // Evita crecer sin límite con SQL dinámico (p. ej. migraciones con literales)
+    static final int MAX_STATEMENTS = 256;
+
+    private static final QueryMetrics INSTANCE = new QueryMetrics();
+
+    private final Map<String, StatementMetrics> statements = new ConcurrentHashMap<>();
+
+    private QueryMetrics() {}
+
+    public static QueryMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    // Una llamada reportada por Room (antes de ejecutarse)
+    public void recordCall(String sql) {
+        StatementMetrics metrics = metricsFor(sql);
+        if (metrics != null) {
+            metrics.recordCall();
+        }
+    }
+
+    // Una ejecución completa con su duración y filas devueltas/afectadas
+    public void recordExecution(String sql, long nanos, int rows) {
+        StatementMetrics metrics = metricsFor(sql);
+        if (metrics != null) {
+            metrics.recordExecution(nanos, rows);
+        }
+    }
+
+    // Sentencias ordenadas por tiempo total (donde más se gasta primero)
+    public List<Snapshot> snapshot() {
+        List<Snapshot> snapshots = new ArrayList<>(statements.size());
+        for (Map.Entry<String, StatementMetrics> entry : statements.entrySet()) {
+            snapshots.add(entry.getValue().snapshot(entry.getKey()));
+        }
+        Collections.sort(snapshots, (a, b) -> Long.compare(b.totalNanos, a.totalNanos));
+        return snapshots;
+    }
+
+    public String toJson() throws JSONException {
+        JSONArray array = new JSONArray();
+        for (Snapshot snapshot : snapshot()) {
+            array.put(snapshot.toJson());
+        }
+        JSONObject root = new JSONObject();
+        root.put("generatedAt", System.currentTimeMillis());
+        root.put("statements", array);
+        return root.toString(2);
+    }
+
+    public void reset() {
+        statements.clear();
+    }
+
+    private StatementMetrics metricsFor(String sql) {
+        StatementMetrics metrics = statements.get(sql);
+        if (metrics == null) {
+            if (statements.size() >= MAX_STATEMENTS) {
+                return null;
+            }
+            metrics = statements.computeIfAbsent(sql, key -> new StatementMetrics());
+        }
+        return metrics;
+    }
+
+    private static final class StatementMetrics {
+        private final long[] samples = new long[SAMPLE_SIZE];
+        private int sampleCount;
+        private int nextSample;
+        private long calls;
+        private long executions;
+        private long rows;
+        private long totalNanos;
+        private long maxNanos;
+
+        synchronized void recordCall() {
+            calls++;
+        }
+
+        synchronized void recordExecution(long nanos, int rowCount) {
+            executions++;
+            rows += Math.max(0, rowCount);
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            samples[nextSample] = nanos;
+            nextSample = (nextSample + 1) % SAMPLE_SIZE;
+            sampleCount = Math.min(sampleCount + 1, SAMPLE_SIZE);
+        }
+
+        synchronized Snapshot snapshot(String sql) {
+            long[] sorted = Arrays.copyOf(samples, sampleCount);
+            Arrays.sort(sorted);
+            return new Snapshot(sql, calls, executions, rows, totalNanos, maxNanos,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99));
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+    }
+
+    /**
+     * Métricas de una sentencia en un instante dado. Los tiempos están en nanosegundos.
+     */
+    public static final class Snapshot {
+        public final String sql;
+        public final long calls;
+        public final long executions;
+        public final long rows;
+        public final long totalNanos;
+        public final long maxNanos;
+        public final long p50Nanos;
+        public final long p95Nanos;
+        public final long p99Nanos;
+
+        Snapshot(String sql, long calls, long executions, long rows, long totalNanos, long maxNanos,
+                 long p50Nanos, long p95Nanos, long p99Nanos) {
+            this.sql = sql;
+            this.calls = calls;
+            this.executions = executions;
+            this.rows = rows;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.p50Nanos = p50Nanos;
+            this.p95Nanos = p95Nanos;
+            this.p99Nanos = p99Nanos;
+        }
+
+        JSONObject toJson() throws JSONException {
+            JSONObject json = new JSONObject();
+            json.put("sql", sql);
+            json.put("calls", calls);
+            json.put("executions", executions);
+            json.put("rows", rows);
+            json.put("totalMs", totalNanos / 1e6);
+            json.put("p50Ms", p50Nanos / 1e6);
+            json.put("p95Ms", p95Nanos / 1e6);
+            json.put("p99Ms", p99Nanos / 1e6);
+            json.put("maxMs", maxNanos / 1e6);
+            return json;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.pitstop.model;
+
+import com.example.pitstop.database.entity.Maintenance;
+import com.example.pitstop.database.entity.Vehicle;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Estado completo del Dashboard: vehículo seleccionado, km actual y las listas de
+ * próximos y últimos mantenimientos, ya formateadas para ese km.
+ * Inmutable; dos estados son iguales si la pantalla mostraría exactamente lo mismo,
+ * así se puede descartar una emisión que no cambia nada.
+ */
+public final class DashboardState {
+    private final int vehicleId;
+    private final String vehicleName;
+    private final String vehicleDetails;
+    private final int currentKm;
+    private final String currentKmText;
+    private final List<MaintenanceRowModel> upcomingRows;
+    private final List<MaintenanceRowModel> recentRows;
+
+    private DashboardState(int vehicleId, String vehicleName, String vehicleDetails, int currentKm,
+                           List<MaintenanceRowModel> upcomingRows, List<MaintenanceRowModel> recentRows) {
+        this.vehicleId = vehicleId;
+        this.vehicleName = vehicleName;
+        this.vehicleDetails = vehicleDetails;
+        this.currentKm = currentKm;
+        this.currentKmText = DisplayFormatters.current().formatKm(currentKm);
+        this.upcomingRows = Collections.unmodifiableList(upcomingRows);
+        this.recentRows = Collections.unmodifiableList(recentRows);
+    }
+
+    // `vehicle` puede ser null (sin vehículo seleccionado)
+    public static DashboardState of(Vehicle vehicle, int currentKm,
+                                    List<Maintenance> upcoming, List<Maintenance> recent) {
+        List<MaintenanceRowModel> upcomingRows = MaintenanceRowModel.fromList(upcoming, currentKm, upcoming.size());
+        List<MaintenanceRowModel> recentRows = MaintenanceRowModel.fromList(recent, currentKm, recent.size());
+        if (vehicle == null) {
+            return new DashboardState(0, "Sin vehículo", "Agrega un vehículo para comenzar", currentKm,
+                upcomingRows, recentRows);
+        }
+        return new DashboardState(vehicle.getId(), vehicle.getDisplayName(), vehicle.getFullName(), currentKm,
+            upcomingRows, recentRows);
+    }
+
+    public boolean hasVehicle() {
+        return vehicleId != 0;
+    }
+
+    public String getVehicleName() {
+        return vehicleName;
+    }
+
+    public String getVehicleDetails() {
+        return vehicleDetails;
+    }
+
+    public int getCurrentKm() {
+        return currentKm;
+    }
+
+    public String getCurrentKmText() {
+        return currentKmText;
+    }
+
+    public List<MaintenanceRowModel> getUpcomingRows() {
+        return upcomingRows;
+    }
+
+    public List<MaintenanceRowModel> getRecentRows() {
+        return recentRows;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DashboardState)) return false;
+        DashboardState other = (DashboardState) o;
+        return vehicleId == other.vehicleId
+            && currentKm == other.currentKm
+            && Objects.equals(vehicleName, other.vehicleName)
+            && Objects.equals(vehicleDetails, other.vehicleDetails)
+            && sameRows(upcomingRows, other.upcomingRows)
+            && sameRows(recentRows, other.recentRows);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(vehicleId, currentKm, vehicleName, upcomingRows.size(), recentRows.size());
+    }
+
+    private static boolean sameRows(List<MaintenanceRowModel> a, List<MaintenanceRowModel> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            MaintenanceRowModel left = a.get(i);
+            MaintenanceRowModel right = b.get(i);
+            if (left.getId() != right.getId() || !left.sameStaticContent(right) || !left.sameRemaining(right)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.pitstop.model;
+
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Formateadores de km, fechas y costos reutilizables.
+ * `NumberFormat` y `SimpleDateFormat` son caros de crear y no son thread-safe, por eso se
+ * guarda una instancia por hilo y se recrea solo si cambia el locale del sistema.
+ */
+public final class DisplayFormatters {
+    private static final ThreadLocal<DisplayFormatters> CACHE = new ThreadLocal<>();
+
+    private final Locale locale;
+    private final NumberFormat numberFormat;
+    private final SimpleDateFormat dateFormat;
+    private final Date date = new Date();
+
+    private DisplayFormatters(Locale locale) {
+        this.locale = locale;
+        this.numberFormat = NumberFormat.getNumberInstance(locale);
+        this.dateFormat = new SimpleDateFormat("dd/MM/yyyy", locale);
+    }
+
+    // Formateadores del hilo actual para el locale vigente
+    public static DisplayFormatters current() {
+        Locale locale = Locale.getDefault();
+        DisplayFormatters formatters = CACHE.get();
+        if (formatters == null || !formatters.locale.equals(locale)) {
+            formatters = new DisplayFormatters(locale);
+            CACHE.set(formatters);
+        }
+        return formatters;
+    }
+
+    public String formatNumber(long value) {
+        return numberFormat.format(value);
+    }
+
+    public String formatKm(long km) {
+        return numberFormat.format(km) + " km";
+    }
+
+    // Fecha dd/MM/yyyy
+    public String formatDate(long millis) {
+        date.setTime(millis);
+        return dateFormat.format(date);
+    }
+
+    public String formatCost(Double cost) {
+        if (cost == null) {
+            return "N/A";
+        }
+        return "$" + String.format(locale, "%.2f", cost);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.pitstop.model;
+
+import androidx.room.Embedded;
+
+import com.example.pitstop.database.entity.Maintenance;
+
+/**
+ * Resultado de consulta: un mantenimiento junto a los km que faltan para su próximo servicio,
+ * leídos de la tabla derivada `maintenance_due`.
+ */
+public class DueMaintenance {
+    @Embedded
+    private Maintenance maintenance;
+    private int remainingKm;
+
+    public Maintenance getMaintenance() {
+        return maintenance;
+    }
+
+    public void setMaintenance(Maintenance maintenance) {
+        this.maintenance = maintenance;
+    }
+
+    public int getRemainingKm() {
+        return remainingKm;
+    }
+
+    public void setRemainingKm(int remainingKm) {
+        this.remainingKm = remainingKm;
+    }
+}
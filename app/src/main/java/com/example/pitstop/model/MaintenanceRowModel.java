@@ -0,0 +1,148 @@
+package com.example.pitstop.model;
+
+import com.example.pitstop.database.entity.Maintenance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Datos de presentación de un mantenimiento, ya formateados para un km actual dado.
+ * Se construye fuera del hilo principal; los adapters solo asignan estos textos al enlazar.
+ * Inmutable: un cambio de km produce un nuevo modelo.
+ */
+public final class MaintenanceRowModel {
+
+    /**
+     * Estado del próximo servicio respecto del km actual.
+     */
+    public enum RemainingState {
+        PENDING,  // aún faltan km
+        OVERDUE,  // servicio ejecutado antes y ya vencido
+        READY     // nunca ejecutado y ya alcanzó el objetivo
+    }
+
+    private final Maintenance maintenance;
+    private final String typeText;
+    private final int typeColor;
+    private final String dateText;
+    private final String descriptionText;
+    private final String executedKmText;
+    private final String costText;
+    private final String serviceTargetText;
+    private final String remainingText;
+    private final String nextServiceInfoText;
+    private final RemainingState remainingState;
+
+    private MaintenanceRowModel(Maintenance maintenance, int currentKm, DisplayFormatters formatters) {
+        this.maintenance = maintenance;
+        this.typeText = maintenance.getType();
+        this.typeColor = maintenance.getTypeCode().getColor();
+        this.dateText = formatters.formatDate(maintenance.getDate());
+        this.descriptionText = maintenance.getDescription();
+        this.executedKmText = formatters.formatKm(maintenance.getExecutedKm());
+        this.costText = formatters.formatCost(maintenance.getCost());
+
+        // Si ya se ejecutó, el objetivo es el próximo servicio; si no, la periodicidad
+        boolean executed = maintenance.getExecutedKm() > 0;
+        int targetKm = executed ? maintenance.getNextServiceKm() : maintenance.getPeriodicityKm();
+        int remaining = targetKm - currentKm;
+        String targetLabel = executed ? "Próximo: " : "Objetivo: ";
+        String targetKmText = formatters.formatKm(targetKm);
+
+        this.serviceTargetText = targetLabel + targetKmText;
+        if (remaining > 0) {
+            this.remainingState = RemainingState.PENDING;
+            this.remainingText = "Faltan " + formatters.formatKm(remaining);
+            this.nextServiceInfoText = serviceTargetText + " (" + remainingText + ")";
+        } else if (executed) {
+            this.remainingState = RemainingState.OVERDUE;
+            this.remainingText = "¡Vencido!";
+            this.nextServiceInfoText = remainingText + " (" + serviceTargetText + ")";
+        } else {
+            this.remainingState = RemainingState.READY;
+            this.remainingText = "¡Listo para hacer!";
+            this.nextServiceInfoText = remainingText + " (" + serviceTargetText + ")";
+        }
+    }
+
+    public static MaintenanceRowModel from(Maintenance maintenance, int currentKm) {
+        return new MaintenanceRowModel(maintenance, currentKm, DisplayFormatters.current());
+    }
+
+    // Convierte hasta `limit` elementos (limit < 0 = todos)
+    public static List<MaintenanceRowModel> fromList(List<Maintenance> maintenances, int currentKm, int limit) {
+        int size = limit >= 0 ? Math.min(limit, maintenances.size()) : maintenances.size();
+        DisplayFormatters formatters = DisplayFormatters.current();
+        List<MaintenanceRowModel> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rows.add(new MaintenanceRowModel(maintenances.get(i), currentKm, formatters));
+        }
+        return rows;
+    }
+
+    public Maintenance getMaintenance() {
+        return maintenance;
+    }
+
+    public int getId() {
+        return maintenance.getId();
+    }
+
+    public String getTypeText() {
+        return typeText;
+    }
+
+    public int getTypeColor() {
+        return typeColor;
+    }
+
+    public String getDateText() {
+        return dateText;
+    }
+
+    public String getDescriptionText() {
+        return descriptionText;
+    }
+
+    public String getExecutedKmText() {
+        return executedKmText;
+    }
+
+    public String getCostText() {
+        return costText;
+    }
+
+    public String getServiceTargetText() {
+        return serviceTargetText;
+    }
+
+    public String getRemainingText() {
+        return remainingText;
+    }
+
+    public String getNextServiceInfoText() {
+        return nextServiceInfoText;
+    }
+
+    public RemainingState getRemainingState() {
+        return remainingState;
+    }
+
+    // Compara los textos que no dependen del km actual
+    public boolean sameStaticContent(MaintenanceRowModel other) {
+        return typeColor == other.typeColor
+            && Objects.equals(typeText, other.typeText)
+            && Objects.equals(dateText, other.dateText)
+            && Objects.equals(descriptionText, other.descriptionText)
+            && Objects.equals(executedKmText, other.executedKmText)
+            && Objects.equals(costText, other.costText)
+            && Objects.equals(serviceTargetText, other.serviceTargetText);
+    }
+
+    // Compara los textos que dependen del km actual
+    public boolean sameRemaining(MaintenanceRowModel other) {
+        return remainingState == other.remainingState
+            && Objects.equals(remainingText, other.remainingText);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.pitstop.model;
+
+import androidx.room.Embedded;
+
+import com.example.pitstop.database.entity.Maintenance;
+
+/**
+ * Resultado de búsqueda de texto completo: el mantenimiento y el `matchinfo` de FTS4
+ * con el que se calcula su relevancia.
+ */
+public class MaintenanceSearchResult {
+    @Embedded
+    private Maintenance maintenance;
+    private byte[] matchInfo;
+
+    public Maintenance getMaintenance() {
+        return maintenance;
+    }
+
+    public void setMaintenance(Maintenance maintenance) {
+        this.maintenance = maintenance;
+    }
+
+    public byte[] getMatchInfo() {
+        return matchInfo;
+    }
+
+    public void setMatchInfo(byte[] matchInfo) {
+        this.matchInfo = matchInfo;
+    }
+}
@@ -2,26 +2,36 @@ package com.example.pitstop.model;
 
 import android.graphics.Color;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public enum MaintenanceType {
-    OIL_CHANGE("Cambio de Aceite", Color.parseColor("#FF6B6B")),
-    TIRE_ROTATION("Rotación de Neumáticos", Color.parseColor("#4ECDC4")),
-    BRAKE_CHECK("Revisión de Frenos", Color.parseColor("#45B7D1")),
-    FILTER_CHANGE("Cambio de Filtros", Color.parseColor("#96CEB4")),
-    TIRE_CHANGE("Cambio de Neumáticos", Color.parseColor("#FFEAA7")),
-    ENGINE_CHECK("Revisión de Motor", Color.parseColor("#DDA0DD")),
-    TRANSMISSION("Transmisión", Color.parseColor("#98D8C8")),
-    COOLING_SYSTEM("Sistema de Refrigeración", Color.parseColor("#F7DC6F")),
-    ELECTRICAL("Sistema Eléctrico", Color.parseColor("#BB8FCE")),
-    OTHER("Otro", Color.parseColor("#85C1E9"));
+    // El código se guarda en la base (columna `typeCode`): no reutilizar ni cambiar valores existentes
+    OIL_CHANGE(1, "Cambio de Aceite", Color.parseColor("#FF6B6B")),
+    TIRE_ROTATION(2, "Rotación de Neumáticos", Color.parseColor("#4ECDC4")),
+    BRAKE_CHECK(3, "Revisión de Frenos", Color.parseColor("#45B7D1")),
+    FILTER_CHANGE(4, "Cambio de Filtros", Color.parseColor("#96CEB4")),
+    TIRE_CHANGE(5, "Cambio de Neumáticos", Color.parseColor("#FFEAA7")),
+    ENGINE_CHECK(6, "Revisión de Motor", Color.parseColor("#DDA0DD")),
+    TRANSMISSION(7, "Transmisión", Color.parseColor("#98D8C8")),
+    COOLING_SYSTEM(8, "Sistema de Refrigeración", Color.parseColor("#F7DC6F")),
+    ELECTRICAL(9, "Sistema Eléctrico", Color.parseColor("#BB8FCE")),
+    OTHER(0, "Otro", Color.parseColor("#85C1E9"));
 
+    private final int code;
     private final String displayName;
     private final int color;
 
-    MaintenanceType(String displayName, int color) {
+    MaintenanceType(int code, String displayName, int color) {
+        this.code = code;
         this.displayName = displayName;
         this.color = color;
     }
 
+    public int getCode() {
+        return code;
+    }
+
     public String getDisplayName() {
         return displayName;
     }
@@ -30,12 +40,31 @@ public enum MaintenanceType {
         return color;
     }
 
-    public static MaintenanceType fromString(String type) {
-        for (MaintenanceType maintenanceType : values()) {
-            if (maintenanceType.displayName.equals(type)) {
-                return maintenanceType;
-            }
+    // Búsquedas por nombre visible (textos heredados) y por código sin recorrer values()
+    private static final Map<String, MaintenanceType> BY_DISPLAY_NAME = new HashMap<>();
+    private static final MaintenanceType[] BY_CODE;
+
+    static {
+        MaintenanceType[] types = values();
+        int maxCode = 0;
+        for (MaintenanceType maintenanceType : types) {
+            BY_DISPLAY_NAME.put(maintenanceType.displayName, maintenanceType);
+            maxCode = Math.max(maxCode, maintenanceType.code);
+        }
+        BY_CODE = new MaintenanceType[maxCode + 1];
+        for (MaintenanceType maintenanceType : types) {
+            BY_CODE[maintenanceType.code] = maintenanceType;
         }
-        return OTHER;
+    }
+
+    // Código desconocido (p. ej. de una versión más nueva) se trata como OTHER
+    public static MaintenanceType fromCode(int code) {
+        MaintenanceType maintenanceType = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        return maintenanceType != null ? maintenanceType : OTHER;
+    }
+
+    public static MaintenanceType fromString(String type) {
+        MaintenanceType maintenanceType = type != null ? BY_DISPLAY_NAME.get(type) : null;
+        return maintenanceType != null ? maintenanceType : OTHER;
     }
 }
@@ -0,0 +1,27 @@
+package com.example.pitstop.model;
+
+/**
+ * Km del vehículo antes y después de sumar un viaje al odómetro.
+ * Iguales cuando el viaje no completó un km (sus metros quedan acumulados en el vehículo).
+ */
+public final class OdometerChange {
+    private final int fromKm;
+    private final int toKm;
+
+    public OdometerChange(int fromKm, int toKm) {
+        this.fromKm = fromKm;
+        this.toKm = toKm;
+    }
+
+    public int getFromKm() {
+        return fromKm;
+    }
+
+    public int getToKm() {
+        return toKm;
+    }
+
+    public int getAddedKm() {
+        return toKm - fromKm;
+    }
+}
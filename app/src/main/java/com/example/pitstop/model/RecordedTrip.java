@@ -0,0 +1,42 @@
+package com.example.pitstop.model;
+
+import com.example.pitstop.trip.TrackBuffer;
+
+/**
+ * Viaje recién terminado por `TripTrackingService`, antes de guardarse como `Trip`.
+ * El recorrido viene completo (sin simplificar).
+ */
+public class RecordedTrip {
+    private final long startTime;
+    private final long endTime;
+    private final double distanceKm;
+    private final TrackBuffer track;
+
+    public RecordedTrip(long startTime, long endTime, double distanceKm, TrackBuffer track) {
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.distanceKm = distanceKm;
+        this.track = track;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    // Metros que suma al odómetro (los km enteros se completan con el resto de viajes anteriores)
+    public int getDistanceMeters() {
+        return (int) Math.round(distanceKm * 1000);
+    }
+
+    public TrackBuffer getTrack() {
+        return track;
+    }
+}
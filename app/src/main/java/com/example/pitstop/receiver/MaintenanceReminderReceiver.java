@@ -5,13 +5,11 @@ import android.content.Context;
 import android.content.Intent;
 import android.util.Log;
 
-import com.example.pitstop.service.MaintenanceNotificationService;
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseUser;
+import com.example.pitstop.service.ReminderScheduler;
 
 /**
  * Receiver para disparar recordatorios de mantenimiento (por alarmas o eventos del sistema).
- * Obtiene el usuario autenticado y delega la verificación al servicio de notificaciones.
+ * Delega la verificación a WorkManager, que la deduplica y reintenta si falla.
  */
 public class MaintenanceReminderReceiver extends BroadcastReceiver {
     private static final String TAG = "MaintenanceReminder";
@@ -19,11 +17,6 @@ public class MaintenanceReminderReceiver extends BroadcastReceiver {
     @Override
     public void onReceive(Context context, Intent intent) {
         Log.d(TAG, "MaintenanceReminderReceiver triggered");
-        
-        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
-        if (user != null) {
-            MaintenanceNotificationService notificationService = new MaintenanceNotificationService(context);
-            notificationService.checkMaintenanceReminders(user.getUid());
-        }
+        ReminderScheduler.checkNow(context);
     }
 }
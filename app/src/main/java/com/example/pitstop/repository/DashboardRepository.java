@@ -0,0 +1,66 @@
+package com.example.pitstop.repository;
+
+import android.app.Application;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Transformations;
+
+import com.example.pitstop.database.AppDatabase;
+import com.example.pitstop.database.dao.MaintenanceDao;
+import com.example.pitstop.database.dao.VehicleDao;
+import com.example.pitstop.database.dao.VehicleLogDao;
+import com.example.pitstop.database.entity.Maintenance;
+import com.example.pitstop.database.entity.Vehicle;
+import com.example.pitstop.database.entity.VehicleLog;
+import com.example.pitstop.model.DashboardState;
+
+import java.util.List;
+
+/**
+ * Repositorio del Dashboard.
+ * Arma el {@link DashboardState} completo con un solo lote de consultas cortas (LIMIT) en el
+ * executor de consultas de Room. El lote se repite una vez por invalidación de las tablas
+ * que lo alimentan (Room agrupa las invalidaciones que llegan mientras corre) y solo se
+ * emite si el estado resultante cambió.
+ */
+public class DashboardRepository {
+    private static final String[] TABLES = {"vehicles", "vehicle_logs", "maintenance", "maintenance_due"};
+
+    private AppDatabase database;
+    private VehicleDao vehicleDao;
+    private VehicleLogDao vehicleLogDao;
+    private MaintenanceDao maintenanceDao;
+
+    public DashboardRepository(Application application) {
+        database = AppDatabase.getInstance(application);
+        vehicleDao = database.vehicleDao();
+        vehicleLogDao = database.vehicleLogDao();
+        maintenanceDao = database.maintenanceDao();
+    }
+
+    // `limit` filas por lista (próximos y recientes)
+    public LiveData<DashboardState> getDashboardState(String userUid, int limit) {
+        LiveData<DashboardState> states = database.getInvalidationTracker()
+            .createLiveData(TABLES, false, () -> loadState(userUid, limit));
+        return Transformations.distinctUntilChanged(states);
+    }
+
+    // Corre en segundo plano; cada consulta usa su índice (ver QueryPlanTest)
+    private DashboardState loadState(String userUid, int limit) {
+        Vehicle vehicle = vehicleDao.getCurrentSelectedVehicleSync(userUid);
+        if (vehicle == null) {
+            // Sin vehículo seleccionado no hay km de referencia: últimos de todo el usuario
+            return DashboardState.of(null, 0,
+                maintenanceDao.getUpcomingMaintenanceSync(userUid, limit),
+                maintenanceDao.getRecentMaintenanceSync(userUid, limit));
+        }
+        // Todo se compara contra el km de este vehículo, así que solo se leen sus mantenimientos
+        int vehicleId = vehicle.getId();
+        // Si no hay logs para este vehículo, usar su currentKm
+        VehicleLog latestLog = vehicleLogDao.getLatestVehicleLogByVehicleSync(userUid, vehicleId);
+        int currentKm = latestLog != null ? latestLog.getCurrentKm() : vehicle.getCurrentKm();
+        List<Maintenance> upcoming = maintenanceDao.getUpcomingMaintenanceByVehicleSync(userUid, vehicleId, limit);
+        List<Maintenance> recent = maintenanceDao.getRecentMaintenanceByVehicleSync(userUid, vehicleId, limit);
+        return DashboardState.of(vehicle, currentKm, upcoming, recent);
+    }
+}
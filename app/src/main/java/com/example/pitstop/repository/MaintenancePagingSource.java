@@ -0,0 +1,163 @@
+package com.example.pitstop.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.ListenableFuturePagingSource;
+import androidx.paging.PagingState;
+import androidx.room.InvalidationTracker;
+
+import com.example.pitstop.database.AppDatabase;
+import com.example.pitstop.database.dao.MaintenanceDao;
+import com.example.pitstop.database.entity.Maintenance;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import kotlin.Unit;
+
+/**
+ * PagingSource del historial de mantenimientos con paginación keyset sobre (date, id).
+ * Cada página se pide a partir de la última fila cargada, así el costo por página no
+ * crece con la posición en el historial (a diferencia de LIMIT/OFFSET).
+ * Puede limitarse a un vehículo ({@link #ALL_VEHICLES} = todo el historial del usuario).
+ * Se invalida cuando cambia la tabla `maintenance`.
+ */
+public class MaintenancePagingSource extends ListenableFuturePagingSource<MaintenancePagingSource.Key, Maintenance> {
+    public static final int ALL_VEHICLES = -1;
+
+    /**
+     * Posición en el orden (date DESC, id DESC) de una fila del historial.
+     */
+    public static final class Key {
+        final long date;
+        final int id;
+
+        Key(long date, int id) {
+            this.date = date;
+            this.id = id;
+        }
+
+        static Key of(Maintenance maintenance) {
+            return new Key(maintenance.getDate(), maintenance.getId());
+        }
+    }
+
+    private final AppDatabase database;
+    private final MaintenanceDao maintenanceDao;
+    private final ListeningExecutorService executor;
+    private final String userUid;
+    private final int vehicleId;
+    private final AtomicBoolean observing = new AtomicBoolean(false);
+    private final InvalidationTracker.Observer observer = new InvalidationTracker.Observer("maintenance") {
+        @Override
+        public void onInvalidated(@NonNull Set<String> tables) {
+            invalidate();
+        }
+    };
+
+    public MaintenancePagingSource(AppDatabase database, ListeningExecutorService executor, String userUid,
+                                   int vehicleId) {
+        this.database = database;
+        this.maintenanceDao = database.maintenanceDao();
+        this.executor = executor;
+        this.userUid = userUid;
+        this.vehicleId = vehicleId;
+        registerInvalidatedCallback(() -> {
+            database.getInvalidationTracker().removeObserver(observer);
+            return Unit.INSTANCE;
+        });
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<LoadResult<Key, Maintenance>> loadFuture(@NonNull LoadParams<Key> params) {
+        return executor.submit(() -> {
+            try {
+                // El observer se registra en segundo plano: addObserver puede tocar la base
+                if (observing.compareAndSet(false, true)) {
+                    database.getInvalidationTracker().addObserver(observer);
+                }
+                return load(params);
+            } catch (Exception e) {
+                return new LoadResult.Error<>(e);
+            }
+        });
+    }
+
+    private LoadResult<Key, Maintenance> load(LoadParams<Key> params) {
+        Key key = params.getKey();
+        int limit = params.getLoadSize();
+
+        List<Maintenance> page;
+        if (params instanceof LoadParams.Prepend) {
+            page = pageBefore(key, limit);
+            Collections.reverse(page);
+        } else if (key == null) {
+            page = firstPage(limit);
+        } else if (params instanceof LoadParams.Append) {
+            page = pageAfter(key, limit);
+        } else {
+            // Refresh desde una fila concreta (inclusive)
+            page = pageFrom(key, limit);
+        }
+
+        if (page.isEmpty()) {
+            return new LoadResult.Page<>(page, null, null);
+        }
+        // Hacia atrás solo queda historial si no se partió del inicio o si la página previa vino llena
+        boolean hasPrev = params instanceof LoadParams.Prepend ? page.size() == limit : key != null;
+        boolean hasNext = params instanceof LoadParams.Prepend || page.size() == limit;
+        Key prevKey = hasPrev ? Key.of(page.get(0)) : null;
+        Key nextKey = hasNext ? Key.of(page.get(page.size() - 1)) : null;
+        return new LoadResult.Page<>(page, prevKey, nextKey);
+    }
+
+    private List<Maintenance> firstPage(int limit) {
+        return vehicleId == ALL_VEHICLES
+            ? maintenanceDao.getMaintenanceFirstPageSync(userUid, limit)
+            : maintenanceDao.getVehicleMaintenanceFirstPageSync(userUid, vehicleId, limit);
+    }
+
+    private List<Maintenance> pageFrom(Key key, int limit) {
+        return vehicleId == ALL_VEHICLES
+            ? maintenanceDao.getMaintenancePageFromSync(userUid, key.date, key.id, limit)
+            : maintenanceDao.getVehicleMaintenancePageFromSync(userUid, vehicleId, key.date, key.id, limit);
+    }
+
+    private List<Maintenance> pageAfter(Key key, int limit) {
+        return vehicleId == ALL_VEHICLES
+            ? maintenanceDao.getMaintenancePageAfterSync(userUid, key.date, key.id, limit)
+            : maintenanceDao.getVehicleMaintenancePageAfterSync(userUid, vehicleId, key.date, key.id, limit);
+    }
+
+    private List<Maintenance> pageBefore(Key key, int limit) {
+        return vehicleId == ALL_VEHICLES
+            ? maintenanceDao.getMaintenancePageBeforeSync(userUid, key.date, key.id, limit)
+            : maintenanceDao.getVehicleMaintenancePageBeforeSync(userUid, vehicleId, key.date, key.id, limit);
+    }
+
+    // Al refrescar, reanuda media página antes de la posición visible para no perder el scroll
+    @Nullable
+    @Override
+    public Key getRefreshKey(@NonNull PagingState<Key, Maintenance> state) {
+        Integer anchorPosition = state.getAnchorPosition();
+        if (anchorPosition == null) {
+            return null;
+        }
+        int target = anchorPosition - state.getConfig().pageSize / 2;
+        if (target <= 0) {
+            return null;
+        }
+        Maintenance item = state.closestItemToPosition(target);
+        return item != null ? Key.of(item) : null;
+    }
+
+    @Override
+    public boolean getJumpingSupported() {
+        return false;
+    }
+}
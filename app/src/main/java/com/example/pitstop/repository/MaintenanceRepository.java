@@ -4,27 +4,48 @@ import android.app.Application;
 import android.os.AsyncTask;
 
 import androidx.lifecycle.LiveData;
-
+import androidx.lifecycle.MediatorLiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+
+import com.example.pitstop.concurrent.AppExecutors;
 import com.example.pitstop.database.AppDatabase;
+import com.example.pitstop.database.BatchWriter;
+import com.example.pitstop.database.FtsQuery;
 import com.example.pitstop.database.dao.MaintenanceDao;
 import com.example.pitstop.database.entity.Maintenance;
+import com.example.pitstop.model.MaintenanceSearchResult;
+import com.example.pitstop.model.MaintenanceType;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Repositorio de mantenimientos.
- * Provee métodos reactivas y operaciones CRUD en hilos de fondo mediante Executor.
+ * Provee métodos reactivas y operaciones CRUD en hilos de fondo mediante `AppExecutors`.
  */
 public class MaintenanceRepository {
+    private static final int PAGE_SIZE = 30;
+    // Pesos de relevancia por columna del índice FTS: tipo, descripción, notas
+    private static final double[] SEARCH_COLUMN_WEIGHTS = {3.0, 2.0, 1.0};
+
+    private AppDatabase database;
     private MaintenanceDao maintenanceDao;
-    private ExecutorService executor;
+    private BatchWriter writer;
 
     public MaintenanceRepository(Application application) {
-        AppDatabase database = AppDatabase.getInstance(application);
+        database = AppDatabase.getInstance(application);
         maintenanceDao = database.maintenanceDao();
-        executor = Executors.newFixedThreadPool(2);
+        // Mutaciones agrupadas en transacciones por la cola de escritura compartida
+        writer = BatchWriter.getInstance(application);
     }
 
     // Consultas reactivas
@@ -32,41 +53,100 @@ public class MaintenanceRepository {
         return maintenanceDao.getAllMaintenanceByUser(userUid);
     }
 
+    // Historial paginado (keyset sobre date, id); solo mantiene en memoria las páginas visibles.
+    // `vehicleId` = MaintenancePagingSource.ALL_VEHICLES para todo el historial del usuario
+    public LiveData<PagingData<Maintenance>> getMaintenancePaged(String userUid, int vehicleId) {
+        ListeningExecutorService pagingExecutor = MoreExecutors.listeningDecorator(AppExecutors.getInstance().diskRead());
+        Pager<MaintenancePagingSource.Key, Maintenance> pager = new Pager<>(
+            new PagingConfig(PAGE_SIZE, PAGE_SIZE / 2, false),
+            () -> new MaintenancePagingSource(database, pagingExecutor, userUid, vehicleId)
+        );
+        return PagingLiveData.getLiveData(pager);
+    }
+
     public LiveData<Maintenance> getMaintenanceById(int id, String userUid) {
         return maintenanceDao.getMaintenanceById(id, userUid);
     }
 
-    public LiveData<List<Maintenance>> searchMaintenanceByType(String userUid, String searchQuery) {
-        return maintenanceDao.searchMaintenanceByType(userUid, searchQuery);
+    // Búsqueda de texto completo por prefijos en tipo, descripción y notas, ordenada por relevancia.
+    // `vehicleId` = MaintenancePagingSource.ALL_VEHICLES para buscar en todo el historial del usuario
+    public LiveData<List<Maintenance>> searchMaintenance(String userUid, int vehicleId, String searchQuery) {
+        String matchQuery = FtsQuery.toPrefixQuery(searchQuery);
+        if (matchQuery.isEmpty()) {
+            return new MutableLiveData<>(Collections.emptyList());
+        }
+        LiveData<List<MaintenanceSearchResult>> matches = vehicleId == MaintenancePagingSource.ALL_VEHICLES
+            ? maintenanceDao.searchMaintenance(userUid, matchQuery)
+            : maintenanceDao.searchVehicleMaintenance(userUid, vehicleId, matchQuery);
+        // El ranking se calcula en el pool de lectura; un resultado que llega tarde se descarta
+        Executor executor = AppExecutors.getInstance().diskRead();
+        Executor mainThread = AppExecutors.getInstance().mainThread();
+        AtomicInteger generation = new AtomicInteger();
+        MediatorLiveData<List<Maintenance>> ranked = new MediatorLiveData<>();
+        ranked.addSource(matches, results -> {
+            int current = generation.incrementAndGet();
+            executor.execute(() -> {
+                List<Maintenance> list = rankResults(results);
+                mainThread.execute(() -> {
+                    if (generation.get() == current) {
+                        ranked.setValue(list);
+                    }
+                });
+            });
+        });
+        return ranked;
     }
 
-    public LiveData<List<Maintenance>> getMaintenanceByType(String userUid, String type) {
-        return maintenanceDao.getMaintenanceByType(userUid, type);
+    private static List<Maintenance> rankResults(List<MaintenanceSearchResult> results) {
+        int size = results.size();
+        double[] scores = new double[size];
+        List<Integer> order = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            scores[i] = FtsQuery.rank(results.get(i).getMatchInfo(), SEARCH_COLUMN_WEIGHTS);
+            order.add(i);
+        }
+        // Mayor relevancia primero; a igual relevancia, el más reciente
+        Collections.sort(order, (a, b) -> {
+            int byScore = Double.compare(scores[b], scores[a]);
+            if (byScore != 0) return byScore;
+            return Long.compare(results.get(b).getMaintenance().getDate(), results.get(a).getMaintenance().getDate());
+        });
+        List<Maintenance> ranked = new ArrayList<>(size);
+        for (int index : order) {
+            ranked.add(results.get(index).getMaintenance());
+        }
+        return ranked;
     }
 
-    public LiveData<List<Maintenance>> getUpcomingMaintenance(String userUid) {
-        return maintenanceDao.getUpcomingMaintenance(userUid);
+    public LiveData<List<Maintenance>> getMaintenanceByType(String userUid, int vehicleId, MaintenanceType type) {
+        return vehicleId == MaintenancePagingSource.ALL_VEHICLES
+            ? maintenanceDao.getMaintenanceByType(userUid, type)
+            : maintenanceDao.getVehicleMaintenanceByType(userUid, vehicleId, type);
     }
 
-    // Mutaciones en hilo de fondo
+    // Mutaciones en hilo de fondo (agrupadas en lotes por BatchWriter)
     public void insertMaintenance(Maintenance maintenance) {
-        executor.execute(() -> maintenanceDao.insertMaintenance(maintenance));
+        insertMaintenance(maintenance, null);
+    }
+
+    public void insertMaintenance(Maintenance maintenance, BatchWriter.Callback callback) {
+        writer.enqueue(() -> maintenanceDao.insertMaintenance(maintenance), callback);
     }
 
     public void updateMaintenance(Maintenance maintenance) {
-        executor.execute(() -> maintenanceDao.updateMaintenance(maintenance));
+        writer.enqueue(() -> maintenanceDao.updateMaintenance(maintenance));
     }
 
     public void deleteMaintenance(Maintenance maintenance) {
-        executor.execute(() -> maintenanceDao.deleteMaintenance(maintenance));
+        writer.enqueue(() -> maintenanceDao.deleteMaintenance(maintenance));
     }
 
     public void deleteMaintenanceById(int id) {
-        executor.execute(() -> maintenanceDao.deleteMaintenanceById(id));
+        writer.enqueue(() -> maintenanceDao.deleteMaintenanceById(id));
     }
 
     public void deleteAllMaintenanceByUser(String userUid) {
-        executor.execute(() -> maintenanceDao.deleteAllMaintenanceByUser(userUid));
+        writer.enqueue(() -> maintenanceDao.deleteAllMaintenanceByUser(userUid));
     }
 
     // Consultas síncronas (no usar en UI)
@@ -0,0 +1,70 @@
+package com.example.pitstop.repository;
+
+import android.app.Application;
+
+import androidx.annotation.Nullable;
+
+import com.example.pitstop.database.AppDatabase;
+import com.example.pitstop.database.BatchWriter;
+import com.example.pitstop.database.dao.TripDao;
+import com.example.pitstop.database.dao.VehicleLogDao;
+import com.example.pitstop.database.entity.Trip;
+import com.example.pitstop.model.OdometerChange;
+import com.example.pitstop.model.RecordedTrip;
+import com.example.pitstop.trip.TrackBuffer;
+import com.example.pitstop.trip.TrackCodec;
+import com.example.pitstop.trip.TrackSimplifier;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Repositorio de viajes GPS.
+ * El recorrido se simplifica (Douglas–Peucker) y se comprime antes de escribir;
+ * cada viaje se guarda junto con su suma al odómetro en una única operación de la cola
+ * de escritura compartida (que corre dentro de la transacción del lote).
+ */
+public class TripRepository {
+    private TripDao tripDao;
+    private VehicleLogDao vehicleLogDao;
+    private BatchWriter writer;
+
+    public TripRepository(Application application) {
+        AppDatabase database = AppDatabase.getInstance(application);
+        tripDao = database.tripDao();
+        vehicleLogDao = database.vehicleLogDao();
+        writer = BatchWriter.getInstance(application);
+    }
+
+    // Arma la fila del viaje con el recorrido simplificado y comprimido (CPU; no usar en UI).
+    // startKm/endKm los completa `finishTrip` con el odómetro de su transacción
+    public static Trip toTrip(String userUid, int vehicleId, RecordedTrip recorded) {
+        TrackBuffer simplified = TrackSimplifier.simplify(recorded.getTrack(), TrackSimplifier.DEFAULT_TOLERANCE_M);
+        return new Trip(
+            userUid,
+            vehicleId,
+            recorded.getStartTime(),
+            recorded.getEndTime(),
+            recorded.getDistanceKm(),
+            0,
+            0,
+            simplified.size(),
+            TrackCodec.encode(simplified)
+        );
+    }
+
+    // Cierra un viaje: suma `distanceMeters` al odómetro del vehículo (con el resto de viajes
+    // anteriores) y, si hay recorrido, guarda `trip` con startKm/endKm tomados de ese mismo cambio.
+    // El future entrega el cambio del odómetro una vez que hizo commit
+    public ListenableFuture<OdometerChange> finishTrip(String userUid, int vehicleId, int distanceMeters,
+                                                       @Nullable Trip trip) {
+        long date = System.currentTimeMillis();
+        return writer.submit(() -> {
+            OdometerChange change = vehicleLogDao.addTripDistance(userUid, vehicleId, distanceMeters, date);
+            if (trip != null) {
+                trip.setStartKm(change.getFromKm());
+                trip.setEndKm(change.getToKm());
+                tripDao.insertTrip(trip);
+            }
+            return change;
+        });
+    }
+}
@@ -5,24 +5,24 @@ import android.app.Application;
 import androidx.lifecycle.LiveData;
 
 import com.example.pitstop.database.AppDatabase;
+import com.example.pitstop.database.BatchWriter;
 import com.example.pitstop.database.dao.UserDao;
 import com.example.pitstop.database.entity.User;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Repositorio de usuarios.
- * Maneja acceso a `UserDao` y ejecuta mutaciones en un Executor dedicado.
+ * Maneja acceso a `UserDao` y ejecuta mutaciones en el executor de escritura compartido.
  */
 public class UserRepository {
     private UserDao userDao;
-    private ExecutorService executor;
+    private BatchWriter writer;
 
     public UserRepository(Application application) {
         AppDatabase database = AppDatabase.getInstance(application);
         userDao = database.userDao();
-        executor = Executors.newFixedThreadPool(2);
+        // Mutaciones agrupadas en transacciones por la cola de escritura compartida
+        writer = BatchWriter.getInstance(application);
     }
 
     public LiveData<User> getUserByUid(String uid) {
@@ -34,14 +34,20 @@ public class UserRepository {
     }
 
     public void insertUser(User user) {
-        executor.execute(() -> userDao.insertUser(user));
+        writer.enqueue(() -> userDao.insertUser(user));
+    }
+
+    // Crea el usuario local si aún no existe; al ir por la misma cola de escritura,
+    // las mutaciones encoladas después ya lo encuentran
+    public void ensureUserExists(User user) {
+        writer.enqueue(() -> userDao.insertUserIfAbsent(user));
     }
 
     public void updateUser(User user) {
-        executor.execute(() -> userDao.updateUser(user));
+        writer.enqueue(() -> userDao.updateUser(user));
     }
 
     public void deleteUser(String uid) {
-        executor.execute(() -> userDao.deleteUser(uid));
+        writer.enqueue(() -> userDao.deleteUser(uid));
     }
 }
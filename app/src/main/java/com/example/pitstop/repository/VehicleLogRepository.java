@@ -5,12 +5,12 @@ import android.app.Application;
 import androidx.lifecycle.LiveData;
 
 import com.example.pitstop.database.AppDatabase;
+import com.example.pitstop.database.BatchWriter;
 import com.example.pitstop.database.dao.VehicleLogDao;
 import com.example.pitstop.database.entity.VehicleLog;
+import com.google.common.util.concurrent.ListenableFuture;
 
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Repositorio de logs de vehículo (kilometraje).
@@ -18,12 +18,13 @@ import java.util.concurrent.Executors;
  */
 public class VehicleLogRepository {
     private VehicleLogDao vehicleLogDao;
-    private ExecutorService executor;
+    private BatchWriter writer;
 
     public VehicleLogRepository(Application application) {
         AppDatabase database = AppDatabase.getInstance(application);
         vehicleLogDao = database.vehicleLogDao();
-        executor = Executors.newFixedThreadPool(2);
+        // Mutaciones agrupadas en transacciones por la cola de escritura compartida
+        writer = BatchWriter.getInstance(application);
     }
 
     public LiveData<List<VehicleLog>> getAllVehicleLogsByUser(String userUid) {
@@ -51,25 +52,35 @@ public class VehicleLogRepository {
         return vehicleLogDao.getVehicleLogByIdSync(id);
     }
 
-    // Mutaciones en hilo de fondo
+    // Mutaciones en hilo de fondo (agrupadas en lotes por BatchWriter)
     public void insertVehicleLog(VehicleLog vehicleLog) {
-        executor.execute(() -> vehicleLogDao.insertVehicleLog(vehicleLog));
+        insertVehicleLog(vehicleLog, null);
+    }
+
+    public void insertVehicleLog(VehicleLog vehicleLog, BatchWriter.Callback callback) {
+        writer.enqueue(() -> vehicleLogDao.insertVehicleLog(vehicleLog), callback);
+    }
+
+    // Inserta el log y actualiza el km del vehículo de forma atómica.
+    // El future entrega el id del log una vez que la transacción hizo commit.
+    public ListenableFuture<Long> recordOdometerReading(VehicleLog vehicleLog) {
+        return writer.submit(() -> vehicleLogDao.recordOdometerReading(vehicleLog));
     }
 
     public void updateVehicleLog(VehicleLog vehicleLog) {
-        executor.execute(() -> vehicleLogDao.updateVehicleLog(vehicleLog));
+        writer.enqueue(() -> vehicleLogDao.updateVehicleLog(vehicleLog));
     }
 
     public void deleteVehicleLog(VehicleLog vehicleLog) {
-        executor.execute(() -> vehicleLogDao.deleteVehicleLog(vehicleLog));
+        writer.enqueue(() -> vehicleLogDao.deleteVehicleLog(vehicleLog));
     }
 
     public void deleteVehicleLogById(int id) {
-        executor.execute(() -> vehicleLogDao.deleteVehicleLogById(id));
+        writer.enqueue(() -> vehicleLogDao.deleteVehicleLogById(id));
     }
 
     public void deleteAllVehicleLogsByUser(String userUid) {
-        executor.execute(() -> vehicleLogDao.deleteAllVehicleLogsByUser(userUid));
+        writer.enqueue(() -> vehicleLogDao.deleteAllVehicleLogsByUser(userUid));
     }
 
     public LiveData<VehicleLog> getLatestVehicleLogByVehicle(String userUid, int vehicleId) {
@@ -5,12 +5,11 @@ import android.app.Application;
 import androidx.lifecycle.LiveData;
 
 import com.example.pitstop.database.AppDatabase;
+import com.example.pitstop.database.BatchWriter;
 import com.example.pitstop.database.dao.VehicleDao;
 import com.example.pitstop.database.entity.Vehicle;
 
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Repositorio de vehículos.
@@ -18,12 +17,13 @@ import java.util.concurrent.Executors;
  */
 public class VehicleRepository {
     private VehicleDao vehicleDao;
-    private ExecutorService executor;
+    private BatchWriter writer;
 
     public VehicleRepository(Application application) {
         AppDatabase database = AppDatabase.getInstance(application);
         vehicleDao = database.vehicleDao();
-        executor = Executors.newFixedThreadPool(2);
+        // Mutaciones agrupadas en transacciones por la cola de escritura compartida
+        writer = BatchWriter.getInstance(application);
     }
 
     // Consultas reactivas
@@ -51,10 +51,10 @@ public class VehicleRepository {
         return vehicleDao.getCurrentVehicleSync(userUid);
     }
 
-    // Mutaciones en hilo de fondo
+    // Mutaciones en hilo de fondo (agrupadas en lotes por BatchWriter)
     public void insertVehicle(Vehicle vehicle) {
         android.util.Log.d("VehicleRepository", "Ejecutando inserción de vehículo: " + vehicle.getName());
-        executor.execute(() -> {
+        writer.enqueue(() -> {
             try {
                 android.util.Log.d("VehicleRepository", "Llamando a vehicleDao.insertVehicle");
                 vehicleDao.insertVehicle(vehicle);
@@ -66,27 +66,31 @@ public class VehicleRepository {
     }
 
     public void updateVehicle(Vehicle vehicle) {
-        executor.execute(() -> vehicleDao.updateVehicle(vehicle));
+        writer.enqueue(() -> vehicleDao.updateVehicle(vehicle));
     }
 
     public void deleteVehicle(Vehicle vehicle) {
-        executor.execute(() -> vehicleDao.deleteVehicle(vehicle));
+        writer.enqueue(() -> vehicleDao.deleteVehicle(vehicle));
     }
 
     public void deleteVehicleById(int id) {
-        executor.execute(() -> vehicleDao.deleteVehicleById(id));
+        writer.enqueue(() -> vehicleDao.deleteVehicleById(id));
     }
 
     public void deactivateVehicle(int id) {
-        executor.execute(() -> vehicleDao.deactivateVehicle(id));
+        writer.enqueue(() -> vehicleDao.deactivateVehicle(id));
     }
 
     public void updateVehicleKm(int id, int currentKm) {
-        executor.execute(() -> vehicleDao.updateVehicleKm(id, currentKm));
+        updateVehicleKm(id, currentKm, null);
+    }
+
+    public void updateVehicleKm(int id, int currentKm, BatchWriter.Callback callback) {
+        writer.enqueue(() -> vehicleDao.updateVehicleKm(id, currentKm), callback);
     }
 
     public void setCurrentVehicle(int id, String userUid) {
-        executor.execute(() -> {
+        writer.enqueue(() -> {
             // Primero limpia el actual, luego marca el nuevo como actual
             vehicleDao.clearCurrentVehicle(userUid);
             vehicleDao.setCurrentVehicle(id, userUid);
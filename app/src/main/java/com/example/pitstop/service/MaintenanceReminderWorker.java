@@ -0,0 +1,70 @@
+package com.example.pitstop.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Data;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+
+/**
+ * Job de WorkManager que evalúa recordatorios de mantenimiento.
+ * - Con vehículo: toma el km de partida guardado en {@link PendingOdometerRange} y evalúa lo que se
+ *   cruzó desde ahí hasta el km actual del vehículo (leído al ejecutar). Lo borra al terminar, salvo
+ *   que haya llegado otra lectura mientras tanto. Sin nada guardado no hay nada que evaluar.
+ * - Sin datos de entrada: evalúa toda la ventana del vehículo seleccionado del usuario autenticado.
+ * Los errores se reintentan con el backoff configurado en {@link ReminderScheduler}.
+ */
+public class MaintenanceReminderWorker extends Worker {
+    private static final String TAG = "MaintenanceReminder";
+    private static final int MAX_ATTEMPTS = 3;
+
+    static final String KEY_USER_UID = "userUid";
+    static final String KEY_VEHICLE_ID = "vehicleId";
+    static final int NO_VEHICLE = -1;
+
+    public MaintenanceReminderWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Data input = getInputData();
+        String userUid = input.getString(KEY_USER_UID);
+        if (userUid == null) {
+            FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+            if (user == null) {
+                return Result.success();
+            }
+            userUid = user.getUid();
+        }
+
+        try {
+            MaintenanceNotificationService service = new MaintenanceNotificationService(getApplicationContext());
+            int vehicleId = input.getInt(KEY_VEHICLE_ID, NO_VEHICLE);
+            int notified;
+            if (vehicleId == NO_VEHICLE) {
+                notified = service.checkMaintenanceRemindersSync(userUid);
+            } else {
+                PendingOdometerRange pending = new PendingOdometerRange(getApplicationContext());
+                PendingOdometerRange.Snapshot snapshot = pending.peek(vehicleId);
+                if (snapshot == null) {
+                    return Result.success();
+                }
+                notified = service.evaluateOdometerChangeSync(userUid, vehicleId, snapshot.fromKm);
+                // Si falla antes de esto, el reintento encuentra el mismo km de partida
+                pending.clearIfUnchanged(vehicleId, snapshot);
+            }
+            Log.d(TAG, "Recordatorios enviados: " + notified);
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Error al evaluar recordatorios (intento " + (getRunAttemptCount() + 1) + ")", e);
+            return getRunAttemptCount() + 1 < MAX_ATTEMPTS ? Result.retry() : Result.failure();
+        }
+    }
+}
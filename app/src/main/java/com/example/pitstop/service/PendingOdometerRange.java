@@ -0,0 +1,71 @@
+package com.example.pitstop.service;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Km de partida pendiente de evaluar por vehículo (SharedPreferences), compartido entre
+ * {@link ReminderScheduler} y {@link MaintenanceReminderWorker}.
+ * Una ráfaga de lecturas guarda el menor km de partida; el trabajo que evalúa lo toma y lo borra
+ * solo si nadie agregó otra lectura mientras tanto (versión por vehículo). Reevaluar un rango
+ * ya reclamado no avisa de nuevo, así que dejarlo cuando hay dudas es seguro.
+ */
+final class PendingOdometerRange {
+    private static final String PREFS_NAME = "pending_odometer_range";
+    private static final String KEY_FROM_KM = "fromKm_";
+    private static final String KEY_VERSION = "version_";
+    // Las lecturas y escrituras de un vehículo se hacen de a una en todo el proceso
+    private static final Object LOCK = new Object();
+
+    /**
+     * Km de partida leído junto con la versión con la que se leyó.
+     */
+    static final class Snapshot {
+        final int fromKm;
+        final long version;
+
+        Snapshot(int fromKm, long version) {
+            this.fromKm = fromKm;
+            this.version = version;
+        }
+    }
+
+    private final SharedPreferences preferences;
+
+    PendingOdometerRange(Context context) {
+        this.preferences = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    // Agrega una lectura: queda el menor km de partida y la versión avanza
+    void merge(int vehicleId, int fromKm) {
+        synchronized (LOCK) {
+            String kmKey = KEY_FROM_KM + vehicleId;
+            int merged = preferences.contains(kmKey) ? Math.min(preferences.getInt(kmKey, fromKm), fromKm) : fromKm;
+            preferences.edit()
+                .putInt(kmKey, merged)
+                .putLong(KEY_VERSION + vehicleId, preferences.getLong(KEY_VERSION + vehicleId, 0) + 1)
+                .apply();
+        }
+    }
+
+    // null si no hay nada pendiente (otro trabajo ya lo evaluó)
+    @Nullable
+    Snapshot peek(int vehicleId) {
+        synchronized (LOCK) {
+            String kmKey = KEY_FROM_KM + vehicleId;
+            if (!preferences.contains(kmKey)) return null;
+            return new Snapshot(preferences.getInt(kmKey, 0), preferences.getLong(KEY_VERSION + vehicleId, 0));
+        }
+    }
+
+    // Borra lo pendiente si no cambió desde `snapshot`; si llegó otra lectura, queda para el siguiente trabajo
+    boolean clearIfUnchanged(int vehicleId, Snapshot snapshot) {
+        synchronized (LOCK) {
+            if (preferences.getLong(KEY_VERSION + vehicleId, 0) != snapshot.version) return false;
+            preferences.edit().remove(KEY_FROM_KM + vehicleId).apply();
+            return true;
+        }
+    }
+}
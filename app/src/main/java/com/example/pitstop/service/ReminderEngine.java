@@ -0,0 +1,49 @@
+package com.example.pitstop.service;
+
+import com.example.pitstop.database.dao.ReminderDao;
+import com.example.pitstop.model.DueMaintenance;
+
+import java.util.List;
+
+/**
+ * Motor incremental de recordatorios.
+ * Un servicio entra en la ventana de aviso cuando el km actual llega a `nextServiceKm - REMINDER_WINDOW_KM`.
+ * Al pasar el odómetro de A a B solo se evalúan los servicios cuyo umbral quedó entre A y B:
+ * `nextServiceKm` en (max(B, A + ventana), B + ventana]. Es un rango sobre el índice
+ * (userUid, vehicleId, nextServiceKm) de `maintenance_due`: O(log n + k) por lectura.
+ * Los avisados quedan en `fired_reminders`, así ninguno se repite hasta que cambie su próximo servicio.
+ * Todos los métodos son síncronos: llamarlos en segundo plano.
+ */
+public class ReminderEngine {
+    // Km desde el que se avisa antes del próximo servicio
+    public static final int REMINDER_WINDOW_KM = 1000;
+    // Lectura anterior desconocida: se evalúa toda la ventana
+    public static final int UNKNOWN_KM = -1;
+
+    private final ReminderDao reminderDao;
+
+    public ReminderEngine(ReminderDao reminderDao) {
+        this.reminderDao = reminderDao;
+    }
+
+    // Recordatorios nuevos al pasar el odómetro del vehículo de `fromKm` a `toKm`
+    public List<DueMaintenance> onOdometerChange(String userUid, int vehicleId, int fromKm, int toKm) {
+        int lower = lowerNextServiceKm(fromKm, toKm);
+        int upper = toKm + REMINDER_WINDOW_KM;
+        return reminderDao.claimPendingReminders(userUid, vehicleId, lower, upper);
+    }
+
+    // Recordatorios pendientes en toda la ventana (p. ej. servicios creados ya dentro de ella)
+    public List<DueMaintenance> pendingAt(String userUid, int vehicleId, int currentKm) {
+        return onOdometerChange(userUid, vehicleId, UNKNOWN_KM, currentKm);
+    }
+
+    // Límite inferior (excluido) de `nextServiceKm`; los ya vencidos (nextServiceKm <= toKm) no se avisan
+    static int lowerNextServiceKm(int fromKm, int toKm) {
+        if (fromKm == UNKNOWN_KM || fromKm >= toKm) {
+            // Sin avance (o el odómetro retrocedió): toda la ventana, los ya avisados se filtran igual
+            return toKm;
+        }
+        return Math.max(toKm, fromKm + REMINDER_WINDOW_KM);
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.pitstop.service;
+
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.service.notification.StatusBarNotification;
+
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+
+import com.example.pitstop.MainActivity;
+import com.example.pitstop.R;
+import com.example.pitstop.concurrent.TokenBucket;
+import com.example.pitstop.database.entity.Maintenance;
+import com.example.pitstop.database.entity.Vehicle;
+import com.example.pitstop.model.DueMaintenance;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Publica los recordatorios de mantenimiento agrupados por vehículo (uno por proceso).
+ * - El canal se crea una sola vez.
+ * - Cada vehículo tiene una notificación con id estable: los avisos nuevos se suman a los
+ *   que siguen visibles y la reemplazan en el lugar (InboxStyle cuando hay más de uno).
+ * - Cada publicación consume un token de {@link TokenBucket}; lo que no entra queda pendiente
+ *   por vehículo y se publica, ya fusionado, cuando se libera un token.
+ */
+public final class ReminderNotificationDispatcher {
+    private static final String CHANNEL_ID = "maintenance_reminders";
+    private static final String GROUP_KEY = "com.example.pitstop.MAINTENANCE_REMINDERS";
+    private static final String EXTRA_MAINTENANCE_ID = "navigate_to_maintenance_detail";
+    private static final int SUMMARY_NOTIFICATION_ID = 2000;
+    private static final int VEHICLE_NOTIFICATION_BASE = 2001;
+    // Android descarta las actualizaciones que superan ~5 por segundo y por app
+    private static final int BURST = 4;
+    private static final long REFILL_INTERVAL_MS = 500;
+
+    private static ReminderNotificationDispatcher INSTANCE;
+
+    private final Context context;
+    private final NotificationManagerCompat notificationManager;
+    private final TokenBucket bucket = new TokenBucket(BURST, REFILL_INTERVAL_MS);
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushRunnable = this::flush;
+    // Lo visible y lo que espera token, por vehículo
+    private final Map<Integer, VehicleReminders> shown = new HashMap<>();
+    private final Map<Integer, VehicleReminders> pending = new LinkedHashMap<>();
+    private boolean summaryDirty;
+    private boolean flushScheduled;
+
+    private ReminderNotificationDispatcher(Context context) {
+        this.context = context;
+        this.notificationManager = NotificationManagerCompat.from(context);
+        createNotificationChannel();
+    }
+
+    public static synchronized ReminderNotificationDispatcher getInstance(Context context) {
+        if (INSTANCE == null) {
+            INSTANCE = new ReminderNotificationDispatcher(context.getApplicationContext());
+        }
+        return INSTANCE;
+    }
+
+    // Los avisos se marcan como disparados al evaluarlos: no evaluar si no se pueden mostrar
+    public boolean canNotify() {
+        return notificationManager.areNotificationsEnabled();
+    }
+
+    // Encola los avisos de un vehículo y publica lo que permita el limitador
+    public synchronized void dispatch(Vehicle vehicle, List<DueMaintenance> dueMaintenances) {
+        if (dueMaintenances.isEmpty()) {
+            return;
+        }
+        VehicleReminders reminders = pending.get(vehicle.getId());
+        if (reminders == null) {
+            reminders = new VehicleReminders(vehicle.getId());
+            pending.put(vehicle.getId(), reminders);
+        }
+        reminders.vehicleName = vehicle.getName();
+        for (DueMaintenance due : dueMaintenances) {
+            reminders.items.put(due.getMaintenance().getId(), due);
+        }
+        flush();
+    }
+
+    private synchronized void flush() {
+        flushScheduled = false;
+        // Sin permiso los avisos quedan pendientes; se publican en el próximo dispatch con permiso
+        if (!canNotify()) {
+            return;
+        }
+        if (!pending.isEmpty()) {
+            forgetDismissed();
+        }
+
+        Iterator<VehicleReminders> iterator = pending.values().iterator();
+        while (iterator.hasNext() && bucket.tryAcquire()) {
+            VehicleReminders update = iterator.next();
+            iterator.remove();
+            VehicleReminders current = shown.get(update.vehicleId);
+            if (current == null) {
+                current = new VehicleReminders(update.vehicleId);
+                shown.put(update.vehicleId, current);
+            }
+            boolean added = current.mergeFrom(update);
+            notificationManager.notify(vehicleNotificationId(current.vehicleId), buildVehicleNotification(current, added));
+            summaryDirty = shown.size() > 1;
+        }
+        if (summaryDirty && pending.isEmpty() && bucket.tryAcquire()) {
+            notificationManager.notify(SUMMARY_NOTIFICATION_ID, buildSummaryNotification());
+            summaryDirty = false;
+        }
+
+        if ((!pending.isEmpty() || summaryDirty) && !flushScheduled) {
+            flushScheduled = true;
+            handler.postDelayed(flushRunnable, Math.max(1, bucket.millisUntilNextToken()));
+        }
+    }
+
+    // Olvida los vehículos cuya notificación ya descartó el usuario; así no se re-publican avisos viejos
+    private void forgetDismissed() {
+        if (shown.isEmpty()) {
+            return;
+        }
+        Set<Integer> active = new HashSet<>();
+        NotificationManager manager = context.getSystemService(NotificationManager.class);
+        for (StatusBarNotification notification : manager.getActiveNotifications()) {
+            active.add(notification.getId());
+        }
+        shown.keySet().removeIf(vehicleId -> !active.contains(vehicleNotificationId(vehicleId)));
+    }
+
+    private NotificationCompat.Builder baseBuilder(int requestCode, Intent intent) {
+        PendingIntent pendingIntent = PendingIntent.getActivity(
+            context, requestCode, intent, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+        return new NotificationCompat.Builder(context, CHANNEL_ID)
+            .setSmallIcon(R.drawable.ic_maintenance)
+            .setPriority(NotificationCompat.PRIORITY_HIGH)
+            .setContentIntent(pendingIntent)
+            .setAutoCancel(true)
+            .setGroup(GROUP_KEY);
+    }
+
+    // Un aviso navega al detalle; varios abren la app
+    private Notification buildVehicleNotification(VehicleReminders reminders, boolean added) {
+        List<DueMaintenance> items = reminders.sortedItems();
+        Intent intent = mainIntent();
+        if (items.size() == 1) {
+            intent.putExtra(EXTRA_MAINTENANCE_ID, items.get(0).getMaintenance().getId());
+        }
+        NotificationCompat.Builder builder = baseBuilder(vehicleNotificationId(reminders.vehicleId), intent)
+            // Sin avisos nuevos la actualización es silenciosa
+            .setOnlyAlertOnce(!added);
+
+        if (items.size() == 1) {
+            DueMaintenance due = items.get(0);
+            Maintenance maintenance = due.getMaintenance();
+            String message = String.format(
+                "Tu %s está próximo a vencer. Faltan %d km para el servicio.",
+                maintenance.getType(),
+                due.getRemainingKm()
+            );
+            return builder
+                .setContentTitle("🔧 Recordatorio de Mantenimiento")
+                .setContentText(message)
+                .setStyle(new NotificationCompat.BigTextStyle()
+                    .bigText(message + "\n\nPróximo servicio: " + maintenance.getNextServiceKm() + " km"))
+                .build();
+        }
+
+        String title = "🔧 " + items.size() + " mantenimientos próximos";
+        NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle()
+            .setBigContentTitle(title)
+            .setSummaryText(reminders.displayName());
+        for (DueMaintenance due : items) {
+            style.addLine(String.format("%s: faltan %d km", due.getMaintenance().getType(), due.getRemainingKm()));
+        }
+        return builder
+            .setContentTitle(title)
+            .setContentText(reminders.displayName())
+            .setNumber(items.size())
+            .setStyle(style)
+            .build();
+    }
+
+    private Notification buildSummaryNotification() {
+        int total = 0;
+        NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle();
+        for (VehicleReminders reminders : shown.values()) {
+            total += reminders.items.size();
+            style.addLine(reminders.displayName() + ": " + reminders.items.size() + " servicios");
+        }
+        String title = "🔧 " + total + " mantenimientos próximos";
+        return baseBuilder(SUMMARY_NOTIFICATION_ID, mainIntent())
+            .setContentTitle(title)
+            .setContentText(shown.size() + " vehículos")
+            .setStyle(style.setBigContentTitle(title))
+            .setGroupSummary(true)
+            .setOnlyAlertOnce(true)
+            .build();
+    }
+
+    private Intent mainIntent() {
+        Intent intent = new Intent(context, MainActivity.class);
+        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+        return intent;
+    }
+
+    private static int vehicleNotificationId(int vehicleId) {
+        return VEHICLE_NOTIFICATION_BASE + vehicleId;
+    }
+
+    // Crea el canal de notificaciones (Android O+)
+    private void createNotificationChannel() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            CharSequence name = "Recordatorios de Mantenimiento";
+            String description = "Notificaciones cuando un servicio de mantenimiento está próximo a vencer";
+            int importance = NotificationManager.IMPORTANCE_HIGH;
+
+            NotificationChannel channel = new NotificationChannel(CHANNEL_ID, name, importance);
+            channel.setDescription(description);
+            channel.enableVibration(true);
+            channel.setVibrationPattern(new long[]{0, 1000, 500, 1000});
+
+            NotificationManager notificationManager = context.getSystemService(NotificationManager.class);
+            notificationManager.createNotificationChannel(channel);
+        }
+    }
+
+    /**
+     * Avisos de un vehículo, uno por mantenimiento (el más reciente gana).
+     */
+    private static final class VehicleReminders {
+        final int vehicleId;
+        String vehicleName;
+        final Map<Integer, DueMaintenance> items = new LinkedHashMap<>();
+
+        VehicleReminders(int vehicleId) {
+            this.vehicleId = vehicleId;
+        }
+
+        // Devuelve true si entró algún mantenimiento que no estaba
+        boolean mergeFrom(VehicleReminders other) {
+            vehicleName = other.vehicleName;
+            boolean added = false;
+            for (Map.Entry<Integer, DueMaintenance> entry : other.items.entrySet()) {
+                added |= items.put(entry.getKey(), entry.getValue()) == null;
+            }
+            return added;
+        }
+
+        List<DueMaintenance> sortedItems() {
+            List<DueMaintenance> sorted = new ArrayList<>(items.values());
+            sorted.sort(Comparator.comparingInt(DueMaintenance::getRemainingKm));
+            return sorted;
+        }
+
+        String displayName() {
+            return vehicleName != null ? vehicleName : "Vehículo";
+        }
+    }
+}
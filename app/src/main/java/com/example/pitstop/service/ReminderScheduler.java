@@ -0,0 +1,140 @@
+package com.example.pitstop.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+
+import com.example.pitstop.concurrent.AppExecutors;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Programa las evaluaciones de recordatorios en WorkManager.
+ * - Tras una lectura del odómetro: a lo sumo un trabajo pendiente por vehículo. El menor km de
+ *   partida de la ráfaga se guarda en {@link PendingOdometerRange}; mientras el trabajo espera, cada
+ *   lectura lo reemplaza (REPLACE, la espera vuelve a empezar). Si ya está corriendo se encadena uno
+ *   solo detrás (APPEND_OR_REPLACE), que toma lo que haya quedado guardado. Una ráfaga de N lecturas
+ *   termina en una evaluación (dos si una llegó con la evaluación en curso).
+ * - Periódico (diario): toda la ventana, por si algo entró en ella sin pasar por el odómetro.
+ */
+public final class ReminderScheduler {
+    private static final String TAG = "ReminderScheduler";
+    private static final String PERIODIC_WORK = "maintenance-reminders-periodic";
+    private static final String CHECK_NOW_WORK = "maintenance-reminders-now";
+    private static final String ODOMETER_WORK_PREFIX = "maintenance-reminders-vehicle-";
+    private static final long ODOMETER_COALESCE_SECONDS = 15;
+    private static final long BACKOFF_SECONDS = 30;
+
+    private ReminderScheduler() {}
+
+    // Evaluación tras registrar una lectura; `fromKm` es el km del vehículo antes de ella
+    public static void scheduleAfterOdometerReading(Context context, String userUid, int vehicleId, int fromKm) {
+        // El estado del trabajo se consulta bloqueando: fuera del hilo principal
+        scheduleAfterOdometerReading(context, userUid, vehicleId, fromKm, AppExecutors.getInstance().diskRead());
+    }
+
+    // Paquete: los tests pasan un executor directo
+    static void scheduleAfterOdometerReading(Context context, String userUid, int vehicleId, int fromKm,
+                                             Executor executor) {
+        Context appContext = context.getApplicationContext();
+        // Se guarda antes de mirar el trabajo: el que corra después siempre lo encuentra
+        new PendingOdometerRange(appContext).merge(vehicleId, fromKm);
+        executor.execute(() -> enqueueOdometerWork(appContext, userUid, vehicleId));
+    }
+
+    // Deja un solo trabajo pendiente por vehículo; sincronizado para que dos lecturas
+    // no decidan sobre el mismo estado
+    private static synchronized void enqueueOdometerWork(Context context, String userUid, int vehicleId) {
+        WorkManager workManager = WorkManager.getInstance(context);
+        String name = odometerWorkName(vehicleId);
+        ExistingWorkPolicy policy = ExistingWorkPolicy.REPLACE;
+        try {
+            boolean running = false;
+            boolean queuedBehind = false;
+            for (WorkInfo info : workManager.getWorkInfosForUniqueWork(name).get()) {
+                if (info.getState() == WorkInfo.State.RUNNING) {
+                    running = true;
+                } else if (info.getState() == WorkInfo.State.BLOCKED) {
+                    queuedBehind = true;
+                }
+            }
+            if (running && queuedBehind) {
+                // El encadenado todavía no corrió: tomará esta lectura
+                return;
+            }
+            if (running) {
+                // REPLACE cancelaría la evaluación en curso
+                policy = ExistingWorkPolicy.APPEND_OR_REPLACE;
+            }
+        } catch (ExecutionException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // Sin estado: encadenar nunca cancela nada ni pierde la lectura
+            Log.w(TAG, "No se pudo leer el estado de " + name, e);
+            policy = ExistingWorkPolicy.APPEND_OR_REPLACE;
+        }
+
+        Data input = new Data.Builder()
+            .putString(MaintenanceReminderWorker.KEY_USER_UID, userUid)
+            .putInt(MaintenanceReminderWorker.KEY_VEHICLE_ID, vehicleId)
+            .build();
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(MaintenanceReminderWorker.class)
+            .setInputData(input)
+            .setInitialDelay(ODOMETER_COALESCE_SECONDS, TimeUnit.SECONDS)
+            .setConstraints(constraints())
+            .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_SECONDS, TimeUnit.SECONDS)
+            .build();
+        workManager.enqueueUniqueWork(name, policy, request);
+    }
+
+    static String odometerWorkName(int vehicleId) {
+        return ODOMETER_WORK_PREFIX + vehicleId;
+    }
+
+    // Evaluación inmediata de toda la ventana (p. ej. desde un broadcast)
+    public static void checkNow(Context context) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(MaintenanceReminderWorker.class)
+            .setConstraints(constraints())
+            .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_SECONDS, TimeUnit.SECONDS)
+            .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(CHECK_NOW_WORK, ExistingWorkPolicy.KEEP, request);
+    }
+
+    // Idempotente: si ya está programado no se reemplaza
+    public static void schedulePeriodic(Context context) {
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(MaintenanceReminderWorker.class, 1, TimeUnit.DAYS)
+            .setConstraints(new Constraints.Builder()
+                .setRequiresBatteryNotLow(true)
+                .setRequiresStorageNotLow(true)
+                .build())
+            .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_SECONDS, TimeUnit.SECONDS)
+            .build();
+        WorkManager.getInstance(context)
+            .enqueueUniquePeriodicWork(PERIODIC_WORK, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    // Al cerrar sesión no quedan evaluaciones pendientes para el usuario anterior
+    // (WorkManager etiqueta cada request con el nombre de su Worker)
+    public static void cancelAll(Context context) {
+        WorkManager.getInstance(context).cancelAllWorkByTag(MaintenanceReminderWorker.class.getName());
+    }
+
+    // Escribe en `fired_reminders`: no correr con el almacenamiento casi lleno
+    private static Constraints constraints() {
+        return new Constraints.Builder()
+            .setRequiresStorageNotLow(true)
+            .build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.pitstop.service;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Base64;
+import android.util.Log;
+
+import com.example.pitstop.trip.TrackBuffer;
+import com.example.pitstop.trip.TrackCodec;
+
+/**
+ * Checkpoint del viaje en curso (SharedPreferences), para retomarlo si el proceso muere.
+ * Guarda la distancia acumulada, el último fix aceptado y el recorrido hasta ahí (con
+ * {@link TrackCodec}, en Base64); se escribe con `apply()` (asíncrono) y a lo sumo cada
+ * {@link TripTrackingService#CHECKPOINT_INTERVAL_MS}.
+ */
+public class TripCheckpoint {
+    private static final String TAG = "TripCheckpoint";
+    private static final String PREFS_NAME = "trip_checkpoint";
+    private static final String KEY_ACTIVE = "active";
+    private static final String KEY_STARTED_AT = "startedAt";
+    private static final String KEY_DISTANCE_M = "distanceM";
+    private static final String KEY_LAST_LAT = "lastLat";
+    private static final String KEY_LAST_LON = "lastLon";
+    private static final String KEY_LAST_TIME = "lastTime";
+    private static final String KEY_TRACK = "track";
+
+    private final SharedPreferences preferences;
+
+    public TripCheckpoint(Context context) {
+        this.preferences = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    public void begin(long startedAt) {
+        preferences.edit()
+            .clear()
+            .putBoolean(KEY_ACTIVE, true)
+            .putLong(KEY_STARTED_AT, startedAt)
+            .apply();
+    }
+
+    public void save(TripEngine engine) {
+        SharedPreferences.Editor editor = preferences.edit()
+            .putLong(KEY_DISTANCE_M, Double.doubleToRawLongBits(engine.getDistanceMeters()));
+        if (engine.hasLastFix()) {
+            editor.putLong(KEY_LAST_LAT, Double.doubleToRawLongBits(engine.getLastLatitude()))
+                .putLong(KEY_LAST_LON, Double.doubleToRawLongBits(engine.getLastLongitude()))
+                .putLong(KEY_LAST_TIME, engine.getLastFixTimeMs());
+        }
+        // Todo el recorrido cada vez: con deltas de 1-2 bytes por campo son pocos KB por hora de viaje
+        editor.putString(KEY_TRACK, Base64.encodeToString(TrackCodec.encode(engine.getTrack()), Base64.NO_WRAP));
+        editor.apply();
+    }
+
+    public void clear() {
+        preferences.edit().clear().apply();
+    }
+
+    public boolean isActive() {
+        return preferences.getBoolean(KEY_ACTIVE, false);
+    }
+
+    public long getStartedAt() {
+        return preferences.getLong(KEY_STARTED_AT, 0);
+    }
+
+    public double getDistanceMeters() {
+        return Double.longBitsToDouble(preferences.getLong(KEY_DISTANCE_M, 0));
+    }
+
+    public double getLastLatitude() {
+        return Double.longBitsToDouble(preferences.getLong(KEY_LAST_LAT, 0));
+    }
+
+    public double getLastLongitude() {
+        return Double.longBitsToDouble(preferences.getLong(KEY_LAST_LON, 0));
+    }
+
+    // 0 si todavía no hubo fix aceptado
+    public long getLastTimeMs() {
+        return preferences.getLong(KEY_LAST_TIME, 0);
+    }
+
+    // Recorrido guardado; vacío si no hay o no se puede leer (se retoma solo con la distancia)
+    public TrackBuffer getTrack() {
+        String encoded = preferences.getString(KEY_TRACK, null);
+        if (encoded == null) {
+            return new TrackBuffer();
+        }
+        try {
+            TrackBuffer saved = TrackCodec.decode(Base64.decode(encoded, Base64.NO_WRAP));
+            // Con capacidad para seguir agregando sin copiar en el primer fix
+            TrackBuffer track = new TrackBuffer(saved.size() * 2);
+            for (int i = 0; i < saved.size(); i++) {
+                track.add(saved.latitude(i), saved.longitude(i), saved.timeMs(i));
+            }
+            return track;
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, "Recorrido del checkpoint ilegible; se descarta", e);
+            return new TrackBuffer();
+        }
+    }
+}
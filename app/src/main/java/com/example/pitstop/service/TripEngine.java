@@ -0,0 +1,194 @@
+package com.example.pitstop.service;
+
+import android.Manifest;
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.location.Location;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresPermission;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.pitstop.trip.KalmanLocationFilter;
+import com.example.pitstop.trip.TrackBuffer;
+import com.example.pitstop.trip.TripDistanceEstimator;
+import com.example.pitstop.trip.TripPace;
+import com.google.android.gms.location.FusedLocationProviderClient;
+import com.google.android.gms.location.LocationCallback;
+import com.google.android.gms.location.LocationRequest;
+import com.google.android.gms.location.LocationResult;
+import com.google.android.gms.location.LocationServices;
+import com.google.android.gms.location.Priority;
+
+import java.util.List;
+
+/**
+ * Motor de viaje sobre `FusedLocationProviderClient.requestLocationUpdates`.
+ * Los fixes llegan en lotes; el intervalo y la demora máxima del lote se adaptan a la
+ * velocidad (ver {@link TripPace}) volviendo a pedir actualizaciones con el mismo callback.
+ * La distancia la calcula {@link TripDistanceEstimator} (fixes suavizados con
+ * {@link KalmanLocationFilter}); se publica una vez por lote.
+ * Las posiciones filtradas aceptadas se guardan en un {@link TrackBuffer} para persistir el recorrido.
+ * Lo usa {@link TripTrackingService}; todos los métodos corren en el hilo de `looper`.
+ */
+public class TripEngine {
+
+    /**
+     * Avance del viaje, una vez por lote con fixes aceptados.
+     */
+    public interface Listener {
+        void onProgress(TripEngine engine);
+    }
+
+    private final FusedLocationProviderClient fusedLocationClient;
+    private final TripDistanceEstimator estimator = new TripDistanceEstimator();
+    private TrackBuffer track = new TrackBuffer();
+    private final Listener listener;
+    private final MutableLiveData<Double> distanceKm = new MutableLiveData<>(0.0);
+    private final MutableLiveData<Boolean> tracking = new MutableLiveData<>(false);
+    private Looper looper;
+    private boolean started;
+    private TripPace pace = TripPace.CITY;
+    private long slowSinceMs = -1;
+
+    private final LocationCallback locationCallback = new LocationCallback() {
+        @Override
+        public void onLocationResult(@NonNull LocationResult result) {
+            List<Location> locations = result.getLocations();
+            boolean changed = false;
+            for (int i = 0; i < locations.size(); i++) {
+                Location location = locations.get(i);
+                if (estimator.offer(location.getLatitude(), location.getLongitude(), location.getTime(),
+                        location.hasAccuracy() ? location.getAccuracy() : Float.NaN,
+                        location.hasSpeed() ? location.getSpeed() : Float.NaN)) {
+                    track.add(estimator.getLatitude(), estimator.getLongitude(), location.getTime());
+                    changed = true;
+                }
+            }
+            Location last = result.getLastLocation();
+            if (last != null && last.hasSpeed()) {
+                adaptPace(last.getSpeed(), last.getTime());
+            }
+            if (changed) {
+                distanceKm.postValue(estimator.getDistanceKm());
+                listener.onProgress(TripEngine.this);
+            }
+        }
+    };
+
+    public TripEngine(Context context, Listener listener) {
+        this.fusedLocationClient = LocationServices.getFusedLocationProviderClient(context.getApplicationContext());
+        this.listener = listener;
+    }
+
+    // Empieza un viaje desde 0; los callbacks llegan en `looper`
+    @RequiresPermission(Manifest.permission.ACCESS_FINE_LOCATION)
+    public void start(Looper looper) {
+        estimator.reset();
+        begin(looper, new TrackBuffer());
+    }
+
+    // Retoma un viaje desde un checkpoint (último fix aceptado, distancia y recorrido hasta ahí).
+    // Los fixes entre el checkpoint y la muerte del proceso se pierden; el tramo se une en línea recta
+    @RequiresPermission(Manifest.permission.ACCESS_FINE_LOCATION)
+    public void resume(Looper looper, double distanceM, double lastLat, double lastLon, long lastTimeMs,
+                       TrackBuffer checkpointTrack) {
+        estimator.restore(distanceM, lastLat, lastLon, lastTimeMs);
+        begin(looper, checkpointTrack);
+    }
+
+    @RequiresPermission(Manifest.permission.ACCESS_FINE_LOCATION)
+    private void begin(Looper looper, TrackBuffer initialTrack) {
+        if (started) {
+            return;
+        }
+        started = true;
+        this.looper = looper;
+        // Buffer propio de este viaje: el del anterior puede seguir guardándose en segundo plano
+        track = initialTrack;
+        pace = TripPace.CITY;
+        slowSinceMs = -1;
+        distanceKm.setValue(estimator.getDistanceKm());
+        tracking.setValue(true);
+        requestUpdates();
+    }
+
+    // Detiene las actualizaciones y devuelve la distancia final en km
+    public double stop() {
+        if (started) {
+            started = false;
+            fusedLocationClient.removeLocationUpdates(locationCallback);
+            tracking.setValue(false);
+        }
+        return estimator.getDistanceKm();
+    }
+
+    @SuppressLint("MissingPermission")
+    private void adaptPace(float speedMps, long timeMs) {
+        if (speedMps < TripPace.STOPPED_BELOW_MPS) {
+            if (slowSinceMs < 0) {
+                slowSinceMs = timeMs;
+            }
+        } else {
+            slowSinceMs = -1;
+        }
+        TripPace next = TripPace.forSpeed(speedMps, slowSinceMs < 0 ? 0 : timeMs - slowSinceMs);
+        if (next != pace && started) {
+            pace = next;
+            // Con el mismo callback, el pedido nuevo reemplaza al anterior
+            requestUpdates();
+        }
+    }
+
+    @SuppressLint("MissingPermission")
+    private void requestUpdates() {
+        LocationRequest request = new LocationRequest.Builder(Priority.PRIORITY_HIGH_ACCURACY, pace.intervalMs)
+            .setMinUpdateIntervalMillis(pace.intervalMs / 2)
+            .setMaxUpdateDelayMillis(pace.maxDelayMs)
+            .build();
+        fusedLocationClient.requestLocationUpdates(request, locationCallback, looper);
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    public double getDistanceMeters() {
+        return estimator.getDistanceMeters();
+    }
+
+    public boolean hasLastFix() {
+        return estimator.getAccumulator().hasAnchor();
+    }
+
+    public double getLastLatitude() {
+        return estimator.getLatitude();
+    }
+
+    public double getLastLongitude() {
+        return estimator.getLongitude();
+    }
+
+    public long getLastFixTimeMs() {
+        return estimator.getAccumulator().getLastTimeMs();
+    }
+
+    // Posiciones filtradas aceptadas del viaje (si se retomó, incluye las del checkpoint)
+    public TrackBuffer getTrack() {
+        return track;
+    }
+
+    public TripPace getPace() {
+        return pace;
+    }
+
+    public LiveData<Double> getDistanceKm() {
+        return distanceKm;
+    }
+
+    public LiveData<Boolean> isTracking() {
+        return tracking;
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.pitstop.service;
+
+import android.Manifest;
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.app.Service;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.content.pm.ServiceInfo;
+import android.os.Binder;
+import android.os.Build;
+import android.os.IBinder;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+import androidx.core.content.ContextCompat;
+import androidx.lifecycle.LiveData;
+
+import com.example.pitstop.MainActivity;
+import com.example.pitstop.R;
+import com.example.pitstop.model.RecordedTrip;
+
+/**
+ * Servicio en primer plano que registra el viaje en curso.
+ * Tiene su propio ciclo de vida: el viaje sigue aunque se rote la pantalla, se salga de
+ * `SensorsFragment` o se cierre la UI. El fragment solo se vincula ({@link LocalBinder}) y muestra.
+ * Guarda checkpoints periódicos ({@link TripCheckpoint}); si el sistema mata el proceso,
+ * `START_STICKY` lo recrea y el viaje se retoma desde el último checkpoint. En Android 12+ ese
+ * reinicio no puede pasar a primer plano: el viaje se retoma al abrir la app (`MainActivity`).
+ */
+public class TripTrackingService extends Service {
+    private static final String TAG = "TripTrackingService";
+    public static final String ACTION_START = "com.example.pitstop.action.START_TRIP";
+    public static final long CHECKPOINT_INTERVAL_MS = 30_000;
+    private static final String CHANNEL_ID = "trip_tracking";
+    private static final int NOTIFICATION_ID = 3000;
+
+    /**
+     * Acceso directo al servicio para clientes del mismo proceso.
+     */
+    public class LocalBinder extends Binder {
+        public TripTrackingService getService() {
+            return TripTrackingService.this;
+        }
+    }
+
+    private final IBinder binder = new LocalBinder();
+    private TripEngine engine;
+    private TripCheckpoint checkpoint;
+    private long lastCheckpointAt;
+    private String shownDistance;
+
+    public static Intent startIntent(Context context) {
+        return new Intent(context, TripTrackingService.class).setAction(ACTION_START);
+    }
+
+    public static Intent bindIntent(Context context) {
+        return new Intent(context, TripTrackingService.class);
+    }
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        engine = new TripEngine(this, this::onProgress);
+        checkpoint = new TripCheckpoint(this);
+    }
+
+    @Override
+    public int onStartCommand(@Nullable Intent intent, int flags, int startId) {
+        boolean newTrip = intent != null && ACTION_START.equals(intent.getAction());
+        // Iniciado con startForegroundService: hay que llamar a startForeground() antes de
+        // cualquier salida, si no Android 8+ mata el proceso (ForegroundServiceDidNotStartInTime).
+        // `SensorsFragment` solo lo inicia con el permiso de ubicación concedido
+        if (!enterForeground(newTrip ? 0 : checkpoint.getDistanceMeters())) {
+            // El checkpoint se conserva: la próxima vez que se abra la app se retoma
+            stopSelf(startId);
+            return START_NOT_STICKY;
+        }
+        boolean hasPermission = ContextCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION)
+            == PackageManager.PERMISSION_GRANTED;
+        if (!hasPermission || (!newTrip && !checkpoint.isActive())) {
+            // Sin permiso (revocado) o reinicio sin viaje pendiente; si hay checkpoint, se conserva
+            if (!engine.isStarted()) {
+                stopForeground(STOP_FOREGROUND_REMOVE);
+                stopSelf(startId);
+            }
+            return START_NOT_STICKY;
+        }
+
+        if (engine.isStarted()) {
+            return START_STICKY;
+        }
+        if (newTrip) {
+            checkpoint.begin(System.currentTimeMillis());
+            engine.start(Looper.getMainLooper());
+        } else {
+            Log.i(TAG, "Retomando viaje desde checkpoint: " + checkpoint.getDistanceMeters() + " m");
+            engine.resume(Looper.getMainLooper(), checkpoint.getDistanceMeters(),
+                checkpoint.getLastLatitude(), checkpoint.getLastLongitude(), checkpoint.getLastTimeMs(),
+                checkpoint.getTrack());
+        }
+        lastCheckpointAt = SystemClock.elapsedRealtime();
+        return START_STICKY;
+    }
+
+    // Finaliza el viaje y lo devuelve con su recorrido, listo para guardar
+    public RecordedTrip stopTrip() {
+        double distanceKm = engine.stop();
+        RecordedTrip trip = new RecordedTrip(checkpoint.getStartedAt(), System.currentTimeMillis(),
+            distanceKm, engine.getTrack());
+        checkpoint.clear();
+        stopForeground(STOP_FOREGROUND_REMOVE);
+        stopSelf();
+        return trip;
+    }
+
+    public LiveData<Double> getDistanceKm() {
+        return engine.getDistanceKm();
+    }
+
+    public LiveData<Boolean> isTracking() {
+        return engine.isTracking();
+    }
+
+    // Hay un viaje sin terminar (en curso o interrumpido por la muerte del proceso)
+    public static boolean hasPendingTrip(Context context) {
+        return new TripCheckpoint(context).isActive();
+    }
+
+    private void onProgress(TripEngine engine) {
+        long now = SystemClock.elapsedRealtime();
+        if (now - lastCheckpointAt >= CHECKPOINT_INTERVAL_MS) {
+            lastCheckpointAt = now;
+            checkpoint.save(engine);
+        }
+        // Solo se re-publica la notificación cuando cambia el texto visible
+        String distance = formatDistance(engine.getDistanceMeters());
+        if (!distance.equals(shownDistance) && NotificationManagerCompat.from(this).areNotificationsEnabled()) {
+            NotificationManagerCompat.from(this).notify(NOTIFICATION_ID, buildNotification(distance));
+        }
+    }
+
+    @Override
+    public void onDestroy() {
+        if (engine.isStarted()) {
+            // Destruido sin stopTrip(): se guarda lo último para retomar
+            checkpoint.save(engine);
+            engine.stop();
+        }
+        super.onDestroy();
+    }
+
+    @Nullable
+    @Override
+    public IBinder onBind(Intent intent) {
+        return binder;
+    }
+
+    private boolean enterForeground(double distanceMeters) {
+        createNotificationChannel();
+        Notification notification = buildNotification(formatDistance(distanceMeters));
+        try {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                startForeground(NOTIFICATION_ID, notification, ServiceInfo.FOREGROUND_SERVICE_TYPE_LOCATION);
+            } else {
+                startForeground(NOTIFICATION_ID, notification);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            // Android 12+ no permite iniciar primer plano desde segundo plano (p. ej. reinicio sticky)
+            Log.w(TAG, "No se pudo pasar a primer plano", e);
+            return false;
+        }
+    }
+
+    private Notification buildNotification(String distance) {
+        shownDistance = distance;
+        Intent intent = new Intent(this, MainActivity.class);
+        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        PendingIntent pendingIntent = PendingIntent.getActivity(
+            this, NOTIFICATION_ID, intent, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+        return new NotificationCompat.Builder(this, CHANNEL_ID)
+            .setSmallIcon(R.drawable.ic_gps)
+            .setContentTitle("Viaje en curso")
+            .setContentText("Distancia: " + distance)
+            .setContentIntent(pendingIntent)
+            .setOngoing(true)
+            .setOnlyAlertOnce(true)
+            .setSilent(true)
+            .setCategory(NotificationCompat.CATEGORY_SERVICE)
+            .build();
+    }
+
+    private static String formatDistance(double meters) {
+        return String.format("%.1f km", meters / 1000.0);
+    }
+
+    // Canal de baja importancia: la notificación es persistente y no debe sonar
+    private void createNotificationChannel() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(
+                CHANNEL_ID, "Seguimiento de viaje", NotificationManager.IMPORTANCE_LOW);
+            channel.setDescription("Muestra la distancia del viaje en curso");
+            getSystemService(NotificationManager.class).createNotificationChannel(channel);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.pitstop.trip;
+
+/**
+ * Acumula la distancia de un viaje fix por fix con Haversine.
+ * Java puro y sin asignaciones por fix: guarda solo el último punto aceptado (en radianes,
+ * con su coseno precalculado), así se puede probar y medir en la JVM.
+ * Descarta fixes con precisión peor que `maxAccuracyM`, tiempos que no avanzan y saltos
+ * que implican una velocidad mayor a `maxSpeedMps`. Si varios saltos seguidos son "imposibles",
+ * el error estaba en el ancla: se re-ancla en el fix nuevo sin sumar distancia.
+ * No es thread-safe; se alimenta desde un solo hilo.
+ */
+public final class DistanceAccumulator {
+    public static final double EARTH_RADIUS_M = 6_371_008.8;
+    public static final float DEFAULT_MAX_ACCURACY_M = 25f;
+    // ~250 km/h
+    public static final double DEFAULT_MAX_SPEED_MPS = 70.0;
+    private static final int REANCHOR_AFTER_REJECTIONS = 3;
+
+    private final float maxAccuracyM;
+    private final double maxSpeedMps;
+
+    private boolean anchored;
+    private double lastLatRad;
+    private double lastLonRad;
+    private double lastCosLat;
+    private long lastTimeMs;
+    private int consecutiveSpeedRejections;
+
+    private double distanceM;
+    private int acceptedFixes;
+    private int rejectedFixes;
+
+    public DistanceAccumulator() {
+        this(DEFAULT_MAX_ACCURACY_M, DEFAULT_MAX_SPEED_MPS);
+    }
+
+    public DistanceAccumulator(float maxAccuracyM, double maxSpeedMps) {
+        this.maxAccuracyM = maxAccuracyM;
+        this.maxSpeedMps = maxSpeedMps;
+    }
+
+    /**
+     * Procesa un fix; devuelve true si se aceptó.
+     * Una precisión NaN (desconocida) cuenta como mala.
+     */
+    public boolean offer(double latDeg, double lonDeg, long timeMs, float accuracyM) {
+        if (!isAccurateEnough(accuracyM)) {
+            rejectedFixes++;
+            return false;
+        }
+        double latRad = Math.toRadians(latDeg);
+        double lonRad = Math.toRadians(lonDeg);
+        double cosLat = Math.cos(latRad);
+
+        if (!anchored) {
+            anchor(latRad, lonRad, cosLat, timeMs);
+            acceptedFixes++;
+            return true;
+        }
+        long elapsedMs = timeMs - lastTimeMs;
+        if (elapsedMs <= 0) {
+            rejectedFixes++;
+            return false;
+        }
+
+        double stepM = haversine(lastLatRad, lastLonRad, lastCosLat, latRad, lonRad, cosLat);
+        if (stepM * 1000.0 > maxSpeedMps * elapsedMs) {
+            rejectedFixes++;
+            if (++consecutiveSpeedRejections >= REANCHOR_AFTER_REJECTIONS) {
+                anchor(latRad, lonRad, cosLat, timeMs);
+            }
+            return false;
+        }
+
+        distanceM += stepM;
+        anchor(latRad, lonRad, cosLat, timeMs);
+        acceptedFixes++;
+        return true;
+    }
+
+    // Precisión mínima para aceptar un fix (NaN = desconocida = mala)
+    public boolean isAccurateEnough(float accuracyM) {
+        return accuracyM <= maxAccuracyM;
+    }
+
+    private void anchor(double latRad, double lonRad, double cosLat, long timeMs) {
+        anchored = true;
+        lastLatRad = latRad;
+        lastLonRad = lonRad;
+        lastCosLat = cosLat;
+        lastTimeMs = timeMs;
+        consecutiveSpeedRejections = 0;
+    }
+
+    // Empieza un viaje nuevo (conserva los umbrales)
+    public void reset() {
+        anchored = false;
+        consecutiveSpeedRejections = 0;
+        distanceM = 0;
+        acceptedFixes = 0;
+        rejectedFixes = 0;
+    }
+
+    // Retoma un viaje con la distancia ya recorrida; el próximo fix solo ancla
+    public void restore(double distanceM) {
+        reset();
+        this.distanceM = distanceM;
+    }
+
+    // Retoma desde el último fix aceptado: el tramo hasta el próximo fix se suma si es plausible
+    public void restore(double distanceM, double lastLatDeg, double lastLonDeg, long lastTimeMs) {
+        restore(distanceM);
+        double latRad = Math.toRadians(lastLatDeg);
+        anchor(latRad, Math.toRadians(lastLonDeg), Math.cos(latRad), lastTimeMs);
+    }
+
+    public boolean hasAnchor() {
+        return anchored;
+    }
+
+    public double getLastLatitude() {
+        return Math.toDegrees(lastLatRad);
+    }
+
+    public double getLastLongitude() {
+        return Math.toDegrees(lastLonRad);
+    }
+
+    public long getLastTimeMs() {
+        return lastTimeMs;
+    }
+
+    public double getDistanceMeters() {
+        return distanceM;
+    }
+
+    public double getDistanceKm() {
+        return distanceM / 1000.0;
+    }
+
+    public int getAcceptedFixes() {
+        return acceptedFixes;
+    }
+
+    public int getRejectedFixes() {
+        return rejectedFixes;
+    }
+
+    // Distancia Haversine en metros entre dos puntos en grados
+    public static double haversineMeters(double lat1Deg, double lon1Deg, double lat2Deg, double lon2Deg) {
+        double lat1 = Math.toRadians(lat1Deg);
+        double lat2 = Math.toRadians(lat2Deg);
+        return haversine(lat1, Math.toRadians(lon1Deg), Math.cos(lat1), lat2, Math.toRadians(lon2Deg), Math.cos(lat2));
+    }
+
+    private static double haversine(double lat1, double lon1, double cosLat1,
+                                    double lat2, double lon2, double cosLat2) {
+        double sinDLat = Math.sin((lat2 - lat1) * 0.5);
+        double sinDLon = Math.sin((lon2 - lon1) * 0.5);
+        double a = sinDLat * sinDLat + cosLat1 * cosLat2 * sinDLon * sinDLon;
+        return 2.0 * EARTH_RADIUS_M * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.pitstop.trip;
+
+/**
+ * Filtro de Kalman de velocidad constante para los fixes del viaje, entre el stream de
+ * ubicaciones y {@link DistanceAccumulator}.
+ * - Estado por eje (este/norte, en metros sobre el primer fix): posición y velocidad,
+ *   con covarianza 2x2 en campos sueltos: no asigna memoria por fix.
+ * - La varianza de cada medición es la precisión reportada al cuadrado.
+ * - Con la velocidad GPS por debajo de `stationarySpeedMps` se aplica una medición de
+ *   velocidad cero: detenido, el ruido del GPS no suma distancia.
+ * - Una innovación fuera de `gateSigmas` desvíos se descarta (saltos por multipath); tras
+ *   varias seguidas el filtro se reinicia en la medición.
+ * Parámetros configurables por constructor; no es thread-safe.
+ */
+public final class KalmanLocationFilter {
+    // Aceleración típica de un auto en ciudad (m/s²)
+    public static final double DEFAULT_ACCELERATION_NOISE = 1.0;
+    public static final double DEFAULT_STATIONARY_SPEED_MPS = 0.8;
+    public static final double DEFAULT_GATE_SIGMAS = 5.0;
+    // Varianza de la medición de velocidad cero (m²/s²)
+    private static final double STATIONARY_VELOCITY_VARIANCE = 0.01;
+    private static final int RESET_AFTER_GATED = 3;
+    private static final double METERS_PER_DEG = Math.PI * DistanceAccumulator.EARTH_RADIUS_M / 180.0;
+
+    private final double accelerationVariance;
+    private final double stationarySpeedMps;
+    private final double gateSigmasSq;
+
+    private boolean initialized;
+    private double originLat;
+    private double originLon;
+    private double metersPerDegLon;
+    private long lastTimeMs;
+    private int consecutiveGated;
+
+    // Eje este (x) y norte (y): posición, velocidad y covarianza (00, 01, 11)
+    private double x, vx, px00, px01, px11;
+    private double y, vy, py00, py01, py11;
+
+    public KalmanLocationFilter() {
+        this(DEFAULT_ACCELERATION_NOISE, DEFAULT_STATIONARY_SPEED_MPS, DEFAULT_GATE_SIGMAS);
+    }
+
+    public KalmanLocationFilter(double accelerationNoise, double stationarySpeedMps, double gateSigmas) {
+        this.accelerationVariance = accelerationNoise * accelerationNoise;
+        this.stationarySpeedMps = stationarySpeedMps;
+        this.gateSigmasSq = gateSigmas * gateSigmas;
+    }
+
+    /**
+     * Incorpora un fix. `speedMps` es NaN si el fix no trae velocidad.
+     * Devuelve false si la medición se descartó (tiempo que no avanza o innovación fuera del umbral).
+     */
+    public boolean update(double latDeg, double lonDeg, long timeMs, float accuracyM, float speedMps) {
+        if (!initialized) {
+            reset(latDeg, lonDeg, timeMs, accuracyM);
+            return true;
+        }
+        if (timeMs <= lastTimeMs) {
+            return false;
+        }
+        double dt = (timeMs - lastTimeMs) / 1000.0;
+        lastTimeMs = timeMs;
+        predict(dt);
+
+        double zx = (lonDeg - originLon) * metersPerDegLon;
+        double zy = (latDeg - originLat) * METERS_PER_DEG;
+        double r = Math.max(1.0, (double) accuracyM * accuracyM);
+        double ix = zx - x;
+        double iy = zy - y;
+        // Distancia de Mahalanobis (ejes independientes)
+        double mahalanobisSq = ix * ix / (px00 + r) + iy * iy / (py00 + r);
+        if (mahalanobisSq > gateSigmasSq) {
+            if (++consecutiveGated >= RESET_AFTER_GATED) {
+                reset(latDeg, lonDeg, timeMs, accuracyM);
+                return true;
+            }
+            return false;
+        }
+        consecutiveGated = 0;
+
+        updatePositionX(ix, r);
+        updatePositionY(iy, r);
+        if (isStationary(speedMps)) {
+            updateVelocityX(-vx, STATIONARY_VELOCITY_VARIANCE);
+            updateVelocityY(-vy, STATIONARY_VELOCITY_VARIANCE);
+        }
+        return true;
+    }
+
+    private void predict(double dt) {
+        double q = accelerationVariance;
+        double dt2 = dt * dt;
+        double q00 = q * dt2 * dt / 3.0;
+        double q01 = q * dt2 / 2.0;
+        double q11 = q * dt;
+
+        x += vx * dt;
+        px00 += dt * (2 * px01 + dt * px11) + q00;
+        px01 += dt * px11 + q01;
+        px11 += q11;
+
+        y += vy * dt;
+        py00 += dt * (2 * py01 + dt * py11) + q00;
+        py01 += dt * py11 + q01;
+        py11 += q11;
+    }
+
+    private void updatePositionX(double innovation, double r) {
+        double s = px00 + r;
+        double k0 = px00 / s;
+        double k1 = px01 / s;
+        x += k0 * innovation;
+        vx += k1 * innovation;
+        px11 -= k1 * px01;
+        px00 *= 1 - k0;
+        px01 *= 1 - k0;
+    }
+
+    private void updatePositionY(double innovation, double r) {
+        double s = py00 + r;
+        double k0 = py00 / s;
+        double k1 = py01 / s;
+        y += k0 * innovation;
+        vy += k1 * innovation;
+        py11 -= k1 * py01;
+        py00 *= 1 - k0;
+        py01 *= 1 - k0;
+    }
+
+    private void updateVelocityX(double innovation, double r) {
+        double s = px11 + r;
+        double k0 = px01 / s;
+        double k1 = px11 / s;
+        x += k0 * innovation;
+        vx += k1 * innovation;
+        px00 -= k0 * px01;
+        px01 -= k0 * px11;
+        px11 *= 1 - k1;
+    }
+
+    private void updateVelocityY(double innovation, double r) {
+        double s = py11 + r;
+        double k0 = py01 / s;
+        double k1 = py11 / s;
+        y += k0 * innovation;
+        vy += k1 * innovation;
+        py00 -= k0 * py01;
+        py01 -= k0 * py11;
+        py11 *= 1 - k1;
+    }
+
+    private void reset(double latDeg, double lonDeg, long timeMs, float accuracyM) {
+        initialized = true;
+        originLat = latDeg;
+        originLon = lonDeg;
+        metersPerDegLon = METERS_PER_DEG * Math.cos(Math.toRadians(latDeg));
+        lastTimeMs = timeMs;
+        consecutiveGated = 0;
+        double r = Math.max(1.0, (double) accuracyM * accuracyM);
+        x = 0;
+        y = 0;
+        vx = 0;
+        vy = 0;
+        px00 = r;
+        py00 = r;
+        px01 = 0;
+        py01 = 0;
+        // Velocidad inicial desconocida: hasta ~30 m/s
+        px11 = 900;
+        py11 = 900;
+    }
+
+    // Velocidad GPS por debajo del umbral de detenido (NaN = desconocida = no)
+    public boolean isStationary(float speedMps) {
+        return speedMps < stationarySpeedMps;
+    }
+
+    // Descarta el estado; el próximo fix reinicia el filtro
+    public void reset() {
+        initialized = false;
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    public double getLatitude() {
+        return originLat + y / METERS_PER_DEG;
+    }
+
+    public double getLongitude() {
+        return originLon + x / metersPerDegLon;
+    }
+
+    public long getTimeMs() {
+        return lastTimeMs;
+    }
+
+    // Velocidad estimada (m/s)
+    public double getSpeedMps() {
+        return Math.hypot(vx, vy);
+    }
+}
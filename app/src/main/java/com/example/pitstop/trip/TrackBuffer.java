@@ -0,0 +1,68 @@
+package com.example.pitstop.trip;
+
+import java.util.Arrays;
+
+/**
+ * Recorrido de un viaje en arrays primitivos (lat/lon en grados, tiempo en ms).
+ * Crece duplicando capacidad, así agregar un fix no asigna objetos.
+ */
+public final class TrackBuffer {
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private double[] lat;
+    private double[] lon;
+    private long[] timeMs;
+    private int size;
+
+    public TrackBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TrackBuffer(int capacity) {
+        capacity = Math.max(1, capacity);
+        lat = new double[capacity];
+        lon = new double[capacity];
+        timeMs = new long[capacity];
+    }
+
+    public void add(double latDeg, double lonDeg, long time) {
+        if (size == timeMs.length) {
+            grow();
+        }
+        lat[size] = latDeg;
+        lon[size] = lonDeg;
+        timeMs[size] = time;
+        size++;
+    }
+
+    private void grow() {
+        int capacity = timeMs.length * 2;
+        lat = Arrays.copyOf(lat, capacity);
+        lon = Arrays.copyOf(lon, capacity);
+        timeMs = Arrays.copyOf(timeMs, capacity);
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double latitude(int index) {
+        return lat[index];
+    }
+
+    public double longitude(int index) {
+        return lon[index];
+    }
+
+    public long timeMs(int index) {
+        return timeMs[index];
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.pitstop.trip;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Formato compacto del recorrido para guardarlo como BLOB en `trips.track`.
+ * - Byte 0: versión del formato ({@link #FORMAT_VERSION}).
+ * - Varint con la cantidad de puntos.
+ * - Por punto: lat y lon en 1e-5 grados (~1 m) y tiempo en segundos, cada uno como
+ *   delta contra el punto anterior (el primero contra 0), zigzag + varint.
+ * Entre fixes consecutivos los deltas suelen caber en 1-2 bytes por campo.
+ */
+public final class TrackCodec {
+    public static final int FORMAT_VERSION = 1;
+    private static final double SCALE = 1e5;
+
+    private TrackCodec() {}
+
+    public static byte[] encode(TrackBuffer track) {
+        // Peor caso: 5 + 5 + 10 bytes por punto
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 + track.size() * 6);
+        out.write(FORMAT_VERSION);
+        writeVarint(out, track.size());
+
+        long prevLat = 0;
+        long prevLon = 0;
+        long prevTime = 0;
+        for (int i = 0; i < track.size(); i++) {
+            long lat = Math.round(track.latitude(i) * SCALE);
+            long lon = Math.round(track.longitude(i) * SCALE);
+            long time = Math.floorDiv(track.timeMs(i), 1000L);
+            writeVarint(out, zigzag(lat - prevLat));
+            writeVarint(out, zigzag(lon - prevLon));
+            writeVarint(out, zigzag(time - prevTime));
+            prevLat = lat;
+            prevLon = lon;
+            prevTime = time;
+        }
+        return out.toByteArray();
+    }
+
+    public static TrackBuffer decode(byte[] data) {
+        if (data == null || data.length == 0) {
+            return new TrackBuffer(1);
+        }
+        int[] position = {0};
+        int version = data[position[0]++];
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Formato de recorrido no soportado: " + version);
+        }
+        int count = (int) readVarint(data, position);
+        TrackBuffer track = new TrackBuffer(count);
+
+        long lat = 0;
+        long lon = 0;
+        long time = 0;
+        for (int i = 0; i < count; i++) {
+            lat += unzigzag(readVarint(data, position));
+            lon += unzigzag(readVarint(data, position));
+            time += unzigzag(readVarint(data, position));
+            track.add(lat / SCALE, lon / SCALE, time * 1000L);
+        }
+        return track;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(byte[] data, int[] position) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            if (position[0] >= data.length || shift > 63) {
+                throw new IllegalArgumentException("Recorrido truncado o corrupto");
+            }
+            byte b = data[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.pitstop.trip;
+
+import java.util.Arrays;
+
+/**
+ * Simplificación Douglas–Peucker del recorrido antes de guardarlo.
+ * Conserva los puntos que se alejan más de `toleranceM` del tramo simplificado; en rectas
+ * quedan casi solo los extremos y en curvas los vértices. Iterativa (pila de índices) para
+ * no desbordar el stack con recorridos largos; las distancias se miden sobre una proyección
+ * equirectangular local, suficiente a escala de un viaje.
+ */
+public final class TrackSimplifier {
+    public static final double DEFAULT_TOLERANCE_M = 10.0;
+
+    private TrackSimplifier() {}
+
+    public static TrackBuffer simplify(TrackBuffer track, double toleranceM) {
+        int n = track.size();
+        if (n <= 2) {
+            return copy(track, null);
+        }
+
+        // Proyección local en metros alrededor del primer punto
+        double metersPerRad = DistanceAccumulator.EARTH_RADIUS_M;
+        double cosLat0 = Math.cos(Math.toRadians(track.latitude(0)));
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = Math.toRadians(track.longitude(i) - track.longitude(0)) * cosLat0 * metersPerRad;
+            y[i] = Math.toRadians(track.latitude(i) - track.latitude(0)) * metersPerRad;
+        }
+
+        boolean[] keep = new boolean[n];
+        keep[0] = true;
+        keep[n - 1] = true;
+        double toleranceSq = toleranceM * toleranceM;
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = n - 1;
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+            int farthest = -1;
+            double farthestSq = toleranceSq;
+            for (int i = first + 1; i < last; i++) {
+                double d = segmentDistanceSq(x[i], y[i], x[first], y[first], x[last], y[last]);
+                if (d > farthestSq) {
+                    farthestSq = d;
+                    farthest = i;
+                }
+            }
+            if (farthest < 0) {
+                continue;
+            }
+            keep[farthest] = true;
+            if (top + 4 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[top++] = first;
+            stack[top++] = farthest;
+            stack[top++] = farthest;
+            stack[top++] = last;
+        }
+        return copy(track, keep);
+    }
+
+    // Distancia al cuadrado del punto (px, py) al segmento (ax, ay)-(bx, by)
+    private static double segmentDistanceSq(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSq = dx * dx + dy * dy;
+        double t = lengthSq == 0 ? 0 : ((px - ax) * dx + (py - ay) * dy) / lengthSq;
+        t = Math.max(0, Math.min(1, t));
+        double ex = px - (ax + t * dx);
+        double ey = py - (ay + t * dy);
+        return ex * ex + ey * ey;
+    }
+
+    private static TrackBuffer copy(TrackBuffer track, boolean[] keep) {
+        TrackBuffer result = new TrackBuffer(track.size());
+        for (int i = 0; i < track.size(); i++) {
+            if (keep == null || keep[i]) {
+                result.add(track.latitude(i), track.longitude(i), track.timeMs(i));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.pitstop.trip;
+
+/**
+ * Etapas del cálculo de distancia de un viaje, en Java puro:
+ * precisión mínima -> {@link KalmanLocationFilter} -> {@link DistanceAccumulator}.
+ * Los fixes imprecisos no entran al filtro; el acumulador recibe la posición filtrada
+ * y sigue descartando saltos imposibles. Detenido (según la velocidad GPS) no se suma
+ * distancia. Sin asignaciones por fix.
+ */
+public final class TripDistanceEstimator {
+    private final KalmanLocationFilter filter;
+    private final DistanceAccumulator accumulator;
+
+    public TripDistanceEstimator() {
+        this(new KalmanLocationFilter(), new DistanceAccumulator());
+    }
+
+    public TripDistanceEstimator(KalmanLocationFilter filter, DistanceAccumulator accumulator) {
+        this.filter = filter;
+        this.accumulator = accumulator;
+    }
+
+    /**
+     * Procesa un fix crudo (`speedMps` NaN si no trae velocidad).
+     * Devuelve true si la posición filtrada se sumó al viaje.
+     */
+    public boolean offer(double latDeg, double lonDeg, long timeMs, float accuracyM, float speedMps) {
+        if (!accumulator.isAccurateEnough(accuracyM)) {
+            accumulator.offer(latDeg, lonDeg, timeMs, accuracyM);
+            return false;
+        }
+        if (!filter.update(latDeg, lonDeg, timeMs, accuracyM, speedMps)) {
+            return false;
+        }
+        // Detenido: el filtro sigue la posición pero no se suma distancia
+        if (filter.isStationary(speedMps)) {
+            return false;
+        }
+        return accumulator.offer(filter.getLatitude(), filter.getLongitude(), timeMs, accuracyM);
+    }
+
+    public void reset() {
+        filter.reset();
+        accumulator.reset();
+    }
+
+    // Retoma desde un checkpoint; el filtro arranca de nuevo en el próximo fix
+    public void restore(double distanceM, double lastLatDeg, double lastLonDeg, long lastTimeMs) {
+        filter.reset();
+        if (lastTimeMs > 0) {
+            accumulator.restore(distanceM, lastLatDeg, lastLonDeg, lastTimeMs);
+        } else {
+            accumulator.restore(distanceM);
+        }
+    }
+
+    public DistanceAccumulator getAccumulator() {
+        return accumulator;
+    }
+
+    // Última posición sumada al viaje (ya filtrada)
+    public double getLatitude() {
+        return accumulator.getLastLatitude();
+    }
+
+    public double getLongitude() {
+        return accumulator.getLastLongitude();
+    }
+
+    public double getDistanceMeters() {
+        return accumulator.getDistanceMeters();
+    }
+
+    public double getDistanceKm() {
+        return accumulator.getDistanceKm();
+    }
+}
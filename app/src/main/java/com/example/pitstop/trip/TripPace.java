@@ -0,0 +1,38 @@
+package com.example.pitstop.trip;
+
+/**
+ * Ritmo del viaje y el intervalo de GPS que le corresponde.
+ * Detenido se piden pocos fixes; en ruta se espacian un poco porque los tramos son rectos
+ * y la cuerda entre fixes casi no pierde distancia. La entrega en lotes (`maxDelayMs`)
+ * deja dormir al CPU entre entregas.
+ */
+public enum TripPace {
+    STOPPED(15_000, 60_000),
+    CITY(2_000, 10_000),
+    HIGHWAY(4_000, 20_000);
+
+    public static final float STOPPED_BELOW_MPS = 1.0f;
+    // ~80 km/h
+    public static final float HIGHWAY_ABOVE_MPS = 22.0f;
+    // Se pasa a STOPPED solo tras este tiempo quieto (semáforos cortos no cuentan)
+    public static final long STOP_CONFIRM_MS = 60_000;
+
+    public final long intervalMs;
+    public final long maxDelayMs;
+
+    TripPace(long intervalMs, long maxDelayMs) {
+        this.intervalMs = intervalMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    /**
+     * Ritmo para la velocidad actual.
+     * @param slowSinceMs tiempo que lleva por debajo de {@link #STOPPED_BELOW_MPS} (0 si se mueve)
+     */
+    public static TripPace forSpeed(float speedMps, long slowSinceMs) {
+        if (speedMps < STOPPED_BELOW_MPS) {
+            return slowSinceMs >= STOP_CONFIRM_MS ? STOPPED : CITY;
+        }
+        return speedMps > HIGHWAY_ABOVE_MPS ? HIGHWAY : CITY;
+    }
+}
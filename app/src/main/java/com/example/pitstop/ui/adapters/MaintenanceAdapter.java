@@ -6,32 +6,33 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.pitstop.R;
 import com.example.pitstop.database.entity.Maintenance;
+import com.example.pitstop.model.MaintenanceRowModel;
 
-import java.text.NumberFormat;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
-import java.util.Locale;
 
 /**
  * Adapter para la lista de mantenimientos (vista de lista).
  * Muestra tipo, fecha, descripción, km y costo; avisa clics mediante listener.
+ * Recibe el historial paginado (`PagingData`) ya convertido a {@link MaintenanceRowModel},
+ * así el enlace solo asigna textos preformateados.
+ * Un cambio de km solo re-enlaza el texto del próximo servicio (payload).
+ * Sin stable ids (`PagingDataAdapter` no los admite): la identidad de cada fila la da el
+ * `DiffUtil.ItemCallback`, que compara ids.
  */
-public class MaintenanceAdapter extends RecyclerView.Adapter<MaintenanceAdapter.ViewHolder> {
-    private List<Maintenance> maintenances = new ArrayList<>();
+public class MaintenanceAdapter extends PagingDataAdapter<MaintenanceRowModel, MaintenanceAdapter.ViewHolder> {
     private OnMaintenanceClickListener listener;
-    private int currentKm = 0;
 
     public interface OnMaintenanceClickListener {
         void onMaintenanceClick(Maintenance maintenance);
     }
 
     public MaintenanceAdapter(OnMaintenanceClickListener listener) {
+        super(new MaintenanceRowDiffCallback());
         this.listener = listener;
     }
 
@@ -45,24 +46,21 @@ public class MaintenanceAdapter extends RecyclerView.Adapter<MaintenanceAdapter.
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Maintenance maintenance = maintenances.get(position);
-        holder.bind(maintenance);
+        MaintenanceRowModel row = getItem(position);
+        if (row != null) {
+            holder.bind(row);
+        }
     }
 
     @Override
-    public int getItemCount() {
-        return maintenances.size();
-    }
-
-    public void updateMaintenances(List<Maintenance> newMaintenances) {
-        this.maintenances = newMaintenances;
-        notifyDataSetChanged();
-    }
-    
-    // Actualiza el km actual para calcular información contextual
-    public void updateCurrentKm(int currentKm) {
-        this.currentKm = currentKm;
-        notifyDataSetChanged();
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        // La fila ya está cargada: peek no envía un hint de acceso (ni lo aloca) en cada cambio de km
+        MaintenanceRowModel row = MaintenanceRowDiffCallback.onlyRemainingKm(payloads) ? peek(position) : null;
+        if (row != null) {
+            holder.bindNextServiceInfo(row);
+        } else {
+            super.onBindViewHolder(holder, position, payloads);
+        }
     }
 
     class ViewHolder extends RecyclerView.ViewHolder {
@@ -85,51 +83,25 @@ public class MaintenanceAdapter extends RecyclerView.Adapter<MaintenanceAdapter.
             itemView.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    Maintenance maintenance = maintenances.get(position);
-                    System.out.println("DEBUG: Maintenance clicked - ID: " + maintenance.getId() + ", Type: " + maintenance.getType());
-                    listener.onMaintenanceClick(maintenance);
+                    MaintenanceRowModel row = getItem(position);
+                    if (row == null) return;
+                    listener.onMaintenanceClick(row.getMaintenance());
                 }
             });
         }
 
-        public void bind(Maintenance maintenance) {
-            maintenanceType.setText(maintenance.getType());
-            
-            // Formatear fecha dd/MM/yyyy
-            SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
-            maintenanceDate.setText(dateFormat.format(new Date(maintenance.getDate())));
-            
-            maintenanceDescription.setText(maintenance.getDescription());
-            
-            // Formatear km
-            NumberFormat formatter = NumberFormat.getNumberInstance(Locale.getDefault());
-            maintenanceKm.setText(formatter.format(maintenance.getExecutedKm()) + " km");
-            
-            // Formatear costo
-            if (maintenance.getCost() != null) {
-                maintenanceCost.setText("$" + String.format(Locale.getDefault(), "%.2f", maintenance.getCost()));
-            } else {
-                maintenanceCost.setText("N/A");
-            }
-            
-            // Información sobre próximo servicio basada en km actual
-            if (maintenance.getExecutedKm() > 0) {
-                int nextServiceKm = maintenance.getNextServiceKm();
-                int remaining = nextServiceKm - currentKm;
-                if (remaining > 0) {
-                    nextServiceInfo.setText("Próximo: " + formatter.format(nextServiceKm) + " km (Faltan " + formatter.format(remaining) + " km)");
-                } else {
-                    nextServiceInfo.setText("¡Vencido! (Próximo: " + formatter.format(nextServiceKm) + " km)");
-                }
-            } else {
-                int targetKm = maintenance.getPeriodicityKm();
-                int remaining = targetKm - currentKm;
-                if (remaining > 0) {
-                    nextServiceInfo.setText("Objetivo: " + formatter.format(targetKm) + " km (Faltan " + formatter.format(remaining) + " km)");
-                } else {
-                    nextServiceInfo.setText("¡Listo para hacer! (Objetivo: " + formatter.format(targetKm) + " km)");
-                }
-            }
+        public void bind(MaintenanceRowModel row) {
+            maintenanceType.setText(row.getTypeText());
+            maintenanceDate.setText(row.getDateText());
+            maintenanceDescription.setText(row.getDescriptionText());
+            maintenanceKm.setText(row.getExecutedKmText());
+            maintenanceCost.setText(row.getCostText());
+            bindNextServiceInfo(row);
+        }
+
+        // Información sobre próximo servicio basada en km actual
+        public void bindNextServiceInfo(MaintenanceRowModel row) {
+            nextServiceInfo.setText(row.getNextServiceInfoText());
         }
     }
 }
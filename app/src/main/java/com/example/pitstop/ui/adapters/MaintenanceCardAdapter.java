@@ -7,25 +7,23 @@ import android.widget.PopupMenu;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.pitstop.R;
 import com.example.pitstop.database.entity.Maintenance;
-import com.example.pitstop.model.MaintenanceType;
+import com.example.pitstop.model.MaintenanceRowModel;
 
-import java.text.NumberFormat;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 
 /**
  * Adapter de tarjetas de mantenimiento para el dashboard.
  * Muestra color por tipo, km restantes y permite acciones (editar, completar, borrar).
+ * Recibe filas ya formateadas ({@link MaintenanceRowModel}); DiffUtil compara en segundo plano
+ * y un cambio de km solo re-enlaza los textos de km restantes (payload).
  */
-public class MaintenanceCardAdapter extends RecyclerView.Adapter<MaintenanceCardAdapter.ViewHolder> {
-    private List<Maintenance> maintenances = new ArrayList<>();
+public class MaintenanceCardAdapter extends ListAdapter<MaintenanceRowModel, MaintenanceCardAdapter.ViewHolder> {
     private OnMaintenanceActionListener listener;
-    private int currentKm = 0;
 
     public interface OnMaintenanceActionListener {
         void onEditMaintenance(Maintenance maintenance);
@@ -34,7 +32,9 @@ public class MaintenanceCardAdapter extends RecyclerView.Adapter<MaintenanceCard
     }
 
     public MaintenanceCardAdapter(OnMaintenanceActionListener listener) {
+        super(new MaintenanceRowDiffCallback());
         this.listener = listener;
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -47,23 +47,25 @@ public class MaintenanceCardAdapter extends RecyclerView.Adapter<MaintenanceCard
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Maintenance maintenance = maintenances.get(position);
-        holder.bind(maintenance);
+        holder.bind(getItem(position));
     }
 
     @Override
-    public int getItemCount() {
-        return maintenances.size();
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (MaintenanceRowDiffCallback.onlyRemainingKm(payloads)) {
+            holder.bindRemainingKm(getItem(position));
+        } else {
+            super.onBindViewHolder(holder, position, payloads);
+        }
     }
 
-    public void updateMaintenances(List<Maintenance> newMaintenances) {
-        this.maintenances = newMaintenances;
-        notifyDataSetChanged();
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getId();
     }
-    
-    public void updateCurrentKm(int currentKm) {
-        this.currentKm = currentKm;
-        notifyDataSetChanged();
+
+    public void updateMaintenances(List<MaintenanceRowModel> rows) {
+        submitList(rows);
     }
 
     class ViewHolder extends RecyclerView.ViewHolder {
@@ -72,6 +74,10 @@ public class MaintenanceCardAdapter extends RecyclerView.Adapter<MaintenanceCard
         private TextView remainingKm;
         private TextView nextServiceKm;
         private TextView actionButton;
+        // Colores resueltos una vez por ViewHolder
+        private final int pendingColor;
+        private final int overdueColor;
+        private final int readyColor;
 
         public ViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -80,55 +86,44 @@ public class MaintenanceCardAdapter extends RecyclerView.Adapter<MaintenanceCard
             remainingKm = itemView.findViewById(R.id.remaining_km);
             nextServiceKm = itemView.findViewById(R.id.next_service_km);
             actionButton = itemView.findViewById(R.id.action_button);
+            pendingColor = itemView.getContext().getColor(android.R.color.black);
+            overdueColor = itemView.getContext().getColor(android.R.color.holo_red_dark);
+            readyColor = itemView.getContext().getColor(android.R.color.holo_orange_dark);
 
             actionButton.setOnClickListener(v -> showPopupMenu(v, getAdapterPosition()));
         }
 
-        public void bind(Maintenance maintenance) {
-            maintenanceType.setText(maintenance.getType());
-
-            // Obtener color del tipo de mantenimiento
-            MaintenanceType type = MaintenanceType.fromString(maintenance.getType());
-            colorIndicator.setBackgroundColor(type.getColor());
-
-            // Calcular kilómetros restantes usando el kilometraje actual
-            NumberFormat formatter = NumberFormat.getNumberInstance(Locale.getDefault());
-            
-            if (maintenance.getExecutedKm() > 0) {
-                int nextServiceKmValue = maintenance.getNextServiceKm();
-                int remaining = nextServiceKmValue - currentKm;
-                
-                if (remaining > 0) {
-                    remainingKm.setText("Faltan " + formatter.format(remaining) + " km");
-                    remainingKm.setTextColor(itemView.getContext().getColor(android.R.color.black));
-                } else {
-                    remainingKm.setText("¡Vencido!");
-                    remainingKm.setTextColor(itemView.getContext().getColor(android.R.color.holo_red_dark));
-                }
-                
-                nextServiceKm.setText("Próximo: " + formatter.format(nextServiceKmValue) + " km");
-            } else {
-                int targetKm = maintenance.getPeriodicityKm();
-                int remaining = targetKm - currentKm;
-                
-                if (remaining > 0) {
-                    remainingKm.setText("Faltan " + formatter.format(remaining) + " km");
-                    remainingKm.setTextColor(itemView.getContext().getColor(android.R.color.black));
-                } else {
-                    remainingKm.setText("¡Listo para hacer!");
-                    remainingKm.setTextColor(itemView.getContext().getColor(android.R.color.holo_orange_dark));
-                }
-                
-                nextServiceKm.setText("Objetivo: " + formatter.format(targetKm) + " km");
+        public void bind(MaintenanceRowModel row) {
+            maintenanceType.setText(row.getTypeText());
+            colorIndicator.setBackgroundColor(row.getTypeColor());
+            bindRemainingKm(row);
+        }
+
+        // Textos que dependen del km actual
+        public void bindRemainingKm(MaintenanceRowModel row) {
+            remainingKm.setText(row.getRemainingText());
+            remainingKm.setTextColor(colorFor(row.getRemainingState()));
+            nextServiceKm.setText(row.getServiceTargetText());
+        }
+
+        private int colorFor(MaintenanceRowModel.RemainingState state) {
+            switch (state) {
+                case OVERDUE:
+                    return overdueColor;
+                case READY:
+                    return readyColor;
+                default:
+                    return pendingColor;
             }
         }
 
         private void showPopupMenu(View view, int position) {
+            if (position == RecyclerView.NO_POSITION) return;
+            Maintenance maintenance = getItem(position).getMaintenance();
             PopupMenu popup = new PopupMenu(view.getContext(), view);
             popup.getMenuInflater().inflate(R.menu.maintenance_actions, popup.getMenu());
 
             popup.setOnMenuItemClickListener(item -> {
-                Maintenance maintenance = maintenances.get(position);
                 int itemId = item.getItemId();
 
                 if (itemId == R.id.action_edit) {
@@ -0,0 +1,45 @@
+package com.example.pitstop.ui.adapters;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.pitstop.model.MaintenanceRowModel;
+
+import java.util.List;
+
+/**
+ * Comparador de filas de mantenimiento para DiffUtil.
+ * Identidad por `id`; contenido por los textos ya formateados.
+ * Si solo cambiaron los km restantes devuelve {@link #PAYLOAD_REMAINING_KM}
+ * para que el adapter re-enlace únicamente esos textos.
+ */
+public class MaintenanceRowDiffCallback extends DiffUtil.ItemCallback<MaintenanceRowModel> {
+    public static final Object PAYLOAD_REMAINING_KM = new Object();
+
+    @Override
+    public boolean areItemsTheSame(@NonNull MaintenanceRowModel oldItem, @NonNull MaintenanceRowModel newItem) {
+        return oldItem.getId() == newItem.getId();
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull MaintenanceRowModel oldItem, @NonNull MaintenanceRowModel newItem) {
+        return oldItem.sameStaticContent(newItem) && oldItem.sameRemaining(newItem);
+    }
+
+    @Nullable
+    @Override
+    public Object getChangePayload(@NonNull MaintenanceRowModel oldItem, @NonNull MaintenanceRowModel newItem) {
+        return oldItem.sameStaticContent(newItem) ? PAYLOAD_REMAINING_KM : null;
+    }
+
+    // Recorrido por índice: se llama en cada bind y no debe crear iteradores
+    static boolean onlyRemainingKm(List<Object> payloads) {
+        int size = payloads.size();
+        if (size == 0) return false;
+        for (int i = 0; i < size; i++) {
+            if (payloads.get(i) != PAYLOAD_REMAINING_KM) return false;
+        }
+        return true;
+    }
+}
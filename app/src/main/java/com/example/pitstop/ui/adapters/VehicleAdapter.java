@@ -8,22 +8,40 @@ import android.widget.PopupMenu;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.pitstop.R;
 import com.example.pitstop.database.entity.Vehicle;
+import com.example.pitstop.model.DisplayFormatters;
 
-import java.text.NumberFormat;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
+import java.util.Objects;
 
 /**
  * Adapter para la lista de vehículos.
  * Maneja selección, edición y eliminación a través de un listener de acciones.
+ * Diff en segundo plano con DiffUtil.
  */
-public class VehicleAdapter extends RecyclerView.Adapter<VehicleAdapter.VehicleViewHolder> {
-    private List<Vehicle> vehicles = new ArrayList<>();
+public class VehicleAdapter extends ListAdapter<Vehicle, VehicleAdapter.VehicleViewHolder> {
+    private static final DiffUtil.ItemCallback<Vehicle> DIFF_CALLBACK = new DiffUtil.ItemCallback<Vehicle>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Vehicle oldItem, @NonNull Vehicle newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Vehicle oldItem, @NonNull Vehicle newItem) {
+            return oldItem.getYear() == newItem.getYear()
+                && oldItem.getCurrentKm() == newItem.getCurrentKm()
+                && oldItem.isCurrent() == newItem.isCurrent()
+                && Objects.equals(oldItem.getName(), newItem.getName())
+                && Objects.equals(oldItem.getBrand(), newItem.getBrand())
+                && Objects.equals(oldItem.getModel(), newItem.getModel());
+        }
+    };
+
     private OnVehicleActionListener listener;
 
     public interface OnVehicleActionListener {
@@ -33,7 +51,9 @@ public class VehicleAdapter extends RecyclerView.Adapter<VehicleAdapter.VehicleV
     }
 
     public VehicleAdapter(OnVehicleActionListener listener) {
+        super(DIFF_CALLBACK);
         this.listener = listener;
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -46,18 +66,16 @@ public class VehicleAdapter extends RecyclerView.Adapter<VehicleAdapter.VehicleV
 
     @Override
     public void onBindViewHolder(@NonNull VehicleViewHolder holder, int position) {
-        Vehicle vehicle = vehicles.get(position);
-        holder.bind(vehicle);
+        holder.bind(getItem(position));
     }
 
     @Override
-    public int getItemCount() {
-        return vehicles.size();
+    public long getItemId(int position) {
+        return getItem(position).getId();
     }
 
     public void updateVehicles(List<Vehicle> newVehicles) {
-        this.vehicles = newVehicles != null ? newVehicles : new ArrayList<>();
-        notifyDataSetChanged();
+        submitList(newVehicles);
     }
 
     class VehicleViewHolder extends RecyclerView.ViewHolder {
@@ -79,7 +97,7 @@ public class VehicleAdapter extends RecyclerView.Adapter<VehicleAdapter.VehicleV
             itemView.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION) {
-                    listener.onSelectVehicle(vehicles.get(position));
+                    listener.onSelectVehicle(getItem(position));
                 }
             });
 
@@ -91,19 +109,19 @@ public class VehicleAdapter extends RecyclerView.Adapter<VehicleAdapter.VehicleV
             vehicleName.setText(vehicle.getDisplayName());
             vehicleDetails.setText(vehicle.getFullName());
             
-            NumberFormat formatter = NumberFormat.getNumberInstance(Locale.getDefault());
-            currentKm.setText(formatter.format(vehicle.getCurrentKm()) + " km");
+            currentKm.setText(DisplayFormatters.current().formatKm(vehicle.getCurrentKm()));
 
             // Icono por defecto (puedes personalizar según tipo)
             vehicleIcon.setImageResource(R.drawable.ic_car);
         }
 
         private void showPopupMenu(View view, int position) {
+            if (position == RecyclerView.NO_POSITION) return;
+            Vehicle vehicle = getItem(position);
             PopupMenu popup = new PopupMenu(view.getContext(), view);
             popup.getMenuInflater().inflate(R.menu.vehicle_actions, popup.getMenu());
 
             popup.setOnMenuItemClickListener(item -> {
-                Vehicle vehicle = vehicles.get(position);
                 int itemId = item.getItemId();
 
                 if (itemId == R.id.action_edit) {
@@ -22,16 +22,12 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.pitstop.R;
 import com.example.pitstop.database.entity.Maintenance;
-import com.example.pitstop.database.entity.Vehicle;
+import com.example.pitstop.model.DashboardState;
 import com.example.pitstop.ui.adapters.MaintenanceCardAdapter;
 import com.example.pitstop.viewmodel.DashboardViewModel;
-import com.example.pitstop.viewmodel.VehicleViewModel;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 
-import java.text.NumberFormat;
-import java.util.List;
-import java.util.Locale;
 
 /**
  * Fragmento del panel principal (Dashboard).
@@ -41,7 +37,6 @@ import java.util.Locale;
  */
 public class DashboardFragment extends Fragment {
     private DashboardViewModel viewModel;
-    private VehicleViewModel vehicleViewModel;
     private TextView currentKmText;
     private TextView currentVehicleName;
     private TextView currentVehicleDetails;
@@ -67,7 +62,6 @@ public class DashboardFragment extends Fragment {
         super.onViewCreated(view, savedInstanceState);
         
         viewModel = new ViewModelProvider(this).get(DashboardViewModel.class);
-        vehicleViewModel = new ViewModelProvider(this).get(VehicleViewModel.class);
         
         initViews(view);
         setupRecyclerViews();
@@ -175,43 +169,8 @@ public class DashboardFragment extends Fragment {
 
     // Suscribe observadores al ViewModel para refrescar la UI con datos
     private void observeViewModel() {
-        // Observar vehículo actual
-        vehicleViewModel.getCurrentVehicle().observe(getViewLifecycleOwner(), vehicle -> {
-            if (vehicle != null) {
-                currentVehicleName.setText(vehicle.getDisplayName());
-                currentVehicleDetails.setText(vehicle.getFullName());
-            } else {
-                currentVehicleName.setText("Sin vehículo");
-                currentVehicleDetails.setText("Agrega un vehículo para comenzar");
-            }
-        });
-
-        viewModel.getCurrentKm().observe(getViewLifecycleOwner(), currentKm -> {
-            if (currentKm != null) {
-                NumberFormat formatter = NumberFormat.getNumberInstance(Locale.getDefault());
-                currentKmText.setText(formatter.format(currentKm) + " km");
-                
-                // Actualizar los adapters con el nuevo kilometraje
-                upcomingAdapter.updateCurrentKm(currentKm);
-                recentAdapter.updateCurrentKm(currentKm);
-            }
-        });
-
-        viewModel.getUpcomingMaintenance().observe(getViewLifecycleOwner(), maintenances -> {
-            if (maintenances != null) {
-                upcomingAdapter.updateMaintenances(maintenances);
-            }
-        });
-
-        viewModel.getAllMaintenance().observe(getViewLifecycleOwner(), maintenances -> {
-            if (maintenances != null) {
-                // Mostrar solamente los últimos 5 mantenimientos
-                List<Maintenance> recentMaintenances = maintenances.size() > 5 
-                    ? maintenances.subList(0, 5) 
-                    : maintenances;
-                recentAdapter.updateMaintenances(recentMaintenances);
-            }
-        });
+        // Un solo estado por cambio: vehículo, km y ambas listas se pintan juntos
+        viewModel.getDashboardState().observe(getViewLifecycleOwner(), this::render);
 
         viewModel.getErrorMessage().observe(getViewLifecycleOwner(), error -> {
             if (error != null) {
@@ -219,6 +178,17 @@ public class DashboardFragment extends Fragment {
             }
         });
     }
+
+    private void render(DashboardState state) {
+        if (state == null) {
+            return;
+        }
+        currentVehicleName.setText(state.getVehicleName());
+        currentVehicleDetails.setText(state.getVehicleDetails());
+        currentKmText.setText(state.getCurrentKmText());
+        upcomingAdapter.updateMaintenances(state.getUpcomingRows());
+        recentAdapter.updateMaintenances(state.getRecentRows());
+    }
     
     // Verifica el permiso de notificaciones en Android 13+
     private boolean checkNotificationPermission() {
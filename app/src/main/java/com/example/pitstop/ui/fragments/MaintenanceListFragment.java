@@ -1,7 +1,8 @@
 package com.example.pitstop.ui.fragments;
 
 import android.os.Bundle;
-import android.text.TextUtils;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -12,11 +13,13 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.Navigation;
+import androidx.paging.LoadState;
+import androidx.paging.PagingData;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.pitstop.R;
-import com.example.pitstop.database.entity.Maintenance;
+import com.example.pitstop.model.MaintenanceRowModel;
 import com.example.pitstop.ui.adapters.MaintenanceAdapter;
 import com.example.pitstop.viewmodel.DashboardViewModel;
 import com.example.pitstop.viewmodel.MaintenanceViewModel;
@@ -27,10 +30,12 @@ import com.google.android.material.textfield.TextInputLayout;
 
 import java.util.List;
 
+import kotlin.Unit;
+
 /**
  * Lista de mantenimientos.
- * Permite buscar por tipo, ver todos, navegar al detalle y crear nuevos.
- * Además reacciona al kilometraje actual para cálculos en el adapter.
+ * Permite buscar por texto (tipo, descripción y notas), ver todos (historial paginado), navegar al detalle y crear nuevos.
+ * Además reacciona al kilometraje actual: el ViewModel entrega filas ya formateadas para ese km.
  */
 public class MaintenanceListFragment extends Fragment {
     private MaintenanceViewModel viewModel;
@@ -43,6 +48,8 @@ public class MaintenanceListFragment extends Fragment {
     private FloatingActionButton fabAddMaintenance;
     
     private MaintenanceAdapter adapter;
+    // true mientras se muestran resultados de búsqueda en lugar del historial paginado
+    private boolean showingSearchResults = false;
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
@@ -86,6 +93,14 @@ public class MaintenanceListFragment extends Fragment {
         
         maintenanceRecycler.setLayoutManager(new LinearLayoutManager(requireContext()));
         maintenanceRecycler.setAdapter(adapter);
+
+        // Estado vacío cuando la carga inicial termina sin elementos
+        adapter.addLoadStateListener(loadStates -> {
+            if (loadStates.getRefresh() instanceof LoadState.NotLoading) {
+                updateEmptyState(adapter.getItemCount() == 0);
+            }
+            return Unit.INSTANCE;
+        });
     }
 
     // Listeners para crear mantenimiento y ejecutar búsqueda
@@ -103,47 +118,58 @@ public class MaintenanceListFragment extends Fragment {
             performSearch();
             return true;
         });
+
+        // Búsqueda mientras se escribe; el ViewModel aplica el debounce
+        searchInput.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {}
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                viewModel.setSearchQuery(s.toString());
+            }
+        });
     }
     
-    // Ejecuta la búsqueda según el texto; si está vacío, muestra todos
+    // Ejecuta la búsqueda de inmediato; si el texto está vacío, vuelve al historial paginado
     private void performSearch() {
-        String searchQuery = searchInput.getText().toString().trim();
-        if (!TextUtils.isEmpty(searchQuery)) {
-            // Observar resultados de búsqueda
-            viewModel.searchMaintenanceByType(searchQuery).observe(getViewLifecycleOwner(), maintenances -> {
-                if (maintenances != null) {
-                    adapter.updateMaintenances(maintenances);
-                    updateEmptyState(maintenances.isEmpty());
-                }
-            });
-        } else {
-            // Mostrar todos los mantenimientos
-            viewModel.getAllMaintenance().observe(getViewLifecycleOwner(), maintenances -> {
-                if (maintenances != null) {
-                    adapter.updateMaintenances(maintenances);
-                    updateEmptyState(maintenances.isEmpty());
-                }
-            });
+        viewModel.submitSearchQuery(searchInput.getText() != null ? searchInput.getText().toString() : "");
+    }
+
+    // Muestra resultados de búsqueda o, si no hay búsqueda activa (null), el historial paginado
+    private void showSearchResults(List<MaintenanceRowModel> rows) {
+        if (rows != null) {
+            showingSearchResults = true;
+            adapter.submitData(getViewLifecycleOwner().getLifecycle(), PagingData.from(rows));
+        } else if (showingSearchResults) {
+            showingSearchResults = false;
+            PagingData<MaintenanceRowModel> pagingData = viewModel.getPagedRows().getValue();
+            if (pagingData != null) {
+                adapter.submitData(getViewLifecycleOwner().getLifecycle(), pagingData);
+            }
         }
     }
 
-    // Observa kilometraje actual y lista completa para actualizar la UI
+    // Observa kilometraje actual y el historial paginado para actualizar la UI
     private void observeViewModel() {
-        // Observar el kilometraje actual para actualizar los adapters
+        // El km actual llega al ViewModel, que vuelve a formatear las filas fuera del hilo principal
         dashboardViewModel.getCurrentKm().observe(getViewLifecycleOwner(), currentKm -> {
             if (currentKm != null) {
-                adapter.updateCurrentKm(currentKm);
+                viewModel.setCurrentKm(currentKm);
             }
         });
         
-        viewModel.getAllMaintenance().observe(getViewLifecycleOwner(), maintenances -> {
-            if (maintenances != null) {
-                adapter.updateMaintenances(maintenances);
-                updateEmptyState(maintenances.isEmpty());
+        viewModel.getPagedRows().observe(getViewLifecycleOwner(), pagingData -> {
+            if (pagingData != null && !showingSearchResults) {
+                adapter.submitData(getViewLifecycleOwner().getLifecycle(), pagingData);
             }
         });
 
-        // Remover la observación de búsqueda vacía que causaba problemas
+        // Un único observer para la búsqueda: el ViewModel descarta las consultas obsoletas
+        viewModel.getSearchResults().observe(getViewLifecycleOwner(), this::showSearchResults);
 
         viewModel.getErrorMessage().observe(getViewLifecycleOwner(), error -> {
             if (error != null) {
@@ -0,0 +1,107 @@
+package com.example.pitstop.ui.fragments;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+
+import com.example.pitstop.R;
+import com.example.pitstop.concurrent.AppExecutors;
+import com.example.pitstop.concurrent.InstrumentedExecutor;
+import com.example.pitstop.database.metrics.QueryMetrics;
+import com.google.android.material.button.MaterialButton;
+
+import org.json.JSONException;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Pantalla de depuración con las métricas de SQL y de los executors.
+ * Muestra p50/p95/p99, filas y llamadas por sentencia y permite exportarlas como JSON.
+ */
+public class QueryMetricsFragment extends Fragment {
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    private TextView executorStats;
+    private TextView statementStats;
+
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
+                             @Nullable Bundle savedInstanceState) {
+        return inflater.inflate(R.layout.fragment_query_metrics, container, false);
+    }
+
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+
+        executorStats = view.findViewById(R.id.executor_stats);
+        statementStats = view.findViewById(R.id.statement_stats);
+        MaterialButton exportButton = view.findViewById(R.id.export_button);
+        MaterialButton resetButton = view.findViewById(R.id.reset_button);
+
+        exportButton.setOnClickListener(v -> exportJson());
+        resetButton.setOnClickListener(v -> {
+            QueryMetrics.getInstance().reset();
+            refresh();
+        });
+    }
+
+    @Override
+    public void onResume() {
+        super.onResume();
+        refresh();
+    }
+
+    // Las métricas son un snapshot en memoria; se leen de nuevo cada vez que la pantalla vuelve
+    private void refresh() {
+        StringBuilder executors = new StringBuilder();
+        for (InstrumentedExecutor.Stats stats : AppExecutors.getInstance().getStats()) {
+            executors.append(String.format(Locale.US,
+                "%s: %d tareas, cola %d (máx %d), espera %.1f ms (máx %.1f), ejecución %.1f ms (máx %.1f)%n",
+                stats.name, stats.completed, stats.queueDepth, stats.maxQueueDepth,
+                stats.avgWaitNanos / NANOS_PER_MS, stats.maxWaitNanos / NANOS_PER_MS,
+                stats.avgRunNanos / NANOS_PER_MS, stats.maxRunNanos / NANOS_PER_MS));
+        }
+        executorStats.setText(executors.toString().trim());
+
+        List<QueryMetrics.Snapshot> snapshots = QueryMetrics.getInstance().snapshot();
+        if (snapshots.isEmpty()) {
+            statementStats.setText("Sin consultas registradas");
+            return;
+        }
+        StringBuilder statements = new StringBuilder();
+        for (QueryMetrics.Snapshot snapshot : snapshots) {
+            statements.append(snapshot.sql).append('\n');
+            statements.append(String.format(Locale.US,
+                "  llamadas %d · ejecuciones %d · filas %d%n"
+                    + "  total %.1f ms · p50 %.2f · p95 %.2f · p99 %.2f · máx %.2f ms%n%n",
+                snapshot.calls, snapshot.executions, snapshot.rows,
+                snapshot.totalNanos / NANOS_PER_MS, snapshot.p50Nanos / NANOS_PER_MS,
+                snapshot.p95Nanos / NANOS_PER_MS, snapshot.p99Nanos / NANOS_PER_MS,
+                snapshot.maxNanos / NANOS_PER_MS));
+        }
+        statementStats.setText(statements.toString().trim());
+    }
+
+    // Comparte el JSON con cualquier app que acepte texto (correo, Drive, etc.)
+    private void exportJson() {
+        try {
+            Intent intent = new Intent(Intent.ACTION_SEND);
+            intent.setType("application/json");
+            intent.putExtra(Intent.EXTRA_SUBJECT, "Pitstop - métricas de consultas");
+            intent.putExtra(Intent.EXTRA_TEXT, QueryMetrics.getInstance().toJson());
+            startActivity(Intent.createChooser(intent, "Exportar métricas"));
+        } catch (JSONException e) {
+            Toast.makeText(requireContext(), "Error al exportar: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.pitstop.ui.fragments;
 
 import android.Manifest;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.ServiceConnection;
 import android.content.pm.PackageManager;
-import android.location.Location;
 import android.os.Bundle;
+import android.os.IBinder;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -17,24 +20,22 @@ import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
 
 import com.example.pitstop.R;
+import com.example.pitstop.model.RecordedTrip;
+import com.example.pitstop.service.TripTrackingService;
 import com.example.pitstop.viewmodel.DashboardViewModel;
-import com.google.android.gms.location.FusedLocationProviderClient;
-import com.google.android.gms.location.LocationServices;
-import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.android.material.button.MaterialButton;
 import androidx.lifecycle.ViewModelProvider;
 
 /**
  * Sensores y tracking de viaje.
- * Solicita permiso de ubicación, inicia/detiene un "viaje" y acumula distancia aproximada.
+ * Solicita permiso de ubicación e inicia/detiene un "viaje". El viaje corre en
+ * {@link TripTrackingService}; este fragment solo se vincula mientras está visible y lo muestra.
  * Al finalizar, propone actualizar el kilometraje total vía `DashboardViewModel`.
  */
 public class SensorsFragment extends Fragment {
     private static final int LOCATION_PERMISSION_REQUEST_CODE = 1001;
     
-    private FusedLocationProviderClient fusedLocationClient;
-    private Location lastKnownLocation;
-    private boolean isTrackingTrip = false;
+    private TripTrackingService tripService;
     private double tripDistance = 0.0;
     private DashboardViewModel dashboardViewModel;
     
@@ -42,6 +43,19 @@ public class SensorsFragment extends Fragment {
     private MaterialButton stopTripButton;
     private TextView tripDistanceText;
 
+    private final ServiceConnection tripConnection = new ServiceConnection() {
+        @Override
+        public void onServiceConnected(ComponentName name, IBinder binder) {
+            tripService = ((TripTrackingService.LocalBinder) binder).getService();
+            observeTrip();
+        }
+
+        @Override
+        public void onServiceDisconnected(ComponentName name) {
+            tripService = null;
+        }
+    };
+
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
                              @Nullable Bundle savedInstanceState) {
@@ -52,14 +66,51 @@ public class SensorsFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
         
-        fusedLocationClient = LocationServices.getFusedLocationProviderClient(requireActivity());
         dashboardViewModel = new ViewModelProvider(requireActivity()).get(DashboardViewModel.class);
         
         initViews(view);
         setupClickListeners();
+        renderTracking(false);
         checkLocationPermission();
     }
 
+    @Override
+    public void onStart() {
+        super.onStart();
+        Context context = requireContext();
+        // Un viaje interrumpido por la muerte del proceso se retoma al volver
+        if (TripTrackingService.hasPendingTrip(context) && hasLocationPermission()) {
+            ContextCompat.startForegroundService(context, TripTrackingService.bindIntent(context));
+        }
+        context.bindService(TripTrackingService.bindIntent(context), tripConnection, Context.BIND_AUTO_CREATE);
+    }
+
+    @Override
+    public void onStop() {
+        super.onStop();
+        if (tripService != null) {
+            tripService.getDistanceKm().removeObservers(getViewLifecycleOwner());
+            tripService.isTracking().removeObservers(getViewLifecycleOwner());
+            tripService = null;
+        }
+        requireContext().unbindService(tripConnection);
+    }
+
+    // Muestra el estado y la distancia en vivo del viaje
+    private void observeTrip() {
+        tripService.isTracking().observe(getViewLifecycleOwner(), this::renderTracking);
+        tripService.getDistanceKm().observe(getViewLifecycleOwner(), distanceKm -> {
+            tripDistance = distanceKm;
+            tripDistanceText.setText(String.format("Distancia: %.2f km", distanceKm));
+        });
+    }
+
+    private void renderTracking(boolean tracking) {
+        startTripButton.setVisibility(tracking ? View.GONE : View.VISIBLE);
+        stopTripButton.setVisibility(tracking ? View.VISIBLE : View.GONE);
+        tripDistanceText.setVisibility(tracking ? View.VISIBLE : View.GONE);
+    }
+
     // Vincula vistas del layout
     private void initViews(View view) {
         startTripButton = view.findViewById(R.id.start_trip_button);
@@ -82,8 +133,7 @@ public class SensorsFragment extends Fragment {
 
     // Verifica y solicita permiso de ubicación en tiempo de ejecución
     private boolean checkLocationPermission() {
-        if (ContextCompat.checkSelfPermission(requireContext(), Manifest.permission.ACCESS_FINE_LOCATION)
-                != PackageManager.PERMISSION_GRANTED) {
+        if (!hasLocationPermission()) {
             ActivityCompat.requestPermissions(requireActivity(),
                 new String[]{Manifest.permission.ACCESS_FINE_LOCATION},
                 LOCATION_PERMISSION_REQUEST_CODE);
@@ -92,24 +142,16 @@ public class SensorsFragment extends Fragment {
         return true;
     }
 
-    // Inicia el tracking de viaje, resetea distancia y obtiene ubicación inicial
+    private boolean hasLocationPermission() {
+        return ContextCompat.checkSelfPermission(requireContext(), Manifest.permission.ACCESS_FINE_LOCATION)
+            == PackageManager.PERMISSION_GRANTED;
+    }
+
+    // Inicia el viaje en el servicio en primer plano; la UI se actualiza al observarlo
     private void startTripTracking() {
         if (checkLocationPermission()) {
-            isTrackingTrip = true;
-            tripDistance = 0.0;
-            
-            startTripButton.setVisibility(View.GONE);
-            stopTripButton.setVisibility(View.VISIBLE);
-            tripDistanceText.setVisibility(View.VISIBLE);
-            tripDistanceText.setText("Distancia: 0.0 km");
-            
-            // Get initial location
-            fusedLocationClient.getLastLocation()
-                .addOnSuccessListener(requireActivity(), location -> {
-                    if (location != null) {
-                        lastKnownLocation = location;
-                    }
-                });
+            Context context = requireContext();
+            ContextCompat.startForegroundService(context, TripTrackingService.startIntent(context));
             
             Toast.makeText(requireContext(), "Viaje iniciado", Toast.LENGTH_SHORT).show();
         }
@@ -117,21 +159,13 @@ public class SensorsFragment extends Fragment {
 
     // Detiene el tracking y actualiza el odómetro con la distancia acumulada
     private void stopTripTracking() {
-        isTrackingTrip = false;
-        
-        startTripButton.setVisibility(View.VISIBLE);
-        stopTripButton.setVisibility(View.GONE);
-        tripDistanceText.setVisibility(View.GONE);
-        
-        // Actualizar el kilometraje con la distancia del viaje
-        if (tripDistance > 0) {
-            dashboardViewModel.getCurrentKm().observe(getViewLifecycleOwner(), currentKm -> {
-                if (currentKm != null) {
-                    int newKm = currentKm + (int) Math.round(tripDistance);
-                    dashboardViewModel.updateKilometerage(newKm);
-                }
-            });
+        if (tripService == null) {
+            return;
         }
+        RecordedTrip trip = tripService.stopTrip();
+        tripDistance = trip.getDistanceKm();
+        // Km del vehículo, log y recorrido en una sola llamada; no observa `currentKm`
+        dashboardViewModel.finishTrip(trip);
         
         Toast.makeText(requireContext(), 
             String.format("Viaje finalizado. Distancia: %.2f km", tripDistance), 
@@ -22,13 +22,14 @@ import com.google.android.material.button.MaterialButton;
 
 /**
  * Configuración de usuario.
- * Muestra el email actual, permite cerrar sesión y limpiar datos locales.
+ * Muestra el email actual, permite cerrar sesión, limpiar datos locales y abrir las métricas de consultas.
  */
 public class SettingsFragment extends Fragment {
     private SettingsViewModel viewModel;
     private TextView userEmail;
     private MaterialButton logoutButton;
     private MaterialButton clearDataButton;
+    private MaterialButton queryMetricsButton;
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
@@ -52,6 +53,7 @@ public class SettingsFragment extends Fragment {
         userEmail = view.findViewById(R.id.user_email);
         logoutButton = view.findViewById(R.id.logout_button);
         clearDataButton = view.findViewById(R.id.clear_data_button);
+        queryMetricsButton = view.findViewById(R.id.query_metrics_button);
     }
 
     // Listeners para cerrar sesión y limpiar datos con confirmación
@@ -84,6 +86,9 @@ public class SettingsFragment extends Fragment {
                 .setNegativeButton("No", null)
                 .show();
         });
+
+        queryMetricsButton.setOnClickListener(v -> Navigation.findNavController(requireView())
+            .navigate(R.id.action_navigation_settings_to_navigation_query_metrics));
     }
 
     // Observa el usuario actual y errores para mostrarlos en la UI
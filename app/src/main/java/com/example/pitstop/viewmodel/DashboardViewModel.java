@@ -6,36 +6,57 @@ import android.content.Intent;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
 
+import com.example.pitstop.concurrent.AppExecutors;
 import com.example.pitstop.database.entity.Maintenance;
+import com.example.pitstop.database.entity.Trip;
 import com.example.pitstop.database.entity.User;
+import com.example.pitstop.database.entity.Vehicle;
 import com.example.pitstop.database.entity.VehicleLog;
+import com.example.pitstop.model.DashboardState;
+import com.example.pitstop.model.OdometerChange;
+import com.example.pitstop.model.RecordedTrip;
 import com.example.pitstop.receiver.MaintenanceReminderReceiver;
+import com.example.pitstop.repository.DashboardRepository;
 import com.example.pitstop.repository.MaintenanceRepository;
+import com.example.pitstop.repository.TripRepository;
 import com.example.pitstop.repository.UserRepository;
 import com.example.pitstop.repository.VehicleLogRepository;
 import com.example.pitstop.repository.VehicleRepository;
 import com.example.pitstop.service.MaintenanceNotificationService;
+import com.example.pitstop.service.ReminderEngine;
+import com.example.pitstop.service.ReminderScheduler;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 
-import java.util.List;
-
 /**
  * ViewModel del Dashboard.
- * - Expone el kilometraje actual y listas de mantenimientos.
+ * - Expone el kilometraje actual y el estado combinado del Dashboard (`DashboardState`).
  * - Inserta logs de vehículo y dispara recordatorios/servicio de notificaciones.
  * - Asegura que el usuario exista en la base local y maneja errores.
  */
 public class DashboardViewModel extends AndroidViewModel {
+    // Filas por lista en el Dashboard (próximos y recientes)
+    private static final int DASHBOARD_LIMIT = 5;
+
     private MaintenanceRepository maintenanceRepository;
     private VehicleLogRepository vehicleLogRepository;
     private VehicleRepository vehicleRepository;
     private UserRepository userRepository;
+    private DashboardRepository dashboardRepository;
+    private TripRepository tripRepository;
     private FirebaseAuth mAuth;
-    private MutableLiveData<Integer> currentKm = new MutableLiveData<>();
+    // Km del vehículo seleccionado; sus fuentes solo se observan mientras la UI lo observa
+    private final MediatorLiveData<Integer> currentKm = new MediatorLiveData<>();
+    private LiveData<Integer> selectedVehicleKm;
     private MutableLiveData<String> errorMessage = new MutableLiveData<>();
+    private final AppExecutors executors = AppExecutors.getInstance();
+    private LiveData<DashboardState> dashboardState;
 
     public DashboardViewModel(@NonNull Application application) {
         super(application);
@@ -43,9 +64,12 @@ public class DashboardViewModel extends AndroidViewModel {
         vehicleLogRepository = new VehicleLogRepository(application);
         vehicleRepository = new VehicleRepository(application);
         userRepository = new UserRepository(application);
+        dashboardRepository = new DashboardRepository(application);
+        tripRepository = new TripRepository(application);
         mAuth = FirebaseAuth.getInstance();
         
         ensureUserExists(); // Crea el usuario en DB local si no existe
+        ReminderScheduler.schedulePeriodic(application); // Revisión diaria (no hace nada si ya está programada)
         loadCurrentKm();    // Carga el km actual desde el último VehicleLog
     }
 
@@ -57,34 +81,24 @@ public class DashboardViewModel extends AndroidViewModel {
         return errorMessage;
     }
 
-    public LiveData<List<Maintenance>> getUpcomingMaintenance() {
-        FirebaseUser user = mAuth.getCurrentUser();
-        if (user != null) {
-            return maintenanceRepository.getUpcomingMaintenance(user.getUid());
-        }
-        return new MutableLiveData<>();
-    }
-
-    public LiveData<List<Maintenance>> getAllMaintenance() {
-        FirebaseUser user = mAuth.getCurrentUser();
-        if (user != null) {
-            return maintenanceRepository.getAllMaintenanceByUser(user.getUid());
+    // Estado completo del Dashboard; una emisión por cambio real en los datos que muestra
+    public LiveData<DashboardState> getDashboardState() {
+        if (dashboardState == null) {
+            FirebaseUser user = mAuth.getCurrentUser();
+            if (user == null) {
+                return new MutableLiveData<>();
+            }
+            dashboardState = dashboardRepository.getDashboardState(user.getUid(), DASHBOARD_LIMIT);
         }
-        return new MutableLiveData<>();
+        return dashboardState;
     }
 
     // Verifica/crea el usuario en la base de datos local usando el UID de Firebase
     private void ensureUserExists() {
         FirebaseUser firebaseUser = mAuth.getCurrentUser();
         if (firebaseUser != null) {
-            // Verificar si el usuario existe en la base de datos local
-            userRepository.getUserByUid(firebaseUser.getUid()).observeForever(user -> {
-                if (user == null) {
-                    // Crear usuario si no existe
-                    User newUser = new User(firebaseUser.getUid(), firebaseUser.getEmail());
-                    userRepository.insertUser(newUser);
-                }
-            });
+            // Inserta solo si falta: no hace falta observar la tabla para saberlo
+            userRepository.ensureUserExists(new User(firebaseUser.getUid(), firebaseUser.getEmail()));
         }
     }
 
@@ -92,104 +106,135 @@ public class DashboardViewModel extends AndroidViewModel {
     private void loadCurrentKm() {
         FirebaseUser user = mAuth.getCurrentUser();
         if (user != null) {
-            // Observar vehículo actual y, cuando cambie, observar su último log
-            vehicleRepository.getCurrentSelectedVehicle(user.getUid()).observeForever(currentVehicle -> {
-                if (currentVehicle != null) {
-                    vehicleLogRepository.getLatestVehicleLogByVehicle(user.getUid(), currentVehicle.getId())
-                        .observeForever(vehicleLog -> {
-                            if (vehicleLog != null) {
-                                currentKm.setValue(vehicleLog.getCurrentKm());
-                            } else {
-                                // Si no hay logs para este vehículo, usar su currentKm o 0
-                                Integer km = currentVehicle.getCurrentKm();
-                                currentKm.setValue(km);
-                            }
-                        });
-                } else {
-                    currentKm.setValue(0);
-                }
-            });
+            bindCurrentKm(user.getUid());
         }
     }
 
+    // Devuelve la fuente agregada a `currentKm` (los tests verifican que onCleared la suelte)
+    LiveData<Integer> bindCurrentKm(String userUid) {
+        // switchMap suelta la consulta del último log del vehículo anterior al cambiar de vehículo
+        selectedVehicleKm = Transformations.switchMap(
+            vehicleRepository.getCurrentSelectedVehicle(userUid),
+            currentVehicle -> latestKmOf(userUid, currentVehicle)
+        );
+        currentKm.addSource(selectedVehicleKm, currentKm::setValue);
+        return selectedVehicleKm;
+    }
+
+    private LiveData<Integer> latestKmOf(String userUid, Vehicle vehicle) {
+        if (vehicle == null) {
+            return new MutableLiveData<>(0);
+        }
+        // Si no hay logs para este vehículo, usar su currentKm
+        return Transformations.map(
+            vehicleLogRepository.getLatestVehicleLogByVehicle(userUid, vehicle.getId()),
+            vehicleLog -> vehicleLog != null ? vehicleLog.getCurrentKm() : vehicle.getCurrentKm()
+        );
+    }
+
     // Inserta un nuevo `VehicleLog` con el km dado y actualiza `currentKm`
     public void updateKilometerage(int newKm) {
-        FirebaseUser user = mAuth.getCurrentUser();
-        if (user != null) {
-            // Necesitamos obtener el vehículo actual para el vehicleId
-            new Thread(() -> {
-                try {
-                    com.example.pitstop.database.entity.Vehicle currentVehicle = vehicleRepository.getCurrentSelectedVehicleSync(user.getUid());
-                    int vehicleId = currentVehicle != null ? currentVehicle.getId() : 1; // Default a 1 si no hay vehículo
-                    
-                    VehicleLog vehicleLog = new VehicleLog(
-                        user.getUid(),
-                        vehicleId,
-                        newKm,
-                        System.currentTimeMillis(),
-                        null
-                    );
-                    vehicleLogRepository.insertVehicleLog(vehicleLog);
-                    // Actualizar el km del vehículo también
-                    vehicleRepository.updateVehicleKm(vehicleId, newKm);
-                    
-                    // Actualizar en el hilo principal
-                    new android.os.Handler(android.os.Looper.getMainLooper()).post(() -> {
-                        currentKm.setValue(newKm);
-                        
-                        // Verificar recordatorios de mantenimiento después de actualizar kilometraje
-                        checkMaintenanceReminders(user.getUid());
-                    });
-                } catch (Exception e) {
-                    android.util.Log.e("DashboardViewModel", "Error al actualizar kilometraje", e);
-                    new android.os.Handler(android.os.Looper.getMainLooper()).post(() -> {
-                        errorMessage.setValue("Error al actualizar kilometraje: " + e.getMessage());
-                    });
-                }
-            }).start();
-        } else {
-            errorMessage.setValue("Usuario no autenticado");
-        }
+        recordOdometerReading(newKm, null);
     }
 
     // Igual a `updateKilometerage` pero guardando una foto asociada al log
     public void updateKilometerageWithPhoto(int newKm, String photoUri) {
+        recordOdometerReading(newKm, photoUri);
+    }
+
+    // Registra la lectura (log + km del vehículo en una transacción) y publica `currentKm`
+    // solo cuando la escritura ya hizo commit
+    private void recordOdometerReading(int newKm, String photoUri) {
         FirebaseUser user = mAuth.getCurrentUser();
-        if (user != null) {
-            // Necesitamos obtener el vehículo actual para el vehicleId
-            new Thread(() -> {
-                try {
-                    com.example.pitstop.database.entity.Vehicle currentVehicle = vehicleRepository.getCurrentSelectedVehicleSync(user.getUid());
-                    int vehicleId = currentVehicle != null ? currentVehicle.getId() : 1; // Default a 1 si no hay vehículo
-                    
-                    VehicleLog vehicleLog = new VehicleLog(
-                        user.getUid(),
-                        vehicleId,
-                        newKm,
-                        System.currentTimeMillis(),
-                        photoUri
-                    );
-                    vehicleLogRepository.insertVehicleLog(vehicleLog);
-                    // Actualizar el km del vehículo también
-                    vehicleRepository.updateVehicleKm(vehicleId, newKm);
-                    
-                    // Actualizar en el hilo principal
-                    new android.os.Handler(android.os.Looper.getMainLooper()).post(() -> {
+        if (user == null) {
+            errorMessage.setValue("Usuario no autenticado");
+            return;
+        }
+        // Necesitamos obtener el vehículo actual para el vehicleId
+        executors.diskRead().execute(() -> {
+            try {
+                Vehicle currentVehicle = vehicleRepository.getCurrentSelectedVehicleSync(user.getUid());
+                int vehicleId = currentVehicle != null ? currentVehicle.getId() : 1; // Default a 1 si no hay vehículo
+                // Km antes de esta lectura: acota qué recordatorios se evalúan
+                int previousKm = currentVehicle != null ? currentVehicle.getCurrentKm() : ReminderEngine.UNKNOWN_KM;
+
+                VehicleLog vehicleLog = new VehicleLog(
+                    user.getUid(),
+                    vehicleId,
+                    newKm,
+                    System.currentTimeMillis(),
+                    photoUri
+                );
+                Futures.addCallback(vehicleLogRepository.recordOdometerReading(vehicleLog), new FutureCallback<Long>() {
+                    @Override
+                    public void onSuccess(Long logId) {
                         currentKm.setValue(newKm);
-                        
-                        // Verificar recordatorios de mantenimiento después de actualizar kilometraje
-                        checkMaintenanceReminders(user.getUid());
-                    });
-                } catch (Exception e) {
-                    android.util.Log.e("DashboardViewModel", "Error al actualizar kilometraje con foto", e);
-                    new android.os.Handler(android.os.Looper.getMainLooper()).post(() -> {
-                        errorMessage.setValue("Error al actualizar kilometraje: " + e.getMessage());
-                    });
-                }
-            }).start();
-        } else {
+
+                        // Avisar los servicios cuyo umbral se cruzó (una evaluación por ráfaga de lecturas)
+                        ReminderScheduler.scheduleAfterOdometerReading(getApplication(), user.getUid(),
+                            vehicleId, previousKm);
+                    }
+
+                    @Override
+                    public void onFailure(@NonNull Throwable t) {
+                        android.util.Log.e("DashboardViewModel", "Error al actualizar kilometraje", t);
+                        errorMessage.setValue("Error al actualizar kilometraje: " + t.getMessage());
+                    }
+                }, executors.mainThread());
+            } catch (Exception e) {
+                android.util.Log.e("DashboardViewModel", "Error al actualizar kilometraje", e);
+                executors.mainThread().execute(() -> {
+                    errorMessage.setValue("Error al actualizar kilometraje: " + e.getMessage());
+                });
+            }
+        });
+    }
+
+    // Cierra el viaje terminado para el vehículo seleccionado en una sola transacción:
+    // suma su distancia al odómetro (los metros que no completan un km quedan para el próximo
+    // viaje) y guarda el recorrido simplificado y comprimido, con startKm/endKm de ese odómetro
+    public void finishTrip(RecordedTrip recordedTrip) {
+        FirebaseUser user = mAuth.getCurrentUser();
+        if (user == null) {
             errorMessage.setValue("Usuario no autenticado");
+            return;
         }
+        int distanceMeters = recordedTrip.getDistanceMeters();
+        boolean hasTrack = !recordedTrip.getTrack().isEmpty();
+        if (distanceMeters <= 0 && !hasTrack) {
+            return;
+        }
+        executors.diskRead().execute(() -> {
+            try {
+                Vehicle currentVehicle = vehicleRepository.getCurrentSelectedVehicleSync(user.getUid());
+                if (currentVehicle == null) {
+                    executors.mainThread().execute(() -> errorMessage.setValue("No hay vehículo seleccionado para el viaje"));
+                    return;
+                }
+                int vehicleId = currentVehicle.getId();
+                Trip trip = hasTrack ? TripRepository.toTrip(user.getUid(), vehicleId, recordedTrip) : null;
+                Futures.addCallback(tripRepository.finishTrip(user.getUid(), vehicleId, distanceMeters, trip),
+                    new FutureCallback<OdometerChange>() {
+                        @Override
+                        public void onSuccess(OdometerChange change) {
+                            if (change.getAddedKm() > 0) {
+                                currentKm.setValue(change.getToKm());
+                                ReminderScheduler.scheduleAfterOdometerReading(getApplication(), user.getUid(),
+                                    vehicleId, change.getFromKm());
+                            }
+                        }
+
+                        @Override
+                        public void onFailure(@NonNull Throwable t) {
+                            android.util.Log.e("DashboardViewModel", "Error al guardar el viaje", t);
+                            errorMessage.setValue("Error al guardar el viaje: " + t.getMessage());
+                        }
+                    }, executors.mainThread());
+            } catch (Exception e) {
+                android.util.Log.e("DashboardViewModel", "Error al guardar el viaje", e);
+                executors.mainThread().execute(() -> errorMessage.setValue("Error al guardar el viaje: " + e.getMessage()));
+            }
+        });
     }
 
     public void addMaintenance(Maintenance maintenance) {
@@ -212,7 +257,7 @@ public class DashboardViewModel extends AndroidViewModel {
         FirebaseUser user = mAuth.getCurrentUser();
         if (user != null) {
             // Ejecutar la consulta de base de datos en un hilo de fondo
-            new Thread(() -> {
+            executors.diskRead().execute(() -> {
                 try {
                     VehicleLog latestLog = vehicleLogRepository.getLatestVehicleLogSync(user.getUid());
                     if (latestLog != null) {
@@ -223,27 +268,24 @@ public class DashboardViewModel extends AndroidViewModel {
                     e.printStackTrace();
                     // Manejar errores si es necesario
                 }
-            }).start();
+            });
         }
     }
     
-    // Ejecuta el servicio que calcula y dispara recordatorios si corresponde
-    private void checkMaintenanceReminders(String userUid) {
-        // Usar el executor del repositorio para evitar problemas de hilos
-        new Thread(() -> {
-            try {
-                MaintenanceNotificationService notificationService = new MaintenanceNotificationService(getApplication());
-                notificationService.checkMaintenanceReminders(userUid);
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }).start();
-    }
-    
+    // Muestra los recordatorios dentro de la ventana aunque ya se hayan avisado
+    // (el servicio ya corre la consulta en el pool de lectura)
     public void testNotification() {
         FirebaseUser user = mAuth.getCurrentUser();
         if (user != null) {
-            checkMaintenanceReminders(user.getUid());
+            new MaintenanceNotificationService(getApplication()).showDueReminders(user.getUid());
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        if (selectedVehicleKm != null) {
+            currentKm.removeSource(selectedVehicleKm);
         }
     }
 }
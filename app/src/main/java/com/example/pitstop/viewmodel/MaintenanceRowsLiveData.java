@@ -0,0 +1,68 @@
+package com.example.pitstop.viewmodel;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+
+import com.example.pitstop.database.entity.Maintenance;
+import com.example.pitstop.model.MaintenanceRowModel;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Combina una lista de mantenimientos con el km actual y publica las filas ya formateadas.
+ * El formateo corre en `executor`; si llega un cambio mientras tanto, el resultado viejo se descarta.
+ * Una lista fuente null se propaga como null.
+ */
+class MaintenanceRowsLiveData extends MediatorLiveData<List<MaintenanceRowModel>> {
+    static final int NO_LIMIT = -1;
+
+    private final Executor executor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final int limit;
+    private final AtomicInteger generation = new AtomicInteger();
+    private boolean hasMaintenances = false;
+    private List<Maintenance> maintenances;
+    private int currentKm = 0;
+
+    MaintenanceRowsLiveData(LiveData<List<Maintenance>> source, LiveData<Integer> currentKmSource,
+                            Executor executor, int limit) {
+        this.executor = executor;
+        this.limit = limit;
+        addSource(source, list -> {
+            hasMaintenances = true;
+            maintenances = list;
+            rebuild();
+        });
+        addSource(currentKmSource, km -> {
+            int value = km != null ? km : 0;
+            if (value == currentKm) return;
+            currentKm = value;
+            rebuild();
+        });
+    }
+
+    private void rebuild() {
+        if (!hasMaintenances) return;
+        int current = generation.incrementAndGet();
+        if (maintenances == null) {
+            setValue(null);
+            return;
+        }
+        List<Maintenance> snapshot = maintenances;
+        int km = currentKm;
+        executor.execute(() -> {
+            List<MaintenanceRowModel> rows = MaintenanceRowModel.fromList(snapshot, km, limit);
+            // La generación se vuelve a comprobar en el hilo principal, donde se publican los cambios
+            mainHandler.post(() -> {
+                if (generation.get() == current) {
+                    setValue(rows);
+                }
+            });
+        });
+    }
+}
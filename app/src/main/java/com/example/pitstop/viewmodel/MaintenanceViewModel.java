@@ -1,37 +1,91 @@
 package com.example.pitstop.viewmodel;
 
 import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
 
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.PagingDataTransforms;
+import androidx.paging.PagingLiveData;
 
+import com.example.pitstop.concurrent.AppExecutors;
 import com.example.pitstop.database.entity.Maintenance;
 import com.example.pitstop.database.entity.User;
+import com.example.pitstop.model.MaintenanceRowModel;
+import com.example.pitstop.model.MaintenanceType;
+import com.example.pitstop.repository.MaintenancePagingSource;
 import com.example.pitstop.repository.MaintenanceRepository;
 import com.example.pitstop.repository.UserRepository;
+import com.example.pitstop.repository.VehicleRepository;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * ViewModel de mantenimientos.
  * Expone consultas por usuario y operaciones CRUD, asegurando existencia del usuario local.
+ * La búsqueda pasa por una sola entrada de texto con debounce y `switchMap`: solo la última
+ * consulta queda activa y no se lanza una consulta por cada tecla.
+ * Historial, búsqueda y filtro por tipo se limitan al vehículo seleccionado (todo el historial si no hay uno).
  */
 public class MaintenanceViewModel extends AndroidViewModel {
+    private static final long SEARCH_DEBOUNCE_MS = 300;
+
     private MaintenanceRepository maintenanceRepository;
     private UserRepository userRepository;
+    private VehicleRepository vehicleRepository;
     private FirebaseAuth mAuth;
     private MutableLiveData<String> errorMessage = new MutableLiveData<>();
     private MutableLiveData<Boolean> isLoading = new MutableLiveData<>();
+    private LiveData<PagingData<Maintenance>> pagedMaintenance;
+    private MediatorLiveData<PagingData<MaintenanceRowModel>> pagedRows;
+    // Km actual usado para los textos de próximo servicio; las filas se formatean en rowExecutor
+    private final MutableLiveData<Integer> currentKm = new MutableLiveData<>();
+    private final Executor rowExecutor = AppExecutors.getInstance().diskRead();
+
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private final MutableLiveData<String> searchQuery = new MutableLiveData<>();
+    private final MediatorLiveData<String> debouncedSearchQuery = new MediatorLiveData<>();
+    private final LiveData<List<MaintenanceRowModel>> searchResults;
+    // Solo el id del vehículo seleccionado: un cambio de km no debe recrear consultas
+    private final LiveData<Integer> selectedVehicleId;
 
     public MaintenanceViewModel(@NonNull Application application) {
         super(application);
         maintenanceRepository = new MaintenanceRepository(application);
         userRepository = new UserRepository(application);
+        vehicleRepository = new VehicleRepository(application);
         mAuth = FirebaseAuth.getInstance();
+
+        FirebaseUser user = mAuth.getCurrentUser();
+        selectedVehicleId = user == null
+            ? new MutableLiveData<>(MaintenancePagingSource.ALL_VEHICLES)
+            : Transformations.distinctUntilChanged(Transformations.map(
+                vehicleRepository.getCurrentSelectedVehicle(user.getUid()),
+                vehicle -> vehicle != null ? vehicle.getId() : MaintenancePagingSource.ALL_VEHICLES
+            ));
+
+        // Cada tecla reinicia la espera; solo se publica la consulta tras SEARCH_DEBOUNCE_MS sin cambios
+        debouncedSearchQuery.addSource(searchQuery, query -> {
+            searchHandler.removeCallbacksAndMessages(null);
+            searchHandler.postDelayed(() -> debouncedSearchQuery.setValue(query), SEARCH_DEBOUNCE_MS);
+        });
+        // switchMap suelta la consulta anterior al llegar una nueva (o al cambiar de vehículo)
+        LiveData<String> distinctQuery = Transformations.distinctUntilChanged(debouncedSearchQuery);
+        LiveData<List<Maintenance>> searchMatches = Transformations.switchMap(selectedVehicleId,
+            vehicleId -> Transformations.switchMap(distinctQuery, query -> searchMaintenance(vehicleId, query)));
+        searchResults = new MaintenanceRowsLiveData(searchMatches, currentKm, rowExecutor,
+            MaintenanceRowsLiveData.NO_LIMIT);
     }
 
     public LiveData<String> getErrorMessage() {
@@ -51,6 +105,46 @@ public class MaintenanceViewModel extends AndroidViewModel {
         return new MutableLiveData<>();
     }
 
+    // Historial paginado del vehículo seleccionado; las páginas se cachean en el scope del ViewModel
+    public LiveData<PagingData<Maintenance>> getPagedMaintenance() {
+        if (pagedMaintenance == null) {
+            FirebaseUser user = mAuth.getCurrentUser();
+            if (user == null) {
+                return new MutableLiveData<>();
+            }
+            String userUid = user.getUid();
+            pagedMaintenance = Transformations.switchMap(selectedVehicleId, id -> PagingLiveData.cachedIn(
+                maintenanceRepository.getMaintenancePaged(userUid, id),
+                ViewModelKt.getViewModelScope(this)
+            ));
+        }
+        return pagedMaintenance;
+    }
+
+    // Historial paginado convertido a filas formateadas; se vuelve a mapear al cambiar el km
+    public LiveData<PagingData<MaintenanceRowModel>> getPagedRows() {
+        if (pagedRows == null) {
+            pagedRows = new MediatorLiveData<>();
+            LiveData<PagingData<Maintenance>> source = getPagedMaintenance();
+            Runnable remap = () -> {
+                PagingData<Maintenance> pagingData = source.getValue();
+                if (pagingData == null) return;
+                Integer km = currentKm.getValue();
+                int kmValue = km != null ? km : 0;
+                pagedRows.setValue(PagingDataTransforms.map(pagingData, rowExecutor,
+                    maintenance -> MaintenanceRowModel.from(maintenance, kmValue)));
+            };
+            pagedRows.addSource(source, pagingData -> remap.run());
+            pagedRows.addSource(Transformations.distinctUntilChanged(currentKm), km -> remap.run());
+        }
+        return pagedRows;
+    }
+
+    // Km actual del vehículo seleccionado (lo provee el dashboard)
+    public void setCurrentKm(int km) {
+        currentKm.setValue(km);
+    }
+
     // Obtiene un mantenimiento por ID
     public LiveData<Maintenance> getMaintenanceById(int id) {
         FirebaseUser user = mAuth.getCurrentUser();
@@ -60,20 +154,43 @@ public class MaintenanceViewModel extends AndroidViewModel {
         return new MutableLiveData<>();
     }
 
-    // Busca mantenimientos por tipo (texto)
-    public LiveData<List<Maintenance>> searchMaintenanceByType(String searchQuery) {
+    // Resultados de la búsqueda actual; emite null cuando no hay texto (mostrar historial completo)
+    public LiveData<List<MaintenanceRowModel>> getSearchResults() {
+        return searchResults;
+    }
+
+    // Entrada de texto mientras el usuario escribe (con debounce)
+    public void setSearchQuery(String query) {
+        searchQuery.setValue(query != null ? query.trim() : "");
+    }
+
+    // Búsqueda explícita (botón o acción del teclado): se publica sin esperar el debounce
+    public void submitSearchQuery(String query) {
+        String trimmed = query != null ? query.trim() : "";
+        searchHandler.removeCallbacksAndMessages(null);
+        debouncedSearchQuery.setValue(trimmed);
+        searchQuery.setValue(trimmed);
+    }
+
+    // Busca mantenimientos por texto (tipo, descripción y notas) con coincidencia por prefijo
+    private LiveData<List<Maintenance>> searchMaintenance(int vehicleId, String query) {
+        if (query == null || query.isEmpty()) {
+            return new MutableLiveData<>(null);
+        }
         FirebaseUser user = mAuth.getCurrentUser();
         if (user != null) {
-            return maintenanceRepository.searchMaintenanceByType(user.getUid(), searchQuery);
+            return maintenanceRepository.searchMaintenance(user.getUid(), vehicleId, query);
         }
-        return new MutableLiveData<>();
+        return new MutableLiveData<>(Collections.emptyList());
     }
 
-    // Filtra mantenimientos por tipo exacto
-    public LiveData<List<Maintenance>> getMaintenanceByType(String type) {
+    // Filtra mantenimientos del vehículo seleccionado por tipo (código entero indexado)
+    public LiveData<List<Maintenance>> getMaintenanceByType(MaintenanceType type) {
         FirebaseUser user = mAuth.getCurrentUser();
         if (user != null) {
-            return maintenanceRepository.getMaintenanceByType(user.getUid(), type);
+            String userUid = user.getUid();
+            return Transformations.switchMap(selectedVehicleId,
+                vehicleId -> maintenanceRepository.getMaintenanceByType(userUid, vehicleId, type));
         }
         return new MutableLiveData<>();
     }
@@ -82,17 +199,10 @@ public class MaintenanceViewModel extends AndroidViewModel {
     public void insertMaintenance(Maintenance maintenance) {
         FirebaseUser firebaseUser = mAuth.getCurrentUser();
         if (firebaseUser != null) {
-            // Asegurar que el usuario existe en la base de datos local
-            userRepository.getUserByUid(firebaseUser.getUid()).observeForever(user -> {
-                if (user == null) {
-                    // Crear usuario si no existe
-                    User newUser = new User(firebaseUser.getUid(), firebaseUser.getEmail());
-                    userRepository.insertUser(newUser);
-                }
-                // Insertar mantenimiento
-                maintenance.setUserUid(firebaseUser.getUid());
-                maintenanceRepository.insertMaintenance(maintenance);
-            });
+            // Asegurar que el usuario existe en la base de datos local (misma cola, va antes)
+            userRepository.ensureUserExists(new User(firebaseUser.getUid(), firebaseUser.getEmail()));
+            maintenance.setUserUid(firebaseUser.getUid());
+            maintenanceRepository.insertMaintenance(maintenance);
         } else {
             errorMessage.setValue("Usuario no autenticado");
         }
@@ -102,17 +212,10 @@ public class MaintenanceViewModel extends AndroidViewModel {
     public void updateMaintenance(Maintenance maintenance) {
         FirebaseUser firebaseUser = mAuth.getCurrentUser();
         if (firebaseUser != null) {
-            // Asegurar que el usuario existe en la base de datos local
-            userRepository.getUserByUid(firebaseUser.getUid()).observeForever(user -> {
-                if (user == null) {
-                    // Crear usuario si no existe
-                    User newUser = new User(firebaseUser.getUid(), firebaseUser.getEmail());
-                    userRepository.insertUser(newUser);
-                }
-                // Actualizar mantenimiento
-                maintenance.setUserUid(firebaseUser.getUid());
-                maintenanceRepository.updateMaintenance(maintenance);
-            });
+            // Asegurar que el usuario existe en la base de datos local (misma cola, va antes)
+            userRepository.ensureUserExists(new User(firebaseUser.getUid(), firebaseUser.getEmail()));
+            maintenance.setUserUid(firebaseUser.getUid());
+            maintenanceRepository.updateMaintenance(maintenance);
         } else {
             errorMessage.setValue("Usuario no autenticado");
         }
@@ -145,4 +248,10 @@ public class MaintenanceViewModel extends AndroidViewModel {
         }
         return null;
     }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        searchHandler.removeCallbacksAndMessages(null);
+    }
 }
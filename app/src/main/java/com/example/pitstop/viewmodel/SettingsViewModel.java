@@ -5,6 +5,7 @@ import android.app.Application;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 
 import com.example.pitstop.database.AppDatabase;
@@ -12,6 +13,7 @@ import com.example.pitstop.database.entity.User;
 import com.example.pitstop.repository.MaintenanceRepository;
 import com.example.pitstop.repository.UserRepository;
 import com.example.pitstop.repository.VehicleLogRepository;
+import com.example.pitstop.service.ReminderScheduler;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 
@@ -24,7 +26,9 @@ public class SettingsViewModel extends AndroidViewModel {
     private MaintenanceRepository maintenanceRepository;
     private VehicleLogRepository vehicleLogRepository;
     private FirebaseAuth mAuth;
-    private MutableLiveData<User> currentUser = new MutableLiveData<>();
+    // Solo observa la base mientras la UI observa `currentUser`
+    private final MediatorLiveData<User> currentUser = new MediatorLiveData<>();
+    private LiveData<User> storedUser;
     private MutableLiveData<String> errorMessage = new MutableLiveData<>();
 
     public SettingsViewModel(@NonNull Application application) {
@@ -49,13 +53,14 @@ public class SettingsViewModel extends AndroidViewModel {
     private void loadCurrentUser() {
         FirebaseUser firebaseUser = mAuth.getCurrentUser();
         if (firebaseUser != null) {
-            userRepository.getUserByUid(firebaseUser.getUid()).observeForever(user -> {
+            storedUser = userRepository.getUserByUid(firebaseUser.getUid());
+            currentUser.addSource(storedUser, user -> {
                 if (user != null) {
                     currentUser.setValue(user);
                 } else {
                     // Create user if doesn't exist in local database
                     User newUser = new User(firebaseUser.getUid(), firebaseUser.getEmail());
-                    userRepository.insertUser(newUser);
+                    userRepository.ensureUserExists(newUser);
                     currentUser.setValue(newUser);
                 }
             });
@@ -64,6 +69,8 @@ public class SettingsViewModel extends AndroidViewModel {
 
     public void logout() {
         mAuth.signOut();
+        ReminderScheduler.cancelAll(getApplication());
+        releaseStoredUser();
         currentUser.setValue(null);
     }
 
@@ -81,4 +88,17 @@ public class SettingsViewModel extends AndroidViewModel {
             userRepository.deleteUser(user.getUid());
         }
     }
+
+    private void releaseStoredUser() {
+        if (storedUser != null) {
+            currentUser.removeSource(storedUser);
+            storedUser = null;
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        releaseStoredUser();
+    }
 }
@@ -0,0 +1,116 @@
+package com.example.pitstop.trip;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Replays de trazas GPS sobre {@link DistanceAccumulator}: exactitud contra la distancia real,
+ * descarte de fixes malos y un benchmark de costo por fix (el resultado queda en la salida estándar).
+ */
+public class DistanceAccumulatorTest {
+    private static final long SEED = 42;
+    private static final int BENCHMARK_REPLAYS = 200;
+    // Muy holgado: solo detecta regresiones groseras (p. ej. asignaciones o trigonometría de más)
+    private static final double BENCHMARK_BUDGET_NS_PER_FIX = 2_000;
+
+    @Test
+    public void haversine_matchesKnownDistances() {
+        // Un grado de meridiano
+        assertEquals(111_195, DistanceAccumulator.haversineMeters(0, 0, 1, 0), 1);
+        // Un paralelo se acorta con el coseno de la latitud
+        assertEquals(111_195 * Math.cos(Math.toRadians(60)), DistanceAccumulator.haversineMeters(60, 0, 60, 1), 300);
+        assertEquals(0, DistanceAccumulator.haversineMeters(-34.6, -58.4, -34.6, -58.4), 0);
+    }
+
+    @Test
+    public void cleanTrace_matchesGroundTruth() {
+        GpsTrace trace = GpsTrace.builder(SEED).build();
+        DistanceAccumulator accumulator = replay(trace, new DistanceAccumulator());
+
+        assertEquals(trace.truthMeters, accumulator.getDistanceMeters(), trace.truthMeters * 0.005);
+        assertEquals(0, accumulator.getRejectedFixes());
+    }
+
+    @Test
+    public void badFixes_areDropped() {
+        GpsTrace trace = GpsTrace.builder(SEED).noiseM(4).inaccurateRate(0.05).outlierRate(0.01).build();
+        DistanceAccumulator accumulator = replay(trace, new DistanceAccumulator());
+
+        double naive = 0;
+        for (int i = 1; i < trace.size(); i++) {
+            naive += DistanceAccumulator.haversineMeters(trace.lat[i - 1], trace.lon[i - 1], trace.lat[i], trace.lon[i]);
+        }
+        assertTrue("Sin filtrar los saltos deberían inflar la distancia", naive > trace.truthMeters * 1.5);
+        assertEquals(trace.truthMeters, accumulator.getDistanceMeters(), trace.truthMeters * 0.10);
+        assertTrue(accumulator.getRejectedFixes() > trace.size() * 0.05);
+    }
+
+    @Test
+    public void inaccurateOrStaleFixes_areRejected() {
+        DistanceAccumulator accumulator = new DistanceAccumulator();
+        assertTrue(accumulator.offer(-34.6, -58.4, 1_000, 5));
+        assertFalse(accumulator.offer(-34.6, -58.4001, 2_000, 80));
+        assertFalse(accumulator.offer(-34.6, -58.4001, 2_000, Float.NaN));
+        // Mismo instante que el ancla
+        assertFalse(accumulator.offer(-34.6, -58.4001, 1_000, 5));
+        assertEquals(0, accumulator.getDistanceMeters(), 0);
+    }
+
+    @Test
+    public void badAnchor_isReplacedAfterRepeatedImpossibleJumps() {
+        DistanceAccumulator accumulator = new DistanceAccumulator();
+        // Primer fix a ~1 km de la posición real
+        accumulator.offer(-34.61, -58.4, 0, 5);
+        long time = 1_000;
+        for (int i = 0; i < 3; i++, time += 1_000) {
+            assertFalse(accumulator.offer(-34.6, -58.4, time, 5));
+        }
+        // Re-anclado: los siguientes pasos normales se acumulan
+        assertTrue(accumulator.offer(-34.6, -58.4001, time, 5));
+        assertEquals(9.2, accumulator.getDistanceMeters(), 0.5);
+    }
+
+    @Test
+    public void restore_continuesFromCheckpoint() {
+        DistanceAccumulator accumulator = new DistanceAccumulator();
+        accumulator.restore(1_500);
+        accumulator.offer(-34.6, -58.4, 0, 5);
+        accumulator.offer(-34.6, -58.4001, 1_000, 5);
+        assertEquals(1_509.2, accumulator.getDistanceMeters(), 0.5);
+    }
+
+    @Test
+    public void replayBenchmark() {
+        GpsTrace trace = GpsTrace.builder(SEED).noiseM(4).inaccurateRate(0.05).outlierRate(0.01).build();
+        DistanceAccumulator accumulator = new DistanceAccumulator();
+        // Calentamiento del JIT
+        for (int i = 0; i < 20; i++) {
+            replay(trace, accumulator);
+        }
+
+        double sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < BENCHMARK_REPLAYS; i++) {
+            sink += replay(trace, accumulator).getDistanceMeters();
+        }
+        long elapsedNs = System.nanoTime() - start;
+        long fixes = (long) BENCHMARK_REPLAYS * trace.size();
+        double nsPerFix = (double) elapsedNs / fixes;
+        System.out.printf("DistanceAccumulator: %d fixes en %d ms (%.1f ns/fix)%n",
+            fixes, elapsedNs / 1_000_000, nsPerFix);
+
+        assertTrue(sink > 0);
+        assertTrue("Demasiado lento: " + nsPerFix + " ns/fix", nsPerFix < BENCHMARK_BUDGET_NS_PER_FIX);
+    }
+
+    private static DistanceAccumulator replay(GpsTrace trace, DistanceAccumulator accumulator) {
+        accumulator.reset();
+        for (int i = 0; i < trace.size(); i++) {
+            accumulator.offer(trace.lat[i], trace.lon[i], trace.timeMs[i], trace.accuracyM[i]);
+        }
+        return accumulator;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.pitstop.trip;
+
+import java.util.Random;
+
+/**
+ * Traza GPS sintética y reproducible (misma semilla = misma traza) para replays en la JVM.
+ * Simula un auto a 1 Hz en coordenadas locales (metros) con curvas, detenciones y el ruido
+ * típico del GPS; guarda la distancia real recorrida como referencia.
+ * Los arrays son primitivos para que el replay no asigne memoria.
+ */
+final class GpsTrace {
+    private static final double ORIGIN_LAT = -34.6037;
+    private static final double ORIGIN_LON = -58.3816;
+    private static final double METERS_PER_DEG_LAT = Math.PI * DistanceAccumulator.EARTH_RADIUS_M / 180.0;
+    private static final double METERS_PER_DEG_LON = METERS_PER_DEG_LAT * Math.cos(Math.toRadians(ORIGIN_LAT));
+
+    final double[] lat;
+    final double[] lon;
+    final long[] timeMs;
+    final float[] accuracyM;
+    final float[] speedMps;
+    final double truthMeters;
+
+    private GpsTrace(double[] lat, double[] lon, long[] timeMs, float[] accuracyM, float[] speedMps,
+                     double truthMeters) {
+        this.lat = lat;
+        this.lon = lon;
+        this.timeMs = timeMs;
+        this.accuracyM = accuracyM;
+        this.speedMps = speedMps;
+        this.truthMeters = truthMeters;
+    }
+
+    int size() {
+        return timeMs.length;
+    }
+
+    static Builder builder(long seed) {
+        return new Builder(seed);
+    }
+
+    static final class Builder {
+        private final Random random;
+        private int seconds = 3600;
+        private double cruiseMps = 15;
+        private double noiseM = 0;
+        private double stoppedFraction = 0;
+        private double inaccurateRate = 0;
+        private double outlierRate = 0;
+
+        private Builder(long seed) {
+            this.random = new Random(seed);
+        }
+
+        Builder seconds(int seconds) {
+            this.seconds = seconds;
+            return this;
+        }
+
+        Builder cruiseMps(double cruiseMps) {
+            this.cruiseMps = cruiseMps;
+            return this;
+        }
+
+        // Desvío estándar del ruido horizontal, en metros
+        Builder noiseM(double noiseM) {
+            this.noiseM = noiseM;
+            return this;
+        }
+
+        // Fracción del tiempo detenido (semáforos, tránsito)
+        Builder stoppedFraction(double stoppedFraction) {
+            this.stoppedFraction = stoppedFraction;
+            return this;
+        }
+
+        // Fixes con precisión reportada mala (y posición acorde)
+        Builder inaccurateRate(double inaccurateRate) {
+            this.inaccurateRate = inaccurateRate;
+            return this;
+        }
+
+        // Saltos de cientos de metros con precisión reportada buena (multipath)
+        Builder outlierRate(double outlierRate) {
+            this.outlierRate = outlierRate;
+            return this;
+        }
+
+        GpsTrace build() {
+            double[] lat = new double[seconds];
+            double[] lon = new double[seconds];
+            long[] timeMs = new long[seconds];
+            float[] accuracyM = new float[seconds];
+            float[] speedMps = new float[seconds];
+
+            double x = 0;
+            double y = 0;
+            double heading = 0;
+            double speed = 0;
+            double truth = 0;
+            int stopLeft = 0;
+            for (int i = 0; i < seconds; i++) {
+                // Velocidad: se detiene a ratos y acelera/frena suave hacia la de crucero
+                if (stopLeft > 0) {
+                    stopLeft--;
+                    speed = 0;
+                } else if (random.nextDouble() < stoppedFraction / 30.0) {
+                    stopLeft = 30;
+                    speed = 0;
+                } else {
+                    speed += Math.max(-3, Math.min(2, cruiseMps - speed + random.nextGaussian()));
+                    speed = Math.max(0, speed);
+                }
+                // Curvas suaves, más cerradas a baja velocidad
+                heading += random.nextGaussian() * 0.05 + Math.sin(i / 90.0) * 0.03;
+                double dx = speed * Math.sin(heading);
+                double dy = speed * Math.cos(heading);
+                x += dx;
+                y += dy;
+                truth += Math.hypot(dx, dy);
+
+                double errX = random.nextGaussian() * noiseM;
+                double errY = random.nextGaussian() * noiseM;
+                float accuracy = (float) Math.max(3, noiseM * 1.5 + random.nextDouble() * 2);
+                double roll = random.nextDouble();
+                if (roll < inaccurateRate) {
+                    accuracy = 50 + random.nextInt(100);
+                    errX = random.nextGaussian() * accuracy;
+                    errY = random.nextGaussian() * accuracy;
+                } else if (roll < inaccurateRate + outlierRate) {
+                    errX = (random.nextBoolean() ? 1 : -1) * (300 + random.nextInt(500));
+                    errY = (random.nextBoolean() ? 1 : -1) * (300 + random.nextInt(500));
+                }
+
+                lat[i] = ORIGIN_LAT + (y + errY) / METERS_PER_DEG_LAT;
+                lon[i] = ORIGIN_LON + (x + errX) / METERS_PER_DEG_LON;
+                timeMs[i] = 1_700_000_000_000L + i * 1000L;
+                accuracyM[i] = accuracy;
+                speedMps[i] = (float) Math.max(0, speed + random.nextGaussian() * 0.3);
+            }
+            return new GpsTrace(lat, lon, timeMs, accuracyM, speedMps, truth);
+        }
+    }
+}
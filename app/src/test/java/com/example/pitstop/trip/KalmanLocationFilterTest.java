@@ -0,0 +1,93 @@
+package com.example.pitstop.trip;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.function.LongFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Replays de trazas GPS sobre {@link TripDistanceEstimator} contra el acumulador crudo:
+ * el error relativo de cada escenario queda en la salida estándar.
+ */
+public class KalmanLocationFilterTest {
+    private static final long[] SEEDS = {1, 2, 3, 4, 5};
+
+    @Test
+    public void noisyTrace_beatsRawAccumulator() {
+        assertImproves("ruido 4 m", seed -> GpsTrace.builder(seed).noiseM(4), 0.03);
+    }
+
+    @Test
+    public void veryNoisyTrace_beatsRawAccumulator() {
+        assertImproves("ruido 8 m", seed -> GpsTrace.builder(seed).noiseM(8).stoppedFraction(0.2), 0.05);
+    }
+
+    @Test
+    public void stopsAndOutliers_beatRawAccumulator() {
+        assertImproves("detenciones y saltos",
+            seed -> GpsTrace.builder(seed).noiseM(4).stoppedFraction(0.2).inaccurateRate(0.05).outlierRate(0.01), 0.03);
+    }
+
+    @Test
+    public void stationaryJitter_addsNoDistance() {
+        TripDistanceEstimator estimator = new TripDistanceEstimator();
+        Random random = new Random(3);
+        for (int i = 0; i < 300; i++) {
+            // ~5 m de ruido alrededor de un punto fijo
+            double lat = -34.6 + random.nextGaussian() * 5e-5;
+            double lon = -58.4 + random.nextGaussian() * 5e-5;
+            estimator.offer(lat, lon, i * 1000L, 5, 0.2f);
+        }
+        assertEquals(0, estimator.getDistanceMeters(), 1);
+    }
+
+    @Test
+    public void singleJump_isGated() {
+        KalmanLocationFilter filter = new KalmanLocationFilter();
+        long time = 0;
+        for (int i = 0; i < 20; i++, time += 1000) {
+            filter.update(-34.6 + i * 1e-4, -58.4, time, 4, 11);
+        }
+        // ~500 m al costado: se descarta y la estimación sigue sobre el camino
+        assertFalse(filter.update(-34.6 + 20 * 1e-4, -58.395, time, 4, 11));
+        assertEquals(-58.4, filter.getLongitude(), 1e-5);
+        assertTrue(filter.update(-34.6 + 21 * 1e-4, -58.4, time + 1000, 4, 11));
+    }
+
+    @Test
+    public void repeatedJumps_resetFilter() {
+        KalmanLocationFilter filter = new KalmanLocationFilter();
+        filter.update(-34.6, -58.4, 0, 4, Float.NaN);
+        // La posición real estaba lejos del primer fix: tras varios descartes se reinicia
+        assertFalse(filter.update(-34.61, -58.4, 1000, 4, Float.NaN));
+        assertFalse(filter.update(-34.61, -58.4, 2000, 4, Float.NaN));
+        assertTrue(filter.update(-34.61, -58.4, 3000, 4, Float.NaN));
+        assertEquals(-34.61, filter.getLatitude(), 1e-9);
+    }
+
+    private static void assertImproves(String scenario, LongFunction<GpsTrace.Builder> scenarioForSeed, double maxError) {
+        double rawError = 0;
+        double filteredError = 0;
+        for (long seed : SEEDS) {
+            GpsTrace trace = scenarioForSeed.apply(seed).build();
+            DistanceAccumulator raw = new DistanceAccumulator();
+            TripDistanceEstimator estimator = new TripDistanceEstimator();
+            for (int i = 0; i < trace.size(); i++) {
+                raw.offer(trace.lat[i], trace.lon[i], trace.timeMs[i], trace.accuracyM[i]);
+                estimator.offer(trace.lat[i], trace.lon[i], trace.timeMs[i], trace.accuracyM[i], trace.speedMps[i]);
+            }
+            rawError += Math.abs(raw.getDistanceMeters() - trace.truthMeters) / trace.truthMeters;
+            filteredError += Math.abs(estimator.getDistanceMeters() - trace.truthMeters) / trace.truthMeters;
+        }
+        rawError /= SEEDS.length;
+        filteredError /= SEEDS.length;
+        System.out.printf("%s: error crudo %.2f%%, filtrado %.2f%%%n", scenario, rawError * 100, filteredError * 100);
+
+        assertTrue(scenario + ": el filtro no mejora", filteredError < rawError);
+        assertTrue(scenario + ": error filtrado " + filteredError, filteredError < maxError);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.pitstop.trip;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Formato del recorrido ({@link TrackCodec}) y simplificación ({@link TrackSimplifier}).
+ * El presupuesto de tamaño es por hora de viaje a 1 Hz, ya simplificado.
+ */
+public class TrackCodecTest {
+    private static final long SEED = 7;
+    private static final int TRIP_HOUR_BUDGET_BYTES = 4 * 1024;
+    // Media unidad de la escala del formato (1e-5 grados)
+    private static final double COORDINATE_TOLERANCE = 0.5e-5;
+
+    @Test
+    public void roundTrip_keepsPointsWithinFormatPrecision() {
+        GpsTrace trace = GpsTrace.builder(SEED).seconds(600).noiseM(3).build();
+        TrackBuffer track = toTrack(trace);
+
+        TrackBuffer decoded = TrackCodec.decode(TrackCodec.encode(track));
+
+        assertEquals(track.size(), decoded.size());
+        for (int i = 0; i < track.size(); i++) {
+            assertEquals(track.latitude(i), decoded.latitude(i), COORDINATE_TOLERANCE);
+            assertEquals(track.longitude(i), decoded.longitude(i), COORDINATE_TOLERANCE);
+            assertEquals(track.timeMs(i) / 1000 * 1000, decoded.timeMs(i));
+        }
+    }
+
+    @Test
+    public void emptyTrack_roundTrips() {
+        byte[] encoded = TrackCodec.encode(new TrackBuffer());
+        assertEquals(2, encoded.length);
+        assertEquals(0, TrackCodec.decode(encoded).size());
+        assertEquals(0, TrackCodec.decode(null).size());
+    }
+
+    @Test
+    public void unknownVersion_isRejected() {
+        try {
+            TrackCodec.decode(new byte[]{99, 0});
+            fail("Se esperaba IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // ok
+        }
+    }
+
+    @Test
+    public void truncatedData_isRejected() {
+        byte[] encoded = TrackCodec.encode(toTrack(GpsTrace.builder(SEED).seconds(10).build()));
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+        try {
+            TrackCodec.decode(truncated);
+            fail("Se esperaba IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // ok
+        }
+    }
+
+    @Test
+    public void straightLine_keepsOnlyEndpoints() {
+        TrackBuffer track = new TrackBuffer();
+        for (int i = 0; i <= 100; i++) {
+            track.add(-34.6 + i * 1e-4, -58.4, i * 1000L);
+        }
+        TrackBuffer simplified = TrackSimplifier.simplify(track, TrackSimplifier.DEFAULT_TOLERANCE_M);
+
+        assertEquals(2, simplified.size());
+        assertEquals(0, simplified.timeMs(0));
+        assertEquals(100_000, simplified.timeMs(1));
+    }
+
+    @Test
+    public void corner_isKept() {
+        TrackBuffer track = new TrackBuffer();
+        for (int i = 0; i <= 50; i++) {
+            track.add(-34.6 + i * 1e-4, -58.4, i * 1000L);
+        }
+        for (int i = 1; i <= 50; i++) {
+            track.add(-34.595, -58.4 + i * 1e-4, (50 + i) * 1000L);
+        }
+        TrackBuffer simplified = TrackSimplifier.simplify(track, TrackSimplifier.DEFAULT_TOLERANCE_M);
+
+        assertEquals(3, simplified.size());
+        assertEquals(50_000, simplified.timeMs(1));
+    }
+
+    @Test
+    public void oneHourTrip_staysInLowKilobytes() {
+        GpsTrace trace = GpsTrace.builder(SEED).noiseM(3).stoppedFraction(0.1).build();
+        TrackBuffer track = toTrack(trace);
+
+        TrackBuffer simplified = TrackSimplifier.simplify(track, TrackSimplifier.DEFAULT_TOLERANCE_M);
+        byte[] encoded = TrackCodec.encode(simplified);
+        System.out.printf("Recorrido de 1 h: %d puntos -> %d simplificados, %d bytes (sin simplificar: %d bytes)%n",
+            track.size(), simplified.size(), encoded.length, TrackCodec.encode(track).length);
+
+        assertTrue("Recorrido demasiado grande: " + encoded.length + " bytes", encoded.length <= TRIP_HOUR_BUDGET_BYTES);
+        // La forma se conserva: el largo del recorrido simplificado sigue cerca del real
+        assertEquals(trace.truthMeters, length(TrackCodec.decode(encoded)), trace.truthMeters * 0.05);
+    }
+
+    private static TrackBuffer toTrack(GpsTrace trace) {
+        TrackBuffer track = new TrackBuffer();
+        for (int i = 0; i < trace.size(); i++) {
+            track.add(trace.lat[i], trace.lon[i], trace.timeMs[i]);
+        }
+        return track;
+    }
+
+    private static double length(TrackBuffer track) {
+        double meters = 0;
+        for (int i = 1; i < track.size(); i++) {
+            meters += DistanceAccumulator.haversineMeters(track.latitude(i - 1), track.longitude(i - 1),
+                track.latitude(i), track.longitude(i));
+        }
+        return meters;
+    }
+}